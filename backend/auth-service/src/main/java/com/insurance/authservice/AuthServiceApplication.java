@@ -6,7 +6,11 @@ import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.web.bind.annotation.CrossOrigin;
 
 @CrossOrigin
-@SpringBootApplication
+// Shared filters and data-source plumbing from service-support
+@SpringBootApplication(scanBasePackages = {
+        "com.insurance.authservice",
+        "com.insurance.support.sql"
+})
 @EnableDiscoveryClient
 public class AuthServiceApplication {
     public static void main(String[] args) {
@@ -0,0 +1,27 @@
+#!/usr/bin/env bash
+# Builds the benchmark jar, runs JMH and compares against the committed baseline.
+#
+#   ./run-benchmarks.sh                      run everything, compare to baseline/jmh-results.json
+#   ./run-benchmarks.sh JwtUtils             run benchmarks matching a regex
+#   UPDATE_BASELINE=1 ./run-benchmarks.sh    run and overwrite the baseline
+#
+# Extra JMH options can be passed through JMH_OPTS, e.g. JMH_OPTS="-prof gc".
+set -euo pipefail
+
+cd "$(dirname "$0")"
+BASELINE=baseline/jmh-results.json
+RESULT=target/jmh-results.json
+
+(cd .. && mvn -B -q -pl benchmarks -am package -DskipTests)
+
+java -jar target/benchmarks.jar ${JMH_OPTS:-} -rf json -rff "$RESULT" "${1:-.*}"
+
+if [[ "${UPDATE_BASELINE:-0}" == "1" ]]; then
+    mkdir -p baseline
+    cp "$RESULT" "$BASELINE"
+    echo "Baseline updated: $BASELINE"
+elif [[ -f "$BASELINE" ]]; then
+    java -cp target/benchmarks.jar com.insurance.benchmarks.BaselineComparator "$BASELINE" "$RESULT" "${THRESHOLD:-10}"
+else
+    echo "No baseline at $BASELINE; run with UPDATE_BASELINE=1 to record one."
+fi
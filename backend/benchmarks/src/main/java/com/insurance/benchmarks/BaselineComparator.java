@@ -0,0 +1,75 @@
+package com.insurance.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares a JMH JSON result file against the committed baseline and prints
+ * one line per benchmark. Exits with status 1 if any benchmark regressed by
+ * more than the threshold (default 10%).
+ *
+ * <pre>java -cp target/benchmarks.jar com.insurance.benchmarks.BaselineComparator baseline/jmh-results.json target/jmh-results.json [thresholdPercent]</pre>
+ */
+public class BaselineComparator {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BaselineComparator <baseline.json> <current.json> [thresholdPercent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+
+        Map<String, JsonNode> baseline = load(new File(args[0]));
+        Map<String, JsonNode> current = load(new File(args[1]));
+
+        int regressions = 0;
+        for (Map.Entry<String, JsonNode> entry : new TreeMap<>(current).entrySet()) {
+            JsonNode now = entry.getValue();
+            JsonNode before = baseline.get(entry.getKey());
+            double score = now.path("primaryMetric").path("score").asDouble();
+            String unit = now.path("primaryMetric").path("scoreUnit").asText();
+            if (before == null) {
+                System.out.printf("NEW        %-90s %12.3f %s%n", entry.getKey(), score, unit);
+                continue;
+            }
+
+            double previous = before.path("primaryMetric").path("score").asDouble();
+            boolean higherIsBetter = now.path("mode").asText().equals("thrpt");
+            double change = previous == 0 ? 0 : (score - previous) / previous * 100.0;
+            double worse = higherIsBetter ? -change : change;
+            String verdict = worse > threshold ? "REGRESSED" : worse < -threshold ? "IMPROVED" : "OK";
+            if (worse > threshold) {
+                regressions++;
+            }
+            System.out.printf("%-10s %-90s %12.3f -> %12.3f %s (%+.1f%%)%n",
+                    verdict, entry.getKey(), previous, score, unit, change);
+        }
+
+        if (regressions > 0) {
+            System.out.printf("%d benchmark(s) regressed by more than %.1f%%%n", regressions, threshold);
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, JsonNode> load(File file) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText());
+            JsonNode params = result.path("params");
+            Iterator<String> names = params.fieldNames();
+            while (names.hasNext()) {
+                String name = names.next();
+                key.append(' ').append(name).append('=').append(params.path(name).asText());
+            }
+            results.put(key.toString(), result);
+        }
+        return results;
+    }
+}
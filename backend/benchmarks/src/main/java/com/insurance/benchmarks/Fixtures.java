@@ -0,0 +1,80 @@
+package com.insurance.benchmarks;
+
+import com.insurance.customerservice.model.Customer;
+import com.insurance.policyservice.dto.CustomerDto;
+import com.insurance.policyservice.model.Claim;
+import com.insurance.policyservice.model.ClaimStatus;
+import com.insurance.policyservice.model.Policy;
+import com.insurance.policyservice.model.PolicyType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic sample entities shared by the benchmarks.
+ */
+public final class Fixtures {
+    private static final LocalDate EPOCH = LocalDate.of(2020, 1, 1);
+
+    private Fixtures() {
+    }
+
+    public static List<Policy> policies(int count, int customers) {
+        Random random = new Random(42);
+        PolicyType[] types = PolicyType.values();
+        List<Policy> policies = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDate start = EPOCH.plusDays(random.nextInt(365 * 4));
+            Policy policy = new Policy();
+            policy.setId((long) i + 1);
+            policy.setType(types[i % types.length]);
+            policy.setStartDate(start);
+            policy.setEndDate(start.plusYears(1));
+            policy.setCoverageAmount(BigDecimal.valueOf(5_000 + random.nextInt(500_000)));
+            policy.setCustomerId((long) (i % customers) + 1);
+            policies.add(policy);
+        }
+        return policies;
+    }
+
+    public static List<Claim> claims(int count, int policies) {
+        Random random = new Random(7);
+        ClaimStatus[] statuses = ClaimStatus.values();
+        List<Claim> claims = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Claim claim = new Claim();
+            claim.setId((long) i + 1);
+            claim.setDate(EPOCH.plusDays(random.nextInt(365 * 4)));
+            claim.setDescription("Water damage in kitchen after pipe burst, claim #" + i);
+            claim.setClaimedAmount(BigDecimal.valueOf(100 + random.nextInt(20_000)));
+            claim.setSettledAmount(BigDecimal.ZERO);
+            claim.setStatus(statuses[i % statuses.length]);
+            claim.setPolicyId((long) (i % policies) + 1);
+            claims.add(claim);
+        }
+        return claims;
+    }
+
+    public static List<Customer> customers(int count) {
+        List<Customer> customers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Customer customer = new Customer();
+            customer.setId((long) i + 1);
+            customer.setFirstName("First" + i);
+            customer.setLastName("Last" + i);
+            customer.setEmail("customer" + i + "@example.com");
+            customer.setAddress(i + " Rue de la Paix, 75002 Paris");
+            customer.setPhone(String.format("+33 6 12 34 %02d %02d", i % 100, i / 100 % 100));
+            customers.add(customer);
+        }
+        return customers;
+    }
+
+    public static CustomerDto customerDto(long id) {
+        return new CustomerDto(id, "First" + id, "Last" + id, "customer" + id + "@example.com",
+                id + " Rue de la Paix, 75002 Paris", "+33 6 12 34 56 78");
+    }
+}
@@ -0,0 +1,78 @@
+package com.insurance.benchmarks.policy;
+
+import com.insurance.policyservice.audit.ClaimAuditLog;
+import com.insurance.policyservice.audit.FsyncPolicy;
+import com.insurance.policyservice.model.ClaimStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Claim audit appends/sec per fsync policy, from one thread and from 16
+ * concurrent writers; under {@code ALWAYS} the 16-writer case shows how much
+ * group commit amortises each force. Point {@code java.io.tmpdir} at the disk
+ * under test.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuditLogAppendBenchmark {
+    private static final ClaimStatus[] STATUSES = ClaimStatus.values();
+
+    @Param({"NEVER", "INTERVAL", "ALWAYS"})
+    public FsyncPolicy fsync;
+
+    private Path directory;
+    private ClaimAuditLog log;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("claim-audit-bench");
+        log = new ClaimAuditLog(directory, 64 << 20, fsync, 10);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        log.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long appendSingleWriter() {
+        return append();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public long appendSixteenWriters() {
+        return append();
+    }
+
+    private long append() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return log.append(1 + random.nextInt(1_000_000), STATUSES[random.nextInt(STATUSES.length)],
+                STATUSES[random.nextInt(STATUSES.length)], random.nextInt(10_000_000));
+    }
+}
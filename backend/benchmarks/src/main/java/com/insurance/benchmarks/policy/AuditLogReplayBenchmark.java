@@ -0,0 +1,94 @@
+package com.insurance.benchmarks.policy;
+
+import com.insurance.policyservice.audit.ClaimAuditLog;
+import com.insurance.policyservice.audit.ClaimAuditRecord;
+import com.insurance.policyservice.audit.FsyncPolicy;
+import com.insurance.policyservice.model.ClaimStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replay from a claim audit log of {@code records} transitions over 16 MB
+ * segments: one claim's history through the offset index, a full scan, and
+ * reopening the directory (segment scan plus index rebuild, as after a
+ * restart).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class AuditLogReplayBenchmark {
+    private static final int SEGMENT_BYTES = 16 << 20;
+    private static final ClaimStatus[] STATUSES = ClaimStatus.values();
+
+    @Param({"10000000"})
+    public int records;
+
+    private int claims;
+    private Path directory;
+    private ClaimAuditLog log;
+
+    @Setup
+    public void setUp(BenchmarkParams params) throws IOException {
+        directory = Files.createTempDirectory("claim-audit-replay");
+        claims = records / 4;
+        try (ClaimAuditLog writer = new ClaimAuditLog(directory, SEGMENT_BYTES, FsyncPolicy.NEVER, 0)) {
+            for (int i = 0; i < records; i++) {
+                writer.append(1 + i % claims, STATUSES[i % STATUSES.length], STATUSES[(i + 1) % STATUSES.length], i);
+            }
+        }
+        // reopen opens the directory itself, and a second log on it is refused
+        if (!params.getBenchmark().endsWith(".reopen")) {
+            log = new ClaimAuditLog(directory, SEGMENT_BYTES, FsyncPolicy.NEVER, 0);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        if (log != null) {
+            log.close();
+        }
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public List<ClaimAuditRecord> replayOneClaim() {
+        return log.replay(1 + ThreadLocalRandom.current().nextInt(claims));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long replayAll(Blackhole blackhole) {
+        return log.replayAll(blackhole::consume);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long reopen() {
+        try (ClaimAuditLog reopened = new ClaimAuditLog(directory, SEGMENT_BYTES, FsyncPolicy.NEVER, 0)) {
+            return reopened.lastSequence();
+        }
+    }
+}
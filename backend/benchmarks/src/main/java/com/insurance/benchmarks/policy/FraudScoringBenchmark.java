@@ -0,0 +1,76 @@
+package com.insurance.benchmarks.policy;
+
+import com.insurance.policyservice.service.ClaimFraudScorer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scoring throughput with millions of live policy and customer keys, on one
+ * thread and on every core. Setup prints the counters' footprint per key;
+ * run with {@code JMH_OPTS="-prof gc"} for allocation per score.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class FraudScoringBenchmark {
+    private static final long TODAY = LocalDate.of(2026, 6, 30).toEpochDay();
+
+    @Param({"1000000", "5000000"})
+    public int policies;
+
+    private ClaimFraudScorer scorer;
+
+    @State(Scope.Thread)
+    public static class Claims {
+        private final SplittableRandom random = new SplittableRandom();
+    }
+
+    @Setup
+    public void setUp() {
+        scorer = new ClaimFraudScorer(5, 6, 64, policies);
+        SplittableRandom random = new SplittableRandom(42);
+        for (long policyId = 1; policyId <= policies; policyId++) {
+            scorer.record(policyId, customerId(policyId), TODAY - random.nextInt(30), 1_000_00 + random.nextInt(2_000_000));
+        }
+        System.out.printf("%n%d keys, %d MB of counters, %d bytes per key%n", scorer.keys(),
+                scorer.memoryBytes() >> 20, scorer.memoryBytes() / scorer.keys());
+    }
+
+    @Benchmark
+    @Threads(1)
+    public int scoreSingleThread(Claims claims) {
+        return score(claims.random);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public int scoreAllThreads(Claims claims) {
+        return score(claims.random);
+    }
+
+    private int score(SplittableRandom random) {
+        long policyId = 1 + random.nextInt(policies);
+        return scorer.score(policyId, customerId(policyId), TODAY, 50_000 + random.nextInt(5_000_000), 50_000_000);
+    }
+
+    private long customerId(long policyId) {
+        return 1 + policyId % Math.max(1, policies / 3);
+    }
+}
@@ -0,0 +1,184 @@
+package com.insurance.benchmarks.policy;
+
+import com.insurance.benchmarks.Fixtures;
+import com.insurance.policyservice.PolicyServiceApplication;
+import com.insurance.policyservice.model.Claim;
+import com.insurance.policyservice.model.ClaimStatus;
+import com.insurance.policyservice.model.Policy;
+import com.insurance.policyservice.repository.ClaimRepository;
+import com.insurance.policyservice.repository.PolicyRepository;
+import com.insurance.policyservice.service.ClaimService;
+import com.insurance.policyservice.service.PolicyService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Update throughput through the services: the PUT path (findById, copy every
+ * field, save) against the PATCH path (one UPDATE ... returning the old row),
+ * on one thread and on four so the shorter row-lock hold shows up. Both paths
+ * keep rollups, portfolio and audit log in step.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PartialUpdateBenchmark {
+    private static final ClaimStatus[] STATUSES = ClaimStatus.values();
+
+    @Param({"10000"})
+    public int policies;
+
+    private ConfigurableApplicationContext context;
+    private PolicyService policyService;
+    private ClaimService claimService;
+    private List<Policy> book;
+    private List<Claim> claims;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(PolicyServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.config.name=benchmark-policy");
+        policyService = context.getBean(PolicyService.class);
+        claimService = context.getBean(ClaimService.class);
+
+        book = Fixtures.policies(policies, Math.max(1, policies / 3));
+        book.forEach(policy -> policy.setId(null));
+        context.getBean(PolicyRepository.class).saveAll(book);
+
+        claims = Fixtures.claims(policies * 2, policies);
+        claims.forEach(claim -> claim.setId(null));
+        context.getBean(ClaimRepository.class).saveAll(claims);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Policy putPolicy() {
+        return putPolicyCoverage();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Policy patchPolicy() {
+        return patchPolicyCoverage();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Policy putPolicyConcurrent() {
+        return retryOnConflict(this::putPolicyCoverage);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Policy patchPolicyConcurrent() {
+        return patchPolicyCoverage();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Claim putClaim() {
+        return putClaimAmount();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Claim patchClaim() {
+        return patchClaimAmount();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Claim putClaimConcurrent() {
+        return retryOnConflict(this::putClaimAmount);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Claim patchClaimConcurrent() {
+        return patchClaimAmount();
+    }
+
+    // The type is left alone so neither path re-files the policy's claims
+    private Policy putPolicyCoverage() {
+        int index = ThreadLocalRandom.current().nextInt(policies);
+        Policy stored = book.get(index);
+        Policy details = new Policy();
+        details.setType(stored.getType());
+        details.setStartDate(stored.getStartDate());
+        details.setEndDate(stored.getEndDate());
+        details.setCoverageAmount(coverage());
+        return policyService.updatePolicy((long) index + 1, details);
+    }
+
+    private Policy patchPolicyCoverage() {
+        long id = ThreadLocalRandom.current().nextLong(1, policies + 1);
+        return policyService.patchPolicy(id, null, Map.of("coverageAmount", coverage()));
+    }
+
+    // The claimed amount moves the rollups on both paths; the status is re-applied unchanged
+    private Claim putClaimAmount() {
+        int index = ThreadLocalRandom.current().nextInt(claims.size());
+        Claim stored = claims.get(index);
+        Claim details = new Claim();
+        details.setDate(stored.getDate());
+        details.setDescription(stored.getDescription());
+        details.setClaimedAmount(claimed());
+        details.setSettledAmount(stored.getSettledAmount());
+        details.setStatus(STATUSES[index % STATUSES.length]);
+        return claimService.updateClaim((long) index + 1, details);
+    }
+
+    private Claim patchClaimAmount() {
+        long id = ThreadLocalRandom.current().nextLong(1, claims.size() + 1);
+        return claimService.patchClaim(id, null, Map.of("claimedAmount", claimed()));
+    }
+
+    // Two threads can PUT the same row at once; the loser fails its version check and, like a client, tries again
+    private static <T> T retryOnConflict(Supplier<T> put) {
+        while (true) {
+            try {
+                return put.get();
+            } catch (OptimisticLockingFailureException e) {
+                // Picks another row
+            }
+        }
+    }
+
+    private static BigDecimal coverage() {
+        return BigDecimal.valueOf(5_000 + ThreadLocalRandom.current().nextInt(500_000));
+    }
+
+    private static BigDecimal claimed() {
+        return BigDecimal.valueOf(100 + ThreadLocalRandom.current().nextInt(20_000));
+    }
+}
@@ -0,0 +1,105 @@
+package com.insurance.benchmarks.policy;
+
+import com.insurance.benchmarks.Fixtures;
+import com.insurance.benchmarks.Stubs;
+import com.insurance.policyservice.client.CustomerClient;
+import com.insurance.policyservice.client.HedgedCustomerClient;
+import com.insurance.policyservice.dto.CustomerChangeFeedDto;
+import com.insurance.policyservice.dto.CustomerDto;
+import com.insurance.policyservice.dto.PolicyWithCustomerDto;
+import com.insurance.policyservice.model.Policy;
+import com.insurance.policyservice.repository.PolicyRepository;
+import com.insurance.policyservice.service.CustomerProjectionService;
+import com.insurance.policyservice.service.PolicyService;
+import com.insurance.policyservice.shard.ShardRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * {@link PolicyService} enrichment with the repository and the Feign
+ * {@link CustomerClient} stubbed, so the numbers reflect only the in-process
+ * join and mapping work.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PolicyEnrichmentBenchmark {
+    @Param({"100", "10000"})
+    public int policies;
+
+    private PolicyService policyService;
+
+    @Setup
+    public void setUp() {
+        List<Policy> book = Fixtures.policies(policies, Math.max(1, policies / 3));
+        Map<Long, Policy> byId = book.stream().collect(Collectors.toMap(Policy::getId, Function.identity()));
+
+        PolicyRepository policyRepository = Stubs.of(PolicyRepository.class, Map.of(
+                "findAll", args -> book,
+                "findById", args -> Optional.ofNullable(byId.get((Long) args[0]))));
+
+        CustomerClient customerClient = new CustomerClient() {
+            @Override
+            public CustomerDto getCustomerById(Long id) {
+                return Fixtures.customerDto(id);
+            }
+
+            @Override
+            public List<CustomerDto> getCustomersByIds(List<Long> ids) {
+                return ids.stream().map(Fixtures::customerDto).toList();
+            }
+
+            @Override
+            public List<CustomerDto> getAllCustomers() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public CustomerChangeFeedDto getCustomerChanges(long after, int limit, long waitMs) {
+                throw new UnsupportedOperationException();
+            }
+        };
+        HedgedCustomerClient hedgedCustomerClient = new HedgedCustomerClient();
+        ReflectionTestUtils.setField(hedgedCustomerClient, "customerClient", customerClient);
+
+        policyService = new PolicyService();
+        ReflectionTestUtils.setField(policyService, "policyRepository", policyRepository);
+        ReflectionTestUtils.setField(policyService, "customerClient", hedgedCustomerClient);
+        ReflectionTestUtils.setField(policyService, "shardRouter", ShardRouter.single());
+        // Projection left disabled so every lookup takes the remote path
+        ReflectionTestUtils.setField(policyService, "customerProjectionService", new CustomerProjectionService());
+        ReflectionTestUtils.setField(policyService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.invokeMethod(policyService, "init");
+    }
+
+    @Benchmark
+    public PolicyWithCustomerDto single() {
+        return policyService.getPolicyWithCustomer(1L);
+    }
+
+    @Benchmark
+    public List<PolicyWithCustomerDto> all() {
+        return policyService.getAllPoliciesWithCustomers();
+    }
+}
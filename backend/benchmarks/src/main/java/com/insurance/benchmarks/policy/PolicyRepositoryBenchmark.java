@@ -0,0 +1,92 @@
+package com.insurance.benchmarks.policy;
+
+import com.insurance.benchmarks.Fixtures;
+import com.insurance.policyservice.PolicyServiceApplication;
+import com.insurance.policyservice.model.Claim;
+import com.insurance.policyservice.model.Policy;
+import com.insurance.policyservice.repository.ClaimRepository;
+import com.insurance.policyservice.repository.PolicyRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spring Data repository queries against policy-service's in-memory H2
+ * database, booted without the web layer, Eureka or the config server.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PolicyRepositoryBenchmark {
+    @Param({"10000"})
+    public int policies;
+
+    private ConfigurableApplicationContext context;
+    private PolicyRepository policyRepository;
+    private ClaimRepository claimRepository;
+    private int customers;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(PolicyServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.config.name=benchmark-policy");
+        policyRepository = context.getBean(PolicyRepository.class);
+        claimRepository = context.getBean(ClaimRepository.class);
+
+        customers = Math.max(1, policies / 3);
+        List<Policy> book = Fixtures.policies(policies, customers);
+        book.forEach(policy -> policy.setId(null));
+        policyRepository.saveAll(book);
+
+        List<Claim> claims = Fixtures.claims(policies * 2, policies);
+        claims.forEach(claim -> claim.setId(null));
+        claimRepository.saveAll(claims);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<Policy> findById() {
+        return policyRepository.findById(ThreadLocalRandom.current().nextLong(1, policies + 1));
+    }
+
+    @Benchmark
+    public List<Policy> findByCustomerId() {
+        return policyRepository.findByCustomerId(ThreadLocalRandom.current().nextLong(1, customers + 1));
+    }
+
+    @Benchmark
+    public List<Claim> findClaimsByPolicyId() {
+        return claimRepository.findByPolicyId(ThreadLocalRandom.current().nextLong(1, policies + 1));
+    }
+
+    @Benchmark
+    @Measurement(iterations = 3, time = 5)
+    public List<Policy> findAll() {
+        return policyRepository.findAll();
+    }
+}
@@ -0,0 +1,92 @@
+package com.insurance.benchmarks.policy;
+
+import com.insurance.benchmarks.Fixtures;
+import com.insurance.policyservice.model.Policy;
+import com.insurance.policyservice.model.PolicyType;
+import com.insurance.policyservice.service.PortfolioColumns;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * "Coverage of AUTO policies active on a date, by start month" over the
+ * whole book: the columnar snapshot with fork-join (all cores and one core)
+ * against a stream over the equivalent entity list.
+ *
+ * <p>Sized for the 1-core, 5 GB reference machine: 1M policies in a 3 GB
+ * heap. The entity list alone needs about 10 GB at 10M, and parallel and
+ * single-thread scores only diverge with more than one core, so measure
+ * 10M and fork-join scaling on a larger multi-core box.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+public class PortfolioAggregationBenchmark {
+    private static final LocalDate ACTIVE_ON = LocalDate.of(2022, 6, 30);
+
+    @Param({"1000000"})
+    public int policies;
+
+    private List<Policy> book;
+    private PortfolioColumns columns;
+    private PortfolioColumns.Query query;
+    private ForkJoinPool singleThread;
+
+    @Setup
+    public void setUp() {
+        book = Fixtures.policies(policies, Math.max(1, policies / 3));
+        columns = new PortfolioColumns(policies);
+        for (Policy policy : book) {
+            columns.put(policy.getId(), policy.getType().ordinal(), (int) policy.getStartDate().toEpochDay(),
+                    (int) policy.getEndDate().toEpochDay(), policy.getCoverageAmount().movePointRight(2).longValueExact());
+        }
+        query = new PortfolioColumns.Query(PolicyType.AUTO.ordinal(), ACTIVE_ON.toEpochDay(),
+                PortfolioColumns.GroupBy.START_MONTH);
+        singleThread = new ForkJoinPool(1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        singleThread.shutdownNow();
+    }
+
+    @Benchmark
+    public PortfolioColumns.Result columnarParallel() {
+        return columns.aggregate(query, ForkJoinPool.commonPool());
+    }
+
+    @Benchmark
+    public PortfolioColumns.Result columnarSingleThread() {
+        return columns.aggregate(query, singleThread);
+    }
+
+    @Benchmark
+    public Map<YearMonth, BigDecimal> entityStream() {
+        return book.stream()
+                .filter(policy -> policy.getType() == PolicyType.AUTO)
+                .filter(policy -> !policy.getStartDate().isAfter(ACTIVE_ON) && !policy.getEndDate().isBefore(ACTIVE_ON))
+                .collect(Collectors.groupingBy(policy -> YearMonth.from(policy.getStartDate()),
+                        Collectors.reducing(BigDecimal.ZERO, Policy::getCoverageAmount, BigDecimal::add)));
+    }
+}
@@ -0,0 +1,77 @@
+package com.insurance.benchmarks.policy;
+
+import com.insurance.policyservice.service.PortfolioColumns;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * New policies landing in a loaded portfolio snapshot: ascending ids, as a
+ * single database hands them out, against ids scattered through the book,
+ * as they arrive from several shards' sequences.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class PortfolioInsertBenchmark {
+    private static final int INSERTS = 50_000;
+
+    @Param({"1000000"})
+    public int policies;
+
+    private long[] ascending;
+    private long[] scattered;
+    private PortfolioColumns columns;
+
+    @Setup
+    public void setUp() {
+        // The book holds even ids; inserts are odd, so every one is new
+        ascending = new long[INSERTS];
+        scattered = new long[INSERTS];
+        Random random = new Random(42);
+        for (int i = 0; i < INSERTS; i++) {
+            ascending[i] = 2L * (policies + i) + 1;
+            scattered[i] = 2L * random.nextInt(policies) + 1;
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void loadBook() {
+        columns = new PortfolioColumns(policies + INSERTS);
+        for (int i = 1; i <= policies; i++) {
+            columns.put(2L * i, i % 3, 18_000, 18_365, 100_000);
+        }
+    }
+
+    @Benchmark
+    public PortfolioColumns ascendingIds() {
+        return insert(ascending);
+    }
+
+    @Benchmark
+    public PortfolioColumns scatteredIds() {
+        return insert(scattered);
+    }
+
+    private PortfolioColumns insert(long[] ids) {
+        for (long id : ids) {
+            columns.put(id, 0, 18_100, 18_465, 250_000);
+        }
+        return columns;
+    }
+}
@@ -0,0 +1,99 @@
+package com.insurance.benchmarks.policy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insurance.policyservice.dto.QuoteDto;
+import com.insurance.policyservice.dto.QuoteRequest;
+import com.insurance.policyservice.model.PolicyType;
+import com.insurance.policyservice.service.QuoteService;
+import com.insurance.policyservice.service.RatingRules;
+import com.insurance.policyservice.service.RatingTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Quotes per second on one thread (one core) for the shipped
+ * {@code rating-rules.json}: the compiled table alone, and a full
+ * {@link QuoteService} quote including validation and the BigDecimal
+ * edges. Run with {@code -t <cores>} to see how it scales.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(1)
+@Fork(1)
+public class QuoteBenchmark {
+    private static final int INPUTS = 4096;
+
+    private QuoteService quoteService;
+    private RatingTable table;
+    private int[] types;
+    private long[] coverageCents;
+    private int[] termDays;
+    private List<QuoteRequest> requests;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+        try (InputStream in = new ClassPathResource("rating-rules.json").getInputStream()) {
+            table = RatingTable.compile(mapper.readValue(in, RatingRules.class));
+        }
+        quoteService = new QuoteService();
+        ReflectionTestUtils.setField(quoteService, "resourceLoader", new DefaultResourceLoader());
+        ReflectionTestUtils.setField(quoteService, "objectMapper", mapper);
+        ReflectionTestUtils.setField(quoteService, "rulesLocation", "classpath:rating-rules.json");
+        ReflectionTestUtils.setField(quoteService, "maxBatchSize", 1000);
+        quoteService.reload();
+
+        Random random = new Random(42);
+        PolicyType[] policyTypes = PolicyType.values();
+        LocalDate epoch = LocalDate.of(2026, 1, 1);
+        types = new int[INPUTS];
+        coverageCents = new long[INPUTS];
+        termDays = new int[INPUTS];
+        requests = new ArrayList<>(INPUTS);
+        for (int i = 0; i < INPUTS; i++) {
+            types[i] = policyTypes[i % policyTypes.length].ordinal();
+            coverageCents[i] = 100_000L + random.nextInt(200_000_000);
+            termDays[i] = 1 + random.nextInt(730);
+            LocalDate start = epoch.plusDays(random.nextInt(365));
+            requests.add(new QuoteRequest(policyTypes[types[i]], BigDecimal.valueOf(coverageCents[i], 2),
+                    start, start.plusDays(termDays[i] - 1)));
+        }
+    }
+
+    @Benchmark
+    public long compiledTable() {
+        int i = next++ & (INPUTS - 1);
+        return table.quoteCents(types[i], coverageCents[i], termDays[i]);
+    }
+
+    @Benchmark
+    public QuoteDto quoteService() {
+        return quoteService.quote(requests.get(next++ & (INPUTS - 1)));
+    }
+}
@@ -0,0 +1,123 @@
+package com.insurance.benchmarks.policy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insurance.benchmarks.Fixtures;
+import com.insurance.policyservice.PolicyServiceApplication;
+import com.insurance.policyservice.model.Claim;
+import com.insurance.policyservice.model.Policy;
+import com.insurance.policyservice.repository.ClaimRepository;
+import com.insurance.policyservice.repository.PolicyRepository;
+import com.insurance.support.repository.SparseFieldsRepository;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full-entity list responses vs {@code fields=} tuple projections for the
+ * fields the mobile app reads, from query through JSON encoding. The aux
+ * counters add up the response bytes per iteration; divide by {@code calls}
+ * for the size of one response. Run with {@code JMH_OPTS="-prof gc"}
+ * for allocation per request ({@code gc.alloc.rate.norm}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SparseFieldsBenchmark {
+    private static final List<String> POLICY_FIELDS = List.of("type", "endDate", "coverageAmount");
+    private static final List<String> CLAIM_FIELDS = List.of("status", "claimedAmount");
+
+    @Param({"1000"})
+    public int policies;
+
+    private ConfigurableApplicationContext context;
+    private PolicyRepository policyRepository;
+    private ClaimRepository claimRepository;
+    private SparseFieldsRepository sparseFieldsRepository;
+    private ObjectMapper mapper;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Payload {
+        public long calls;
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            calls = 0;
+            bytes = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(PolicyServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.config.name=benchmark-policy");
+        policyRepository = context.getBean(PolicyRepository.class);
+        claimRepository = context.getBean(ClaimRepository.class);
+        sparseFieldsRepository = context.getBean(SparseFieldsRepository.class);
+        mapper = Jackson2ObjectMapperBuilder.json().build();
+
+        List<Policy> book = Fixtures.policies(policies, Math.max(1, policies / 3));
+        book.forEach(policy -> policy.setId(null));
+        policyRepository.saveAll(book);
+
+        List<Claim> claims = Fixtures.claims(policies * 2, policies);
+        claims.forEach(claim -> claim.setId(null));
+        claimRepository.saveAll(claims);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] policiesFull(Payload payload) throws IOException {
+        return encode(policyRepository.findAll(), payload);
+    }
+
+    @Benchmark
+    public byte[] policiesSparse(Payload payload) throws IOException {
+        return encode(sparseFieldsRepository.findAll(Policy.class, POLICY_FIELDS, null), payload);
+    }
+
+    @Benchmark
+    public byte[] claimsFull(Payload payload) throws IOException {
+        return encode(claimRepository.findAll(), payload);
+    }
+
+    @Benchmark
+    public byte[] claimsSparse(Payload payload) throws IOException {
+        return encode(sparseFieldsRepository.findAll(Claim.class, CLAIM_FIELDS, null), payload);
+    }
+
+    private byte[] encode(Object body, Payload payload) throws IOException {
+        byte[] bytes = mapper.writeValueAsBytes(body);
+        payload.calls++;
+        payload.bytes += bytes.length;
+        return bytes;
+    }
+}
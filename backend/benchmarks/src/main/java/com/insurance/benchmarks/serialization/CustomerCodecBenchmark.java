@@ -0,0 +1,110 @@
+package com.insurance.benchmarks.serialization;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insurance.benchmarks.Fixtures;
+import com.insurance.policyservice.dto.CustomerDto;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * JSON vs CBOR for the customer payloads policy-service fetches: a single
+ * {@code GET /api/customers/{id}} body and a 200-customer batch body. The
+ * aux counters add up the bytes written per iteration, raw and
+ * gzip-compressed; divide by {@code calls} for the size of one body.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CustomerCodecBenchmark {
+    @Param({"json", "cbor"})
+    public String format;
+
+    @Param({"1", "200"})
+    public int customers;
+
+    private ObjectMapper mapper;
+    private JavaType listType;
+    private Object payload;
+    private byte[] encoded;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class WireSize {
+        public long calls;
+        public long bytes;
+        public long gzipBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            calls = 0;
+            bytes = 0;
+            gzipBytes = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        mapper = "cbor".equals(format)
+                ? Jackson2ObjectMapperBuilder.cbor().build()
+                : Jackson2ObjectMapperBuilder.json().build();
+        listType = mapper.getTypeFactory().constructCollectionType(List.class, CustomerDto.class);
+
+        List<CustomerDto> batch = new ArrayList<>(customers);
+        for (int i = 1; i <= customers; i++) {
+            batch.add(Fixtures.customerDto(i));
+        }
+        payload = customers == 1 ? batch.get(0) : batch;
+        encoded = mapper.writeValueAsBytes(payload);
+    }
+
+    @Benchmark
+    public byte[] encode(WireSize wireSize) throws IOException {
+        byte[] bytes = mapper.writeValueAsBytes(payload);
+        wireSize.calls++;
+        wireSize.bytes += bytes.length;
+        return bytes;
+    }
+
+    // Encoding plus the gzip a compressing proxy or server would apply
+    @Benchmark
+    public byte[] encodeGzipped(WireSize wireSize) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            mapper.writeValue(gzip, payload);
+        }
+        byte[] bytes = compressed.toByteArray();
+        wireSize.calls++;
+        wireSize.gzipBytes += bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public Object decode() throws IOException {
+        return customers == 1
+                ? mapper.readValue(encoded, CustomerDto.class)
+                : mapper.readValue(encoded, listType);
+    }
+}
@@ -0,0 +1,75 @@
+package com.insurance.benchmarks.serialization;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insurance.benchmarks.Fixtures;
+import com.insurance.customerservice.model.Customer;
+import com.insurance.policyservice.dto.PolicyWithCustomerDto;
+import com.insurance.policyservice.model.Claim;
+import com.insurance.policyservice.model.Policy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization cost of the list payloads returned by the controllers, using
+ * an ObjectMapper configured the same way Spring Boot configures the services.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JacksonSerializationBenchmark {
+    @Param({"10", "1000"})
+    public int size;
+
+    private ObjectMapper mapper;
+    private List<Policy> policies;
+    private List<Claim> claims;
+    private List<PolicyWithCustomerDto> policiesWithCustomers;
+    private List<Customer> customers;
+
+    @Setup
+    public void setUp() {
+        mapper = Jackson2ObjectMapperBuilder.json().build();
+        policies = Fixtures.policies(size, Math.max(1, size / 3));
+        claims = Fixtures.claims(size, Math.max(1, size / 2));
+        policiesWithCustomers = policies.stream()
+                .map(policy -> new PolicyWithCustomerDto(policy, Fixtures.customerDto(policy.getCustomerId())))
+                .toList();
+        customers = Fixtures.customers(size);
+    }
+
+    @Benchmark
+    public byte[] policies() throws Exception {
+        return mapper.writeValueAsBytes(policies);
+    }
+
+    @Benchmark
+    public byte[] claims() throws Exception {
+        return mapper.writeValueAsBytes(claims);
+    }
+
+    @Benchmark
+    public byte[] policiesWithCustomers() throws Exception {
+        return mapper.writeValueAsBytes(policiesWithCustomers);
+    }
+
+    @Benchmark
+    public byte[] customers() throws Exception {
+        return mapper.writeValueAsBytes(customers);
+    }
+}
@@ -3,9 +3,18 @@ package com.insurance.customerservice;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
-@SpringBootApplication
+// Shared filters and data-source plumbing from service-support
+@SpringBootApplication(scanBasePackages = {
+        "com.insurance.customerservice",
+        "com.insurance.support.sql",
+        "com.insurance.support.idempotency",
+        "com.insurance.support.replica",
+        "com.insurance.support.repository"
+})
 @EnableDiscoveryClient
+@EnableScheduling
 public class CustomerServiceApplication {
     public static void main(String[] args) {
         SpringApplication.run(CustomerServiceApplication.class, args);
@@ -1,14 +1,21 @@
 package com.insurance.customerservice.controller;
 
+import com.insurance.customerservice.dto.ChangeFeedResponse;
 import com.insurance.customerservice.model.Customer;
+import com.insurance.customerservice.service.ChangeFeedService;
 import com.insurance.customerservice.service.CustomerService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/customers")
@@ -16,19 +23,47 @@ public class CustomerController {
     @Autowired
     private CustomerService customerService;
 
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    private static final int MAX_CHANGES_PER_PAGE = 1000;
+    private static final long MAX_CHANGES_WAIT_MS = 30_000;
+
     @GetMapping
-    public ResponseEntity<List<Customer>> getAllCustomers() {
-        List<Customer> customers = customerService.getAllCustomers();
-        return new ResponseEntity<>(customers, HttpStatus.OK);
+    public ResponseEntity<List<?>> getAllCustomers(@RequestParam(required = false) List<String> fields) {
+        if (fields == null || fields.isEmpty()) {
+            List<Customer> customers = customerService.getAllCustomers();
+            return new ResponseEntity<>(customers, HttpStatus.OK);
+        }
+        try {
+            return new ResponseEntity<>(customerService.getAllCustomers(fields), HttpStatus.OK);
+        } catch (IllegalArgumentException | InvalidDataAccessApiUsageException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<Customer> getCustomerById(@PathVariable Long id) {
         return customerService.getCustomerById(id)
-                .map(customer -> new ResponseEntity<>(customer, HttpStatus.OK))
+                .map(customer -> new ResponseEntity<>(customer, ETags.headers(customer.getVersion()), HttpStatus.OK))
                 .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
+    @GetMapping("/batch")
+    public ResponseEntity<List<Customer>> getCustomersByIds(@RequestParam List<Long> ids) {
+        List<Customer> customers = customerService.getCustomersByIds(ids);
+        return new ResponseEntity<>(customers, HttpStatus.OK);
+    }
+
+    @GetMapping("/changes")
+    public DeferredResult<ChangeFeedResponse> getChanges(
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(defaultValue = "0") long waitMs) {
+        return changeFeedService.pollChanges(after, Math.max(1, Math.min(limit, MAX_CHANGES_PER_PAGE)),
+                Math.max(0, Math.min(waitMs, MAX_CHANGES_WAIT_MS)));
+    }
+
     @PostMapping
     public ResponseEntity<Customer> createCustomer(@Valid @RequestBody Customer customer) {
         Customer newCustomer = customerService.createCustomer(customer);
@@ -40,6 +75,27 @@ public class CustomerController {
         try {
             Customer updatedCustomer = customerService.updateCustomer(id, customer);
             return new ResponseEntity<>(updatedCustomer, HttpStatus.OK);
+        } catch (OptimisticLockingFailureException e) {
+            // Another update committed between this one's read and write
+            return new ResponseEntity<>(HttpStatus.CONFLICT);
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+
+    // Only the fields in the body are written; send the ETag from GET as If-Match to update conditionally
+    @PatchMapping("/{id}")
+    public ResponseEntity<Customer> patchCustomer(@PathVariable Long id,
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                  @RequestBody Map<String, Object> changes) {
+        try {
+            Customer patchedCustomer = customerService.patchCustomer(id, ETags.expectedVersion(ifMatch), changes);
+            return new ResponseEntity<>(patchedCustomer, ETags.headers(patchedCustomer.getVersion()), HttpStatus.OK);
+        } catch (IllegalArgumentException | InvalidDataAccessApiUsageException e) {
+            // PatchRepository's IllegalArgumentException arrives translated by its @Repository proxy
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        } catch (OptimisticLockingFailureException e) {
+            return new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED);
         } catch (RuntimeException e) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
@@ -56,10 +112,27 @@ public class CustomerController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<Customer>> searchCustomers(
+    public ResponseEntity<List<?>> searchCustomers(
             @RequestParam(required = false) String lastName,
-            @RequestParam(required = false) String email) {
+            @RequestParam(required = false) String email,
+            @RequestParam(required = false) List<String> fields) {
         
+        if (fields != null && !fields.isEmpty()) {
+            try {
+                List<Map<String, Object>> rows;
+                if (lastName != null && !lastName.isEmpty()) {
+                    rows = customerService.searchCustomers("lastName", lastName, fields);
+                } else if (email != null && !email.isEmpty()) {
+                    rows = customerService.searchCustomers("email", email, fields);
+                } else {
+                    rows = customerService.getAllCustomers(fields);
+                }
+                return new ResponseEntity<>(rows, HttpStatus.OK);
+            } catch (IllegalArgumentException | InvalidDataAccessApiUsageException e) {
+                return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+            }
+        }
+
         List<Customer> customers;
         
         if (lastName != null && !lastName.isEmpty()) {
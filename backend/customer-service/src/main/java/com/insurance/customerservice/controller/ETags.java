@@ -0,0 +1,34 @@
+package com.insurance.customerservice.controller;
+
+import org.springframework.http.HttpHeaders;
+
+/** Entity versions as strong ETags, and If-Match headers back to versions. */
+final class ETags {
+    private ETags() {
+    }
+
+    static HttpHeaders headers(Long version) {
+        HttpHeaders headers = new HttpHeaders();
+        if (version != null) {
+            headers.setETag("\"" + version + "\"");
+        }
+        return headers;
+    }
+
+    /** The version an If-Match header asks for, or null when absent or {@code *}. */
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        // If-Match compares strongly, so weak tags are refused too
+        String tag = ifMatch.trim();
+        if (tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            throw new IllegalArgumentException("Malformed If-Match: " + ifMatch);
+        }
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed If-Match: " + ifMatch);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.insurance.customerservice.dto;
+
+import com.insurance.customerservice.model.CustomerChange;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeFeedResponse {
+    private List<CustomerChange> changes;
+
+    // Pass as "after" on the next call
+    private Long lastSeq;
+
+    // True when entries after the requested position were removed by retention;
+    // the consumer must take a fresh snapshot and continue from lastSeq
+    private boolean resetRequired;
+
+    // Latest sequence number written; lets consumers anchor a snapshot and measure lag
+    private Long headSeq;
+}
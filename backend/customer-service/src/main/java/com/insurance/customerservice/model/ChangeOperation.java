@@ -0,0 +1,5 @@
+package com.insurance.customerservice.model;
+
+public enum ChangeOperation {
+    CREATED, UPDATED, DELETED
+}
@@ -0,0 +1,30 @@
+package com.insurance.customerservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Single-row counter for the change feed. Writers lock this row to take the
+ * next sequence number, so sequence order matches commit order and a reader
+ * never sees seq N+1 before seq N is visible.
+ */
+@Entity
+@Table(name = "customer_change_sequence")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeSequence {
+    public static final long SINGLETON_ID = 1L;
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private Long lastSeq;
+
+    // Highest sequence number dropped by retention; consumers behind it must resnapshot
+    @Column(nullable = false)
+    private Long purgedThrough;
+}
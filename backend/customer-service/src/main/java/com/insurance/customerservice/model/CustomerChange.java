@@ -0,0 +1,46 @@
+package com.insurance.customerservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Outbox row written in the same transaction as the customer change it
+ * describes. Carries a full snapshot so consumers never need to call back;
+ * snapshot fields are null for deletions.
+ */
+@Entity
+@Table(name = "customer_changes", indexes = {
+        @Index(name = "idx_customer_changes_customer", columnList = "customerId, seq"),
+        @Index(name = "idx_customer_changes_changed_at", columnList = "changedAt")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerChange {
+    @Id
+    private Long seq;
+
+    @Column(nullable = false)
+    private Long customerId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private ChangeOperation operation;
+
+    private String firstName;
+
+    private String lastName;
+
+    private String email;
+
+    private String address;
+
+    private String phone;
+
+    @Column(nullable = false)
+    private Instant changedAt;
+}
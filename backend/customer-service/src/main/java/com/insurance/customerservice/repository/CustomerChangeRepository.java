@@ -0,0 +1,33 @@
+package com.insurance.customerservice.repository;
+
+import com.insurance.customerservice.model.CustomerChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface CustomerChangeRepository extends JpaRepository<CustomerChange, Long> {
+    List<CustomerChange> findBySeqGreaterThanOrderBySeqAsc(Long seq, Pageable pageable);
+
+    @Query("SELECT MIN(c.seq) FROM CustomerChange c")
+    Long findEarliestSeq();
+
+    // Drops entries that a newer entry for the same customer supersedes
+    @Modifying
+    @Query("DELETE FROM CustomerChange c WHERE c.changedAt < :cutoff AND EXISTS "
+            + "(SELECT 1 FROM CustomerChange n WHERE n.customerId = c.customerId AND n.seq > c.seq)")
+    int compactBefore(@Param("cutoff") Instant cutoff);
+
+    @Query("SELECT MAX(c.seq) FROM CustomerChange c WHERE c.changedAt < :cutoff")
+    Long findLastSeqBefore(@Param("cutoff") Instant cutoff);
+
+    @Modifying
+    @Query("DELETE FROM CustomerChange c WHERE c.seq <= :seq")
+    int deleteThrough(@Param("seq") Long seq);
+}
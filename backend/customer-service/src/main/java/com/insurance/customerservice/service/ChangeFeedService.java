@@ -0,0 +1,198 @@
+package com.insurance.customerservice.service;
+
+import com.insurance.customerservice.dto.ChangeFeedResponse;
+import com.insurance.customerservice.model.ChangeOperation;
+import com.insurance.customerservice.model.ChangeSequence;
+import com.insurance.customerservice.model.Customer;
+import com.insurance.customerservice.model.CustomerChange;
+import com.insurance.customerservice.repository.ChangeSequenceRepository;
+import com.insurance.customerservice.repository.CustomerChangeRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Transactional outbox and change feed for customers.
+ *
+ * {@link #record} must run inside the transaction that changes the customer.
+ * Waiting long-poll requests are woken after that transaction commits.
+ */
+@Service
+public class ChangeFeedService {
+    private static final Logger logger = LoggerFactory.getLogger(ChangeFeedService.class);
+
+    @Autowired
+    private CustomerChangeRepository changeRepository;
+
+    @Autowired
+    private ChangeSequenceRepository sequenceRepository;
+
+    @Value("${insurance.customer-changes.compact-after-minutes:60}")
+    private long compactAfterMinutes;
+
+    @Value("${insurance.customer-changes.retention-hours:168}")
+    private long retentionHours;
+
+    @Value("${insurance.customer-changes.max-entries:1000000}")
+    private long maxEntries;
+
+    private final ConcurrentLinkedQueue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+    private final ExecutorService notifier = Executors.newSingleThreadExecutor();
+
+    private record Waiter(long after, int limit, DeferredResult<ChangeFeedResponse> result) {
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(ChangeOperation operation, Customer customer) {
+        ChangeSequence sequence = sequenceRepository.findForUpdate(ChangeSequence.SINGLETON_ID)
+                .orElseThrow(() -> new IllegalStateException("Change sequence has not been initialized"));
+        long seq = sequence.getLastSeq() + 1;
+        sequence.setLastSeq(seq);
+        sequenceRepository.save(sequence);
+
+        boolean deleted = operation == ChangeOperation.DELETED;
+        changeRepository.save(new CustomerChange(seq, customer.getId(), operation,
+                deleted ? null : customer.getFirstName(),
+                deleted ? null : customer.getLastName(),
+                deleted ? null : customer.getEmail(),
+                deleted ? null : customer.getAddress(),
+                deleted ? null : customer.getPhone(),
+                Instant.now()));
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                notifier.execute(ChangeFeedService.this::wakeWaiters);
+            }
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public ChangeFeedResponse getChanges(long after, int limit) {
+        List<CustomerChange> changes = changeRepository.findBySeqGreaterThanOrderBySeqAsc(after, PageRequest.of(0, limit));
+        return response(changes, after, currentSequence());
+    }
+
+    private ChangeSequence currentSequence() {
+        return sequenceRepository.findById(ChangeSequence.SINGLETON_ID)
+                .orElse(new ChangeSequence(ChangeSequence.SINGLETON_ID, 0L, 0L));
+    }
+
+    private static ChangeFeedResponse response(List<CustomerChange> changes, long after, ChangeSequence sequence) {
+        long lastSeq = changes.isEmpty() ? Math.max(after, 0) : changes.get(changes.size() - 1).getSeq();
+        return new ChangeFeedResponse(changes, lastSeq, after < sequence.getPurgedThrough(), sequence.getLastSeq());
+    }
+
+    /**
+     * Answers immediately when changes exist after {@code after}; otherwise
+     * parks the request until a change commits or {@code waitMs} elapses.
+     */
+    public DeferredResult<ChangeFeedResponse> pollChanges(long after, int limit, long waitMs) {
+        DeferredResult<ChangeFeedResponse> result = new DeferredResult<>(waitMs);
+        ChangeFeedResponse response = getChanges(after, limit);
+        if (!response.getChanges().isEmpty() || response.isResetRequired() || waitMs <= 0) {
+            result.setResult(response);
+            return result;
+        }
+
+        Waiter waiter = new Waiter(after, limit, result);
+        result.onTimeout(() -> result.setResult(
+                new ChangeFeedResponse(List.of(), response.getLastSeq(), false, response.getHeadSeq())));
+        result.onCompletion(() -> waiters.remove(waiter));
+        waiters.add(waiter);
+        // Re-check to close the race with a commit that happened before registration
+        notifier.execute(this::wakeWaiters);
+        return result;
+    }
+
+    // One page read serves every waiter; waiters it fell short of get another round
+    private void wakeWaiters() {
+        boolean fullPage = true;
+        while (fullPage) {
+            waiters.removeIf(waiter -> waiter.result().isSetOrExpired());
+            if (waiters.isEmpty()) {
+                return;
+            }
+            long after = Long.MAX_VALUE;
+            int limit = 0;
+            for (Waiter waiter : waiters) {
+                after = Math.min(after, waiter.after());
+                limit = Math.max(limit, waiter.limit());
+            }
+            try {
+                List<CustomerChange> changes = changeRepository.findBySeqGreaterThanOrderBySeqAsc(after,
+                        PageRequest.of(0, limit));
+                ChangeSequence sequence = currentSequence();
+                fullPage = changes.size() == limit;
+                boolean shortOfAny = false;
+                for (Waiter waiter : waiters) {
+                    List<CustomerChange> due = changes.stream()
+                            .filter(change -> change.getSeq() > waiter.after())
+                            .limit(waiter.limit())
+                            .toList();
+                    if (due.isEmpty()) {
+                        shortOfAny = true;
+                    } else if (waiter.result().setResult(response(due, waiter.after(), sequence))) {
+                        waiters.remove(waiter);
+                    }
+                }
+                fullPage &= shortOfAny;
+            } catch (RuntimeException e) {
+                logger.warn("Failed to answer change feed long-polls: {}", e.getMessage());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Keeps the outbox bounded: superseded entries are compacted away once
+     * they are older than the compaction window, and everything older than
+     * the retention window (or beyond the entry cap) is purged.
+     */
+    @Scheduled(fixedDelayString = "${insurance.customer-changes.maintenance-interval-ms:60000}")
+    @Transactional
+    public void compactAndPurge() {
+        Instant now = Instant.now();
+        int compacted = changeRepository.compactBefore(now.minus(Duration.ofMinutes(compactAfterMinutes)));
+
+        ChangeSequence sequence = sequenceRepository.findForUpdate(ChangeSequence.SINGLETON_ID).orElse(null);
+        if (sequence == null) {
+            return;
+        }
+        Long expiredThrough = changeRepository.findLastSeqBefore(now.minus(Duration.ofHours(retentionHours)));
+        long purgeThrough = Math.max(expiredThrough == null ? 0 : expiredThrough, sequence.getLastSeq() - maxEntries);
+        int purged = 0;
+        if (purgeThrough > sequence.getPurgedThrough()) {
+            purged = changeRepository.deleteThrough(purgeThrough);
+            sequence.setPurgedThrough(purgeThrough);
+            sequenceRepository.save(sequence);
+        }
+        if (compacted > 0 || purged > 0) {
+            logger.info("Customer change feed maintenance: compacted {}, purged {} (through seq {})",
+                    compacted, purged, sequence.getPurgedThrough());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        notifier.shutdownNow();
+        waiters.forEach(waiter -> waiter.result().setErrorResult(new IllegalStateException("Shutting down")));
+    }
+}
@@ -0,0 +1,29 @@
+package com.insurance.customerservice.service;
+
+import com.insurance.customerservice.model.ChangeSequence;
+import com.insurance.customerservice.repository.ChangeSequenceRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Seeds during context refresh, so the row exists before the web server takes requests
+@Component
+public class ChangeSequenceSeeder {
+    @Autowired
+    private ChangeSequenceRepository sequenceRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PostConstruct
+    void init() {
+        // One read-write transaction, so the check is made on the primary rather than a replica
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            if (!sequenceRepository.existsById(ChangeSequence.SINGLETON_ID)) {
+                sequenceRepository.save(new ChangeSequence(ChangeSequence.SINGLETON_ID, 0L, 0L));
+            }
+        });
+    }
+}
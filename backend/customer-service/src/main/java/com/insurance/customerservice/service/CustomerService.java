@@ -1,30 +1,61 @@
 package com.insurance.customerservice.service;
 
+import com.insurance.customerservice.model.ChangeOperation;
 import com.insurance.customerservice.model.Customer;
 import com.insurance.customerservice.repository.CustomerRepository;
+import com.insurance.support.repository.PatchRepository;
+import com.insurance.support.repository.SparseFieldsRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class CustomerService {
     @Autowired
     private CustomerRepository customerRepository;
 
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    @Autowired
+    private SparseFieldsRepository sparseFieldsRepository;
+
+    @Autowired
+    private PatchRepository patchRepository;
+
+    @Transactional(readOnly = true)
     public List<Customer> getAllCustomers() {
         return customerRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllCustomers(List<String> fields) {
+        return sparseFieldsRepository.findAll(Customer.class, fields, null);
+    }
+
+    @Transactional(readOnly = true)
     public Optional<Customer> getCustomerById(Long id) {
         return customerRepository.findById(id);
     }
 
+    @Transactional(readOnly = true)
+    public List<Customer> getCustomersByIds(List<Long> ids) {
+        return customerRepository.findAllById(ids);
+    }
+
+    @Transactional
     public Customer createCustomer(Customer customer) {
-        return customerRepository.save(customer);
+        Customer saved = customerRepository.save(customer);
+        changeFeedService.record(ChangeOperation.CREATED, saved);
+        return saved;
     }
 
+    @Transactional
     public Customer updateCustomer(Long id, Customer customerDetails) {
         Customer customer = customerRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Customer not found with id: " + id));
@@ -35,22 +66,54 @@ public class CustomerService {
         customer.setAddress(customerDetails.getAddress());
         customer.setPhone(customerDetails.getPhone());
         
-        return customerRepository.save(customer);
+        Customer saved = customerRepository.save(customer);
+        changeFeedService.record(ChangeOperation.UPDATED, saved);
+        return saved;
+    }
+
+    /**
+     * Applies only the given fields with one UPDATE that also returns the
+     * previous row; the change feed gets the full snapshot without a read.
+     * Throws OptimisticLockingFailureException when {@code expectedVersion}
+     * is given and no longer current.
+     */
+    @Transactional
+    public Customer patchCustomer(Long id, Long expectedVersion, Map<String, Object> changes) {
+        Customer saved = patchRepository.patch(Customer.class, id, expectedVersion, changes, Set.of())
+                .orElseThrow(() -> new RuntimeException("Customer not found with id: " + id))
+                .after();
+        changeFeedService.record(ChangeOperation.UPDATED, saved);
+        return saved;
     }
 
+    @Transactional
     public void deleteCustomer(Long id) {
         Customer customer = customerRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Customer not found with id: " + id));
         
         customerRepository.delete(customer);
+        changeFeedService.record(ChangeOperation.DELETED, customer);
     }
 
+    @Transactional(readOnly = true)
     public List<Customer> searchCustomersByLastName(String lastName) {
         return customerRepository.findByLastNameContainingIgnoreCase(lastName);
     }
 
+    @Transactional(readOnly = true)
     public List<Customer> searchCustomersByEmail(String email) {
         return customerRepository.findByEmailContainingIgnoreCase(email);
     }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> searchCustomers(String attribute, String value, List<String> fields) {
+        return sparseFieldsRepository.findAll(Customer.class, fields, (root, query, cb) ->
+                cb.like(cb.lower(root.<String>get(attribute)), "%" + escapeLike(value.toLowerCase()) + "%", '\\'));
+    }
+
+    // Matches the value literally, as the derived Containing queries do
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
 }
 
@@ -0,0 +1,124 @@
+package com.insurance.customerservice.replica;
+
+import com.insurance.customerservice.model.Customer;
+import com.insurance.customerservice.service.CustomerService;
+import com.insurance.support.replica.ReadYourWritesFilter;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Replica routing against a second in-memory H2 database standing in for a
+ * lagging replica: it holds a snapshot of the primary taken before the
+ * latest write.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.cloud.config.enabled=false",
+        "eureka.client.enabled=false",
+        "spring.datasource.url=" + ReplicaRoutingTest.PRIMARY_URL,
+        "insurance.replicas.enabled=true",
+        "insurance.replicas.urls=" + ReplicaRoutingTest.REPLICA_URL
+})
+class ReplicaRoutingTest {
+    static final String PRIMARY_URL = "jdbc:h2:mem:replicatest-primary;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:replicatest-replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private ReadYourWritesFilter readYourWritesFilter;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // The cache regions are shared with the other test contexts in this JVM
+    @BeforeEach
+    void setUp() {
+        cache().evictAllRegions();
+    }
+
+    @Test
+    void replicaReadsAreNotCached() throws SQLException {
+        Customer customer = customerService.createCustomer(customer("grace@example.com"));
+        copyPrimaryToReplica();
+        moveTo(customer, "Arlington");
+        cache().evictAllRegions();
+
+        assertThat(customerService.getCustomerById(customer.getId()).orElseThrow().getAddress()).isEqualTo("London");
+        assertThat(cache().containsEntity(Customer.class, customer.getId())).isFalse();
+    }
+
+    @Test
+    void requestReadsItsOwnWritesFromThePrimary() throws Exception {
+        Customer customer = customerService.createCustomer(customer("alan@example.com"));
+        copyPrimaryToReplica();
+        AtomicReference<String> address = new AtomicReference<>();
+
+        readYourWritesFilter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), (request, response) -> {
+            moveTo(customer, "Arlington");
+            cache().evictAllRegions();
+            address.set(customerService.getCustomerById(customer.getId()).orElseThrow().getAddress());
+        });
+
+        assertThat(address).hasValue("Arlington");
+    }
+
+    private void moveTo(Customer customer, String address) {
+        Customer details = customer(customer.getEmail());
+        details.setAddress(address);
+        customerService.updateCustomer(customer.getId(), details);
+    }
+
+    // Straight to both databases, around the pools
+    private void copyPrimaryToReplica() throws SQLException {
+        List<String> script = new ArrayList<>();
+        try (Connection primary = DriverManager.getConnection(PRIMARY_URL, "sa", "");
+             Statement statement = primary.createStatement();
+             ResultSet rs = statement.executeQuery("SCRIPT NOPASSWORDS NOSETTINGS")) {
+            while (rs.next()) {
+                script.add(rs.getString(1));
+            }
+        }
+        try (Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = replica.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+            for (String sql : script) {
+                if (!sql.startsWith("CREATE USER")) {
+                    statement.execute(sql);
+                }
+            }
+        }
+    }
+
+    private Cache cache() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+
+    private static Customer customer(String email) {
+        Customer customer = new Customer();
+        customer.setFirstName("Grace");
+        customer.setLastName("Hopper");
+        customer.setEmail(email);
+        customer.setAddress("London");
+        customer.setPhone("+441234567890");
+        return customer;
+    }
+}
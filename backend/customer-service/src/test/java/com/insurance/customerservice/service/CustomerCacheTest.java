@@ -0,0 +1,69 @@
+package com.insurance.customerservice.service;
+
+import com.insurance.customerservice.model.Customer;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Customer writes, through the entity manager or the one-statement PATCH,
+ * must leave the second-level cache serving the new row.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.cloud.config.enabled=false",
+        "eureka.client.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:customercachetest;DB_CLOSE_DELAY=-1"
+})
+class CustomerCacheTest {
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void updateReplacesTheCachedCustomer() {
+        Customer customer = customerService.createCustomer(customer("ada@example.com"));
+        customerService.getCustomerById(customer.getId());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long hits = statistics.getSecondLevelCacheHitCount();
+        customerService.getCustomerById(customer.getId());
+        assertThat(statistics.getSecondLevelCacheHitCount()).isGreaterThan(hits);
+
+        Customer details = customer("ada@example.com");
+        details.setAddress("12 St James's Square, London");
+        customerService.updateCustomer(customer.getId(), details);
+
+        assertThat(customerService.getCustomerById(customer.getId()).orElseThrow().getAddress())
+                .isEqualTo("12 St James's Square, London");
+    }
+
+    @Test
+    void patchEvictsTheCachedCustomer() {
+        Customer customer = customerService.createCustomer(customer("charles@example.com"));
+        customerService.getCustomerById(customer.getId());
+
+        customerService.patchCustomer(customer.getId(), null, Map.of("phone", "+442071234567"));
+
+        Customer reloaded = customerService.getCustomerById(customer.getId()).orElseThrow();
+        assertThat(reloaded.getPhone()).isEqualTo("+442071234567");
+        assertThat(reloaded.getVersion()).isEqualTo(customer.getVersion() + 1);
+    }
+
+    private static Customer customer(String email) {
+        Customer customer = new Customer();
+        customer.setFirstName("Ada");
+        customer.setLastName("Lovelace");
+        customer.setEmail(email);
+        customer.setAddress("London");
+        customer.setPhone("+441234567890");
+        return customer;
+    }
+}
@@ -0,0 +1,50 @@
+package com.insurance.customerservice.service;
+
+import com.insurance.customerservice.model.Customer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Attribute search matches the value literally, wildcards included.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.cloud.config.enabled=false",
+        "eureka.client.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:customersearchtest;DB_CLOSE_DELAY=-1"
+})
+class CustomerSearchTest {
+    @Autowired
+    private CustomerService customerService;
+
+    @Test
+    void wildcardsInTheValueAreMatchedLiterally() {
+        customerService.createCustomer(customer("Smith_Jones", "smith_jones@example.com"));
+        customerService.createCustomer(customer("SmithXJones", "smithxjones@example.com"));
+        customerService.createCustomer(customer("Percent%er", "percenter@example.com"));
+
+        assertThat(lastNames(customerService.searchCustomers("lastName", "h_j", List.of("lastName"))))
+                .containsExactly("Smith_Jones");
+        assertThat(lastNames(customerService.searchCustomers("lastName", "%", List.of("lastName"))))
+                .containsExactly("Percent%er");
+    }
+
+    private static List<Object> lastNames(List<Map<String, Object>> rows) {
+        return rows.stream().map(row -> row.get("lastName")).toList();
+    }
+
+    private static Customer customer(String lastName, String email) {
+        Customer customer = new Customer();
+        customer.setFirstName("Ada");
+        customer.setLastName(lastName);
+        customer.setEmail(email);
+        customer.setAddress("London");
+        customer.setPhone("+441234567890");
+        return customer;
+    }
+}
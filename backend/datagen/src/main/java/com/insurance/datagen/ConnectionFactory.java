@@ -0,0 +1,24 @@
+package com.insurance.datagen;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+/**
+ * Source of JDBC connections for the generator, so it can run against a
+ * service's {@link DataSource} in-process or against a JDBC URL from the
+ * command line.
+ */
+@FunctionalInterface
+public interface ConnectionFactory {
+    Connection open() throws SQLException;
+
+    static ConnectionFactory of(DataSource dataSource) {
+        return dataSource::getConnection;
+    }
+
+    static ConnectionFactory of(String url, String username, String password) {
+        return () -> DriverManager.getConnection(url, username, password);
+    }
+}
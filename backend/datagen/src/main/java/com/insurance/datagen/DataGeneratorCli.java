@@ -0,0 +1,80 @@
+package com.insurance.datagen;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command-line entry point, for loading a running stack whose H2 databases
+ * are reachable over TCP or as files:
+ *
+ * <pre>
+ * java -cp datagen.jar:h2.jar com.insurance.datagen.DataGeneratorCli \
+ *     --customer-url=jdbc:h2:tcp://localhost/mem:customerdb \
+ *     --policy-url=jdbc:h2:tcp://localhost/mem:policydb \
+ *     --customers=1000000 --policies-per-customer=2 --claims-per-policy=5 --seed=42 \
+ *     --policy-service-url=http://localhost:8082
+ * </pre>
+ *
+ * With {@code --policy-service-url}, policy-service is told to refresh its
+ * caches and read models once the rows are in; without it, call
+ * {@code POST /api/policies/bulk-load/refresh} before serving traffic.
+ */
+public class DataGeneratorCli {
+    private static final Logger logger = LoggerFactory.getLogger(DataGeneratorCli.class);
+
+    public static void main(String[] args) throws SQLException, IOException, InterruptedException {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            options.put(arg.substring(2, equals), arg.substring(equals + 1));
+        }
+
+        GeneratorSpec spec = new GeneratorSpec()
+                .seed(Long.parseLong(options.getOrDefault("seed", "42")))
+                .customers(Integer.parseInt(options.getOrDefault("customers", "1000")))
+                .policiesPerCustomer(Integer.parseInt(options.getOrDefault("policies-per-customer", "3")))
+                .claimsPerPolicy(Integer.parseInt(options.getOrDefault("claims-per-policy", "2")))
+                .batchSize(Integer.parseInt(options.getOrDefault("batch-size", "5000")))
+                .threads(Integer.parseInt(options.getOrDefault("threads",
+                        String.valueOf(Runtime.getRuntime().availableProcessors()))));
+        String username = options.getOrDefault("username", "sa");
+        String password = options.getOrDefault("password", "");
+
+        SyntheticDataGenerator generator = new SyntheticDataGenerator(spec);
+        if (options.containsKey("customer-url")) {
+            generator.generateCustomers(ConnectionFactory.of(options.get("customer-url"), username, password));
+        }
+        if (options.containsKey("policy-url")) {
+            generator.generatePoliciesAndClaims(ConnectionFactory.of(options.get("policy-url"), username, password));
+            if (options.containsKey("policy-service-url")) {
+                refreshPolicyService(options.get("policy-service-url"));
+            } else {
+                logger.warn("Policy rows were loaded around policy-service; POST /api/policies/bulk-load/refresh "
+                        + "before serving traffic");
+            }
+        }
+    }
+
+    private static void refreshPolicyService(String baseUrl) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/policies/bulk-load/refresh"))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        HttpResponse<Void> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException("policy-service refused the bulk-load refresh: HTTP " + response.statusCode());
+        }
+        logger.info("policy-service refreshed its caches and read models");
+    }
+}
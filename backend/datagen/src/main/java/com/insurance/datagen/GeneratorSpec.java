@@ -0,0 +1,123 @@
+package com.insurance.datagen;
+
+import java.time.LocalDate;
+
+/**
+ * Sizes and distributions for a generated data set. Ids are derived from the
+ * position of each row, so two runs with the same spec produce identical
+ * tables regardless of thread count.
+ */
+public class GeneratorSpec {
+    private long seed = 42;
+    private int customers = 1_000;
+    private int policiesPerCustomer = 3;
+    private int claimsPerPolicy = 2;
+    private int batchSize = 5_000;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private LocalDate firstStartDate = LocalDate.of(2019, 1, 1);
+    private int startDateSpreadDays = 365 * 5;
+
+    // AUTO, HOME, HEALTH
+    private int[] policyTypeWeights = {50, 30, 20};
+
+    // PENDING, APPROVED, REJECTED, SETTLED
+    private int[] claimStatusWeights = {10, 15, 10, 65};
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public GeneratorSpec seed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    public int getCustomers() {
+        return customers;
+    }
+
+    public GeneratorSpec customers(int customers) {
+        this.customers = customers;
+        return this;
+    }
+
+    public int getPoliciesPerCustomer() {
+        return policiesPerCustomer;
+    }
+
+    public GeneratorSpec policiesPerCustomer(int policiesPerCustomer) {
+        this.policiesPerCustomer = policiesPerCustomer;
+        return this;
+    }
+
+    public int getClaimsPerPolicy() {
+        return claimsPerPolicy;
+    }
+
+    public GeneratorSpec claimsPerPolicy(int claimsPerPolicy) {
+        this.claimsPerPolicy = claimsPerPolicy;
+        return this;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public GeneratorSpec batchSize(int batchSize) {
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public GeneratorSpec threads(int threads) {
+        this.threads = threads;
+        return this;
+    }
+
+    public LocalDate getFirstStartDate() {
+        return firstStartDate;
+    }
+
+    public GeneratorSpec firstStartDate(LocalDate firstStartDate) {
+        this.firstStartDate = firstStartDate;
+        return this;
+    }
+
+    public int getStartDateSpreadDays() {
+        return startDateSpreadDays;
+    }
+
+    public GeneratorSpec startDateSpreadDays(int startDateSpreadDays) {
+        this.startDateSpreadDays = startDateSpreadDays;
+        return this;
+    }
+
+    public int[] getPolicyTypeWeights() {
+        return policyTypeWeights;
+    }
+
+    public GeneratorSpec policyTypeWeights(int auto, int home, int health) {
+        this.policyTypeWeights = new int[]{auto, home, health};
+        return this;
+    }
+
+    public int[] getClaimStatusWeights() {
+        return claimStatusWeights;
+    }
+
+    public GeneratorSpec claimStatusWeights(int pending, int approved, int rejected, int settled) {
+        this.claimStatusWeights = new int[]{pending, approved, rejected, settled};
+        return this;
+    }
+
+    public long totalPolicies() {
+        return (long) customers * policiesPerCustomer;
+    }
+
+    public long totalClaims() {
+        return totalPolicies() * claimsPerPolicy;
+    }
+}
@@ -0,0 +1,338 @@
+package com.insurance.datagen;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bulk-loads customers into customer-service's schema and policies plus
+ * claims into policy-service's schema with batched JDBC inserts.
+ *
+ * Every row is generated from a random stream seeded by (seed, row id), so
+ * output does not depend on thread scheduling: customer {@code c} owns
+ * policies {@code (c-1)*M+1 .. c*M} and policy {@code p} owns claims
+ * {@code (p-1)*K+1 .. p*K}. The tables must already exist (they are created
+ * by the services' Hibernate schema update).
+ *
+ * Rows go around the services, so policy-service's caches and in-memory read
+ * models must be refreshed afterwards ({@code POST /api/policies/bulk-load/refresh}).
+ * Sharded policy databases are refused: their ids come from per-shard
+ * sequences and their rows must land on the shard that owns the bucket.
+ */
+public class SyntheticDataGenerator {
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+    private static final int CUSTOMERS_PER_CHUNK = 1_000;
+
+    private static final String[] POLICY_TYPES = {"AUTO", "HOME", "HEALTH"};
+    private static final String[] CLAIM_STATUSES = {"PENDING", "APPROVED", "REJECTED", "SETTLED"};
+    private static final String[] FIRST_NAMES = {"Amine", "Sara", "Youssef", "Salma", "Mehdi", "Imane", "Omar",
+            "Nadia", "Karim", "Leila", "Hamza", "Meryem", "Ayoub", "Hiba", "Anas", "Zineb", "Lucas", "Emma",
+            "Hugo", "Chloe", "Louis", "Lea", "Adam", "Ines"};
+    private static final String[] LAST_NAMES = {"Alaoui", "Benali", "Chaabat", "Idrissi", "Tazi", "Bennani",
+            "Fassi", "Berrada", "Amrani", "Haddad", "Martin", "Bernard", "Dubois", "Thomas", "Robert", "Richard",
+            "Petit", "Durand", "Leroy", "Moreau", "Simon", "Laurent", "Lefebvre", "Michel"};
+    private static final String[] STREETS = {"Rue de la Paix", "Avenue Mohammed V", "Boulevard Zerktouni",
+            "Rue Victor Hugo", "Avenue Hassan II", "Rue de la Liberte", "Boulevard Anfa", "Rue Ibn Battouta"};
+    private static final String[] CITIES = {"Casablanca", "Rabat", "Marrakech", "Tanger", "Fes", "Paris", "Lyon"};
+    private static final String[] CLAIM_DESCRIPTIONS = {"Rear-end collision at traffic light",
+            "Water damage after pipe burst", "Hospital stay following surgery", "Windshield cracked by debris",
+            "Storm damage to roof", "Outpatient treatment and medication", "Theft of personal belongings",
+            "Fire damage in kitchen", "Parking lot scrape", "Emergency room visit"};
+
+    private final GeneratorSpec spec;
+
+    public SyntheticDataGenerator(GeneratorSpec spec) {
+        this.spec = spec;
+    }
+
+    /**
+     * Result of one generation phase.
+     */
+    public record Report(String table, long rows, long millis) {
+        public double rowsPerSecond() {
+            return millis == 0 ? rows : rows * 1000.0 / millis;
+        }
+    }
+
+    /**
+     * Deterministic customer fields, exposed so load tests can build search
+     * terms that match generated rows.
+     */
+    public record CustomerRow(long id, String firstName, String lastName, String email, String address,
+                              String phone) {
+    }
+
+    public CustomerRow customer(long id) {
+        SplittableRandom random = random(id, 0x5EED_C057L);
+        String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+        String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        return new CustomerRow(id, firstName, lastName,
+                firstName.toLowerCase() + "." + lastName.toLowerCase() + "." + id + "@example.com",
+                (1 + random.nextInt(250)) + " " + STREETS[random.nextInt(STREETS.length)] + ", "
+                        + CITIES[random.nextInt(CITIES.length)],
+                String.format("+2126%08d", random.nextInt(100_000_000)));
+    }
+
+    /**
+     * Deterministic policy fields; the owning customer is derived from the id.
+     */
+    public record PolicyRow(long id, String type, LocalDate startDate, LocalDate endDate,
+                            BigDecimal coverageAmount, long customerId) {
+    }
+
+    public PolicyRow policy(long policyId) {
+        SplittableRandom random = random(policyId, 0xB0_11C7L);
+        String type = POLICY_TYPES[weighted(random, spec.getPolicyTypeWeights())];
+        LocalDate startDate = startDate(random);
+        LocalDate endDate = startDate.plusMonths(termMonths(random)).minusDays(1);
+        return new PolicyRow(policyId, type, startDate, endDate, coverage(random, type),
+                (policyId - 1) / spec.getPoliciesPerCustomer() + 1);
+    }
+
+    public Report generateCustomers(ConnectionFactory customerDb) throws SQLException {
+        String sql = "INSERT INTO customers (id, first_name, last_name, email, address, phone) VALUES (?, ?, ?, ?, ?, ?)";
+        long start = System.nanoTime();
+        long rows = runPartitioned(customerDb, (connection, fromCustomer, toCustomer) -> {
+            long written = 0;
+            try (PreparedStatement insert = connection.prepareStatement(sql)) {
+                for (long id = fromCustomer; id <= toCustomer; id++) {
+                    CustomerRow customer = customer(id);
+                    insert.setLong(1, id);
+                    insert.setString(2, customer.firstName());
+                    insert.setString(3, customer.lastName());
+                    insert.setString(4, customer.email());
+                    insert.setString(5, customer.address());
+                    insert.setString(6, customer.phone());
+                    insert.addBatch();
+                    if (++written % spec.getBatchSize() == 0) {
+                        flush(connection, insert);
+                    }
+                }
+                flush(connection, insert);
+            }
+            return written;
+        });
+        restartIdentity(customerDb, "customers", spec.getCustomers() + 1L);
+        return report("customers", rows, start);
+    }
+
+    /**
+     * Generates policies and their claims in one pass. Returns one report per
+     * table; both share the elapsed time of the combined pass.
+     */
+    public List<Report> generatePoliciesAndClaims(ConnectionFactory policyDb) throws SQLException {
+        refuseSharded(policyDb);
+        String policySql = "INSERT INTO policies (id, type, start_date, end_date, coverage_amount, customer_id) "
+                + "VALUES (?, ?, ?, ?, ?, ?)";
+        String claimSql = "INSERT INTO claims (id, date, description, claimed_amount, settled_amount, status, policy_id) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+        int policiesPerCustomer = spec.getPoliciesPerCustomer();
+        int claimsPerPolicy = spec.getClaimsPerPolicy();
+        AtomicLong claimRows = new AtomicLong();
+
+        long start = System.nanoTime();
+        long policyRows = runPartitioned(policyDb, (connection, fromCustomer, toCustomer) -> {
+            long written = 0;
+            long pendingRows = 0;
+            try (PreparedStatement policies = connection.prepareStatement(policySql);
+                 PreparedStatement claims = connection.prepareStatement(claimSql)) {
+                for (long customerId = fromCustomer; customerId <= toCustomer; customerId++) {
+                    for (int p = 0; p < policiesPerCustomer; p++) {
+                        long policyId = (customerId - 1) * policiesPerCustomer + p + 1;
+                        PolicyRow policy = policy(policyId);
+
+                        policies.setLong(1, policyId);
+                        policies.setString(2, policy.type());
+                        policies.setDate(3, Date.valueOf(policy.startDate()));
+                        policies.setDate(4, Date.valueOf(policy.endDate()));
+                        policies.setBigDecimal(5, policy.coverageAmount());
+                        policies.setLong(6, customerId);
+                        policies.addBatch();
+                        written++;
+                        pendingRows++;
+
+                        SplittableRandom random = random(policyId, 0xC1A1_3L);
+                        LocalDate startDate = policy.startDate();
+                        BigDecimal coverage = policy.coverageAmount();
+                        int termDays = (int) (policy.endDate().toEpochDay() - startDate.toEpochDay()) + 1;
+                        for (int c = 0; c < claimsPerPolicy; c++) {
+                            long claimId = (policyId - 1) * claimsPerPolicy + c + 1;
+                            String status = CLAIM_STATUSES[weighted(random, spec.getClaimStatusWeights())];
+                            BigDecimal claimed = claimedAmount(random, coverage);
+                            BigDecimal settled = status.equals("SETTLED")
+                                    ? claimed.multiply(BigDecimal.valueOf(0.6 + random.nextDouble() * 0.4))
+                                            .setScale(2, RoundingMode.HALF_UP)
+                                    : BigDecimal.ZERO.setScale(2);
+
+                            claims.setLong(1, claimId);
+                            claims.setDate(2, Date.valueOf(startDate.plusDays(random.nextInt(termDays))));
+                            claims.setString(3, CLAIM_DESCRIPTIONS[random.nextInt(CLAIM_DESCRIPTIONS.length)]);
+                            claims.setBigDecimal(4, claimed);
+                            claims.setBigDecimal(5, settled);
+                            claims.setString(6, status);
+                            claims.setLong(7, policyId);
+                            claims.addBatch();
+                            claimRows.incrementAndGet();
+                            pendingRows++;
+                        }
+
+                        if (pendingRows >= spec.getBatchSize()) {
+                            policies.executeBatch();
+                            flush(connection, claims);
+                            pendingRows = 0;
+                        }
+                    }
+                }
+                policies.executeBatch();
+                flush(connection, claims);
+            }
+            return written;
+        });
+        restartIdentity(policyDb, "policies", spec.totalPolicies() + 1);
+        restartIdentity(policyDb, "claims", spec.totalClaims() + 1);
+        return List.of(report("policies", policyRows, start), report("claims", claimRows.get(), start));
+    }
+
+    @FunctionalInterface
+    private interface ChunkWriter {
+        long write(Connection connection, long fromCustomer, long toCustomer) throws SQLException;
+    }
+
+    /**
+     * Splits the customer id range into fixed chunks handed out to worker
+     * threads, each with its own connection and auto-commit disabled.
+     */
+    private long runPartitioned(ConnectionFactory connections, ChunkWriter writer) throws SQLException {
+        int threads = Math.max(1, spec.getThreads());
+        AtomicLong nextChunk = new AtomicLong(1);
+        long lastCustomer = spec.getCustomers();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Long>> workers = new ArrayList<>(threads);
+            for (int t = 0; t < threads; t++) {
+                workers.add(executor.submit(() -> {
+                    long written = 0;
+                    try (Connection connection = connections.open()) {
+                        connection.setAutoCommit(false);
+                        long from;
+                        while ((from = nextChunk.getAndAdd(CUSTOMERS_PER_CHUNK)) <= lastCustomer) {
+                            written += writer.write(connection, from,
+                                    Math.min(lastCustomer, from + CUSTOMERS_PER_CHUNK - 1));
+                        }
+                        connection.commit();
+                    }
+                    return written;
+                }));
+            }
+
+            long total = 0;
+            for (Future<Long> worker : workers) {
+                total += worker.get();
+            }
+            return total;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while generating data", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            throw new SQLException("Data generation failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void flush(Connection connection, PreparedStatement statement) throws SQLException {
+        statement.executeBatch();
+        connection.commit();
+    }
+
+    private static void refuseSharded(ConnectionFactory connections) throws SQLException {
+        try (Connection connection = connections.open(); Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM INFORMATION_SCHEMA.SEQUENCES "
+                     + "WHERE SEQUENCE_NAME = 'SHARD_ID_SEQ'")) {
+            if (rs.next() && rs.getLong(1) > 0) {
+                throw new IllegalStateException("The policy database is sharded; datagen only loads unsharded databases");
+            }
+        }
+    }
+
+    private static void restartIdentity(ConnectionFactory connections, String table, long next) throws SQLException {
+        try (Connection connection = connections.open(); Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + next);
+        }
+    }
+
+    private Report report(String table, long rows, long startNanos) {
+        Report report = new Report(table, rows, (System.nanoTime() - startNanos) / 1_000_000);
+        logger.info("Generated {} {} rows in {} ms ({} rows/s)", report.rows(), table, report.millis(),
+                String.format("%.0f", report.rowsPerSecond()));
+        return report;
+    }
+
+    private SplittableRandom random(long id, long salt) {
+        long mixed = spec.getSeed() * 0x9E3779B97F4A7C15L + id * 0xBF58476D1CE4E5B9L + salt;
+        return new SplittableRandom(mixed);
+    }
+
+    private static int weighted(SplittableRandom random, int[] weights) {
+        int total = 0;
+        for (int weight : weights) {
+            total += weight;
+        }
+        int roll = random.nextInt(total);
+        for (int i = 0; i < weights.length; i++) {
+            roll -= weights[i];
+            if (roll < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    // A quarter of policies start on the first of a month, mimicking renewal cohorts
+    private LocalDate startDate(SplittableRandom random) {
+        LocalDate date = spec.getFirstStartDate().plusDays(random.nextInt(spec.getStartDateSpreadDays()));
+        return random.nextInt(4) == 0 ? date.withDayOfMonth(1) : date;
+    }
+
+    private static int termMonths(SplittableRandom random) {
+        int roll = random.nextInt(10);
+        return roll < 7 ? 12 : roll < 9 ? 6 : 24;
+    }
+
+    private static BigDecimal coverage(SplittableRandom random, String type) {
+        long thousands = switch (type) {
+            case "AUTO" -> 10 + random.nextInt(71);
+            case "HOME" -> 100 + random.nextInt(701);
+            default -> 20 + random.nextInt(281);
+        };
+        return BigDecimal.valueOf(thousands * 1_000).setScale(2);
+    }
+
+    // Heavy-tailed: most claims are small relative to coverage, a few approach it
+    private static BigDecimal claimedAmount(SplittableRandom random, BigDecimal coverage) {
+        double share = 0.002 + Math.pow(random.nextDouble(), 4) * 0.6;
+        return coverage.multiply(BigDecimal.valueOf(share)).setScale(2, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,22 @@
+#!/usr/bin/env bash
+# Builds and runs the end-to-end load-test harness.
+#
+#   ./run-loadtest.sh --label=release-1.4 --rates=50,100,200,400 --duration=60
+#   ./run-loadtest.sh --label=vt --virtual-threads=true          (needs a Java 21 runtime)
+#   ./run-loadtest.sh --target=http://localhost:8080             (drive an already running stack)
+#   ./run-loadtest.sh --bulk-customers=1000000 --claims-per-policy=5   (bulk-load via datagen first)
+#
+# Saturation sweep: run past the knee with and without policy-service's
+# concurrency limits and compare goodput (2xx within --slo-ms per second)
+# and the shed (503) column between the two CSVs. The policy-heavy mix keeps
+# policy-service, not the gateway, the bottleneck; results/ holds a run.
+#   ./run-loadtest.sh --label=limits-on --customers=1000 --rates=100,200,300,450,600,800 --mix=browse:60,fanout:20,claim:20 --slo-ms=500 --output=results
+#   ./run-loadtest.sh --label=limits-off --concurrency-limits=false --customers=1000 --rates=100,200,300,450,600,800 --mix=browse:60,fanout:20,claim:20 --slo-ms=500 --output=results
+#
+# Results land in target/loadtest/<label>.json and .csv; concatenate the CSVs
+# of two runs to compare releases side by side.
+set -euo pipefail
+
+cd "$(dirname "$0")"
+(cd .. && mvn -B -q -pl loadtest -am package -DskipTests)
+java ${JAVA_OPTS:-} -jar target/loadtest-0.0.1-SNAPSHOT.jar "$@"
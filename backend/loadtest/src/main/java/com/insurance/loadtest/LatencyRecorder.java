@@ -0,0 +1,90 @@
+package com.insurance.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Exact latency recorder for one operation. Samples are kept in a growing
+ * array so percentiles are exact; a few million samples per run is well
+ * within heap for a load test.
+ */
+public class LatencyRecorder {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong shed = new AtomicLong();
+    private long[] samples = new long[4096];
+    private int count;
+
+    public void record(long latencyNanos) {
+        lock.lock();
+        try {
+            if (count == samples.length) {
+                samples = Arrays.copyOf(samples, count * 2);
+            }
+            samples[count++] = latencyNanos;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void recordError() {
+        errors.incrementAndGet();
+    }
+
+    public void recordDropped() {
+        dropped.incrementAndGet();
+    }
+
+    public void recordShed() {
+        shed.incrementAndGet();
+    }
+
+    /** Goodput counts successful responses within {@code sloNanos} per second. */
+    public Map<String, Object> summarize(double seconds, long sloNanos) {
+        long[] sorted;
+        lock.lock();
+        try {
+            sorted = Arrays.copyOf(samples, count);
+        } finally {
+            lock.unlock();
+        }
+        Arrays.sort(sorted);
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", sorted.length);
+        summary.put("errors", errors.get());
+        summary.put("dropped", dropped.get());
+        summary.put("shed", shed.get());
+        summary.put("throughput", seconds > 0 ? sorted.length / seconds : 0);
+        summary.put("goodput", seconds > 0 ? withinSlo(sorted, sloNanos) / seconds : 0);
+        summary.put("p50Ms", percentile(sorted, 0.50));
+        summary.put("p90Ms", percentile(sorted, 0.90));
+        summary.put("p99Ms", percentile(sorted, 0.99));
+        summary.put("p999Ms", percentile(sorted, 0.999));
+        summary.put("maxMs", sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1_000_000.0);
+        return summary;
+    }
+
+    private static int withinSlo(long[] sorted, long sloNanos) {
+        int index = Arrays.binarySearch(sorted, sloNanos);
+        if (index < 0) {
+            return -index - 1;
+        }
+        while (index + 1 < sorted.length && sorted[index + 1] == sloNanos) {
+            index++;
+        }
+        return index + 1;
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,141 @@
+package com.insurance.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.insurance.datagen.ConnectionFactory;
+import com.insurance.datagen.GeneratorSpec;
+import com.insurance.datagen.SyntheticDataGenerator;
+import com.insurance.policyservice.service.BulkLoadService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entry point of the load-test harness.
+ *
+ * <pre>
+ * java -jar target/loadtest-0.0.1-SNAPSHOT.jar --label=release-1.4 --rates=50,100,200,400 --duration=60
+ * </pre>
+ *
+ * Boots the service stack in-process (unless {@code --target} points at a
+ * running gateway), seeds data, then runs each arrival rate in turn and
+ * writes {@code <output>/<label>.json} and {@code <output>/<label>.csv}.
+ */
+public class LoadTestHarness {
+    private static final Logger logger = LoggerFactory.getLogger(LoadTestHarness.class);
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        ServiceStack stack = null;
+        String gateway = options.target();
+        if (gateway.isEmpty()) {
+            stack = new ServiceStack(options);
+            stack.start();
+            gateway = "http://localhost:" + options.port(0);
+        }
+
+        try {
+            Workload workload = new Workload(gateway, options);
+            if (options.bulkCustomers() > 0) {
+                if (stack == null) {
+                    throw new IllegalArgumentException("--bulk-customers needs the in-process stack; drop --target");
+                }
+                GeneratorSpec spec = new GeneratorSpec()
+                        .seed(options.seed())
+                        .customers(options.bulkCustomers())
+                        .policiesPerCustomer(options.policiesPerCustomer())
+                        .claimsPerPolicy(options.claimsPerPolicy());
+                SyntheticDataGenerator generator = new SyntheticDataGenerator(spec);
+                generator.generateCustomers(ConnectionFactory.of(stack.bean("customer", DataSource.class)));
+                generator.generatePoliciesAndClaims(ConnectionFactory.of(stack.bean("policy", DataSource.class)));
+                // Generated rows bypass the services, so rebuild the caches and read models from them
+                stack.bean("policy", BulkLoadService.class).refreshAfterBulkLoad();
+                workload.adoptGenerated(generator, spec);
+            }
+            workload.seed();
+            OpenLoopDriver driver = new OpenLoopDriver(workload, options.mix(), options.maxInFlight(), options.seed());
+
+            List<Map<String, Object>> steps = new ArrayList<>();
+            for (int rate : options.rates()) {
+                if (options.warmupSeconds() > 0) {
+                    driver.run(rate, options.warmupSeconds());
+                }
+                logger.info("Measuring {} req/s for {} s", rate, options.durationSeconds());
+                Map<String, LatencyRecorder> recorders = driver.run(rate, options.durationSeconds());
+
+                Map<String, Object> step = new LinkedHashMap<>();
+                step.put("rate", rate);
+                Map<String, Object> operations = new LinkedHashMap<>();
+                recorders.forEach((operation, recorder) ->
+                        operations.put(operation, recorder.summarize(options.durationSeconds(),
+                                TimeUnit.MILLISECONDS.toNanos(options.sloMillis()))));
+                step.put("operations", operations);
+                steps.add(step);
+                print(rate, operations);
+            }
+            write(options, steps);
+        } finally {
+            if (stack != null) {
+                stack.close();
+            }
+        }
+        System.exit(0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void print(int rate, Map<String, Object> operations) {
+        System.out.printf("%n== %d req/s ==%n", rate);
+        System.out.printf("%-12s %8s %7s %7s %7s %10s %10s %9s %9s %9s %9s%n", "operation", "count", "errors",
+                "dropped", "shed", "thrpt/s", "goodput/s", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        operations.forEach((operation, value) -> {
+            Map<String, Object> summary = (Map<String, Object>) value;
+            System.out.printf("%-12s %8d %7d %7d %7d %10.1f %10.1f %9.2f %9.2f %9.2f %9.2f%n", operation,
+                    summary.get("count"), summary.get("errors"), summary.get("dropped"), summary.get("shed"),
+                    summary.get("throughput"), summary.get("goodput"), summary.get("p50Ms"), summary.get("p90Ms"),
+                    summary.get("p99Ms"), summary.get("maxMs"));
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void write(LoadTestOptions options, List<Map<String, Object>> steps) throws IOException {
+        File directory = new File(options.output());
+        directory.mkdirs();
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("label", options.label());
+        report.put("timestamp", Instant.now().toString());
+        report.put("javaVersion", System.getProperty("java.version"));
+        report.put("options", options.asMap());
+        report.put("steps", steps);
+        File json = new File(directory, options.label() + ".json");
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(json, report);
+
+        File csv = new File(directory, options.label() + ".csv");
+        try (PrintWriter writer = new PrintWriter(csv)) {
+            // New columns go at the end so CSVs of older runs still line up
+            writer.println("label,rate,operation,count,errors,dropped,throughput,p50Ms,p90Ms,p99Ms,p999Ms,maxMs,shed,goodput");
+            for (Map<String, Object> step : steps) {
+                Map<String, Object> operations = (Map<String, Object>) step.get("operations");
+                operations.forEach((operation, value) -> {
+                    Map<String, Object> summary = (Map<String, Object>) value;
+                    writer.printf("%s,%s,%s,%s,%s,%s,%.2f,%.3f,%.3f,%.3f,%.3f,%.3f,%s,%.2f%n", options.label(),
+                            step.get("rate"), operation, summary.get("count"), summary.get("errors"),
+                            summary.get("dropped"), summary.get("throughput"), summary.get("p50Ms"),
+                            summary.get("p90Ms"), summary.get("p99Ms"), summary.get("p999Ms"), summary.get("maxMs"),
+                            summary.get("shed"), summary.get("goodput"));
+                });
+            }
+        }
+        logger.info("Wrote {} and {}", json, csv);
+    }
+}
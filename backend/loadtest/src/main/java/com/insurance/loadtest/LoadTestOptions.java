@@ -0,0 +1,147 @@
+package com.insurance.loadtest;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command-line options for {@link LoadTestHarness}. Every option is
+ * {@code --name=value}; unknown options are rejected so typos do not
+ * silently change a run.
+ */
+public class LoadTestOptions {
+    private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+    static {
+        DEFAULTS.put("label", "run");
+        DEFAULTS.put("rates", "50,100,200");
+        DEFAULTS.put("duration", "30");
+        DEFAULTS.put("warmup", "10");
+        DEFAULTS.put("mix", "signin:5,browse:45,claim:15,adjudicate:10,search:25");
+        DEFAULTS.put("customers", "200");
+        DEFAULTS.put("policies-per-customer", "3");
+        DEFAULTS.put("bulk-customers", "0");
+        DEFAULTS.put("claims-per-policy", "2");
+        DEFAULTS.put("max-in-flight", "2000");
+        DEFAULTS.put("slo-ms", "500");
+        DEFAULTS.put("concurrency-limits", "true");
+        DEFAULTS.put("base-port", "18080");
+        DEFAULTS.put("virtual-threads", "false");
+        DEFAULTS.put("target", "");
+        DEFAULTS.put("output", "target/loadtest");
+        DEFAULTS.put("seed", "42");
+    }
+
+    private final Map<String, String> values;
+
+    private LoadTestOptions(Map<String, String> values) {
+        this.values = values;
+    }
+
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new LinkedHashMap<>(DEFAULTS);
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            if (!DEFAULTS.containsKey(name)) {
+                throw new IllegalArgumentException("Unknown option --" + name + ", known options: " + DEFAULTS.keySet());
+            }
+            values.put(name, arg.substring(arg.indexOf('=') + 1));
+        }
+        return new LoadTestOptions(values);
+    }
+
+    public String label() {
+        return values.get("label");
+    }
+
+    public List<Integer> rates() {
+        List<Integer> rates = new ArrayList<>();
+        for (String rate : values.get("rates").split(",")) {
+            rates.add(Integer.parseInt(rate.trim()));
+        }
+        return rates;
+    }
+
+    public int durationSeconds() {
+        return Integer.parseInt(values.get("duration"));
+    }
+
+    public int warmupSeconds() {
+        return Integer.parseInt(values.get("warmup"));
+    }
+
+    public Map<String, Integer> mix() {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (String entry : values.get("mix").split(",")) {
+            String[] parts = entry.split(":");
+            mix.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+        }
+        return mix;
+    }
+
+    public int customers() {
+        return Integer.parseInt(values.get("customers"));
+    }
+
+    public int policiesPerCustomer() {
+        return Integer.parseInt(values.get("policies-per-customer"));
+    }
+
+    /**
+     * When positive, customers, policies and claims are bulk-loaded with the
+     * synthetic data generator instead of being created through the API.
+     */
+    public int bulkCustomers() {
+        return Integer.parseInt(values.get("bulk-customers"));
+    }
+
+    public int claimsPerPolicy() {
+        return Integer.parseInt(values.get("claims-per-policy"));
+    }
+
+    public int maxInFlight() {
+        return Integer.parseInt(values.get("max-in-flight"));
+    }
+
+    /** Latency under which a successful response counts towards goodput. */
+    public int sloMillis() {
+        return Integer.parseInt(values.get("slo-ms"));
+    }
+
+    /** Whether policy-service sheds load with its adaptive concurrency limits. */
+    public boolean concurrencyLimits() {
+        return Boolean.parseBoolean(values.get("concurrency-limits"));
+    }
+
+    public int port(int offset) {
+        return Integer.parseInt(values.get("base-port")) + offset;
+    }
+
+    public boolean virtualThreads() {
+        return Boolean.parseBoolean(values.get("virtual-threads"));
+    }
+
+    /**
+     * Gateway URL of an already running stack; when empty the harness boots
+     * its own in-process stack.
+     */
+    public String target() {
+        return values.get("target");
+    }
+
+    public String output() {
+        return values.get("output");
+    }
+
+    public long seed() {
+        return Long.parseLong(values.get("seed"));
+    }
+
+    public Map<String, String> asMap() {
+        return values;
+    }
+}
@@ -0,0 +1,94 @@
+package com.insurance.loadtest;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator: requests arrive as a Poisson process at a fixed
+ * rate regardless of how fast the system answers. Latency is measured from
+ * the intended arrival time, so a stalled system is not hidden by the
+ * generator slowing down (coordinated omission).
+ */
+public class OpenLoopDriver {
+    private final Workload workload;
+    private final Map<String, Integer> mix;
+    private final int maxInFlight;
+    private final Random random;
+
+    public OpenLoopDriver(Workload workload, Map<String, Integer> mix, int maxInFlight, long seed) {
+        this.workload = workload;
+        this.mix = mix;
+        this.maxInFlight = maxInFlight;
+        this.random = new Random(seed);
+        for (String operation : mix.keySet()) {
+            if (!workload.operations().contains(operation)) {
+                throw new IllegalArgumentException("Unknown operation in mix: " + operation);
+            }
+        }
+    }
+
+    /**
+     * Runs one step at {@code ratePerSecond} and returns a recorder per
+     * operation. Waits for in-flight requests to finish before returning.
+     */
+    public Map<String, LatencyRecorder> run(int ratePerSecond, int durationSeconds) throws InterruptedException {
+        Map<String, LatencyRecorder> recorders = new LinkedHashMap<>();
+        mix.keySet().forEach(operation -> recorders.put(operation, new LatencyRecorder()));
+        List<String> weighted = new ArrayList<>();
+        mix.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                weighted.add(operation);
+            }
+        });
+
+        AtomicInteger inFlight = new AtomicInteger();
+        double meanGapNanos = TimeUnit.SECONDS.toNanos(1) / (double) ratePerSecond;
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(durationSeconds);
+        long intended = start;
+
+        while (true) {
+            intended += (long) (-Math.log(1 - random.nextDouble()) * meanGapNanos);
+            if (intended >= end) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            String operation = weighted.get(random.nextInt(weighted.size()));
+            LatencyRecorder recorder = recorders.get(operation);
+            if (inFlight.get() >= maxInFlight) {
+                recorder.recordDropped();
+                continue;
+            }
+
+            inFlight.incrementAndGet();
+            long arrival = intended;
+            workload.start(operation, random).whenComplete((response, error) -> {
+                inFlight.decrementAndGet();
+                if (error != null && (error instanceof Workload.ShedException
+                        || error.getCause() instanceof Workload.ShedException)) {
+                    recorder.recordShed();
+                } else if (error != null) {
+                    recorder.recordError();
+                } else {
+                    recorder.record(System.nanoTime() - arrival);
+                }
+            });
+        }
+
+        long drainDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(10);
+        }
+        return recorders;
+    }
+}
@@ -0,0 +1,87 @@
+package com.insurance.loadtest;
+
+import com.insurance.authservice.AuthServiceApplication;
+import com.insurance.customerservice.CustomerServiceApplication;
+import com.insurance.gatewayservice.GatewayServiceApplication;
+import com.insurance.policyservice.PolicyServiceApplication;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Boots auth, customer, policy and gateway services as separate Spring
+ * contexts inside this JVM. Each context reads its service's own
+ * {@code application.properties}, overlaid with {@code loadtest-common} and
+ * {@code loadtest-<service>}, so no Eureka server or config server is needed.
+ */
+public class ServiceStack implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(ServiceStack.class);
+
+    private final LoadTestOptions options;
+    private final List<ConfigurableApplicationContext> contexts = new ArrayList<>();
+
+    public ServiceStack(LoadTestOptions options) {
+        this.options = options;
+    }
+
+    public void start() {
+        long start = System.nanoTime();
+        contexts.add(boot(AuthServiceApplication.class, "auth"));
+        contexts.add(boot(CustomerServiceApplication.class, "customer"));
+        contexts.add(boot(PolicyServiceApplication.class, "policy"));
+        contexts.add(boot(GatewayServiceApplication.class, "gateway"));
+        logger.info("Service stack started in {} ms (virtual threads: {})",
+                (System.nanoTime() - start) / 1_000_000, options.virtualThreads());
+    }
+
+    public <T> T bean(String service, Class<T> type) {
+        int index = List.of("auth", "customer", "policy", "gateway").indexOf(service);
+        return contexts.get(index).getBean(type);
+    }
+
+    private ConfigurableApplicationContext boot(Class<?> application, String service) {
+        return new SpringApplicationBuilder(application)
+                .run("--spring.config.location=" + applicationProperties(application),
+                        "--spring.config.additional-location=classpath:/loadtest-common.properties,"
+                                + "classpath:/loadtest-" + service + ".properties",
+                        "--loadtest.port.gateway=" + options.port(0),
+                        "--loadtest.port.customer=" + options.port(1),
+                        "--loadtest.port.policy=" + options.port(2),
+                        "--loadtest.port.auth=" + options.port(3),
+                        "--loadtest.virtual-threads=" + options.virtualThreads(),
+                        "--insurance.limits.enabled=" + options.concurrencyLimits());
+    }
+
+    // Every service jar has an application.properties at its root and
+    // classpath:application.properties only sees the first, so pick the one
+    // packaged next to the application class
+    private static String applicationProperties(Class<?> application) {
+        String codeSource = application.getProtectionDomain().getCodeSource().getLocation().toString();
+        try {
+            for (URL url : Collections.list(application.getClassLoader().getResources("application.properties"))) {
+                if (url.toString().startsWith(codeSource) || url.toString().startsWith("jar:" + codeSource)) {
+                    return url.toString();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        throw new IllegalStateException("No application.properties next to " + application.getName());
+    }
+
+    @Override
+    public void close() {
+        for (int i = contexts.size() - 1; i >= 0; i--) {
+            contexts.get(i).close();
+        }
+        contexts.clear();
+    }
+}
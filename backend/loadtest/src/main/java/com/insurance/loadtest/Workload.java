@@ -0,0 +1,239 @@
+package com.insurance.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insurance.datagen.GeneratorSpec;
+import com.insurance.datagen.SyntheticDataGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+
+/**
+ * The operations the harness drives through the gateway, plus the seed data
+ * they run against. Every operation is a single HTTP call so its latency is
+ * what a client of the gateway would observe.
+ */
+public class Workload {
+    private static final Logger logger = LoggerFactory.getLogger(Workload.class);
+
+    private static final int USERS = 20;
+    private static final String PASSWORD = "loadtest-password";
+
+    private final String gateway;
+    private final LoadTestOptions options;
+    private final HttpClient httpClient;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final List<Long> customerIds = new ArrayList<>();
+    private final List<Long> policyIds = new ArrayList<>();
+    private final ConcurrentLinkedQueue<Long> pendingClaims = new ConcurrentLinkedQueue<>();
+    private SyntheticDataGenerator generator;
+
+    public Workload(String gateway, LoadTestOptions options) {
+        this.gateway = gateway;
+        this.options = options;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(16))
+                .build();
+    }
+
+    public List<String> operations() {
+        return List.of("signin", "browse", "list", "fanout", "claim", "adjudicate", "search");
+    }
+
+    /**
+     * Uses rows written by the synthetic data generator instead of creating
+     * customers and policies through the API.
+     */
+    public void adoptGenerated(SyntheticDataGenerator generator, GeneratorSpec spec) {
+        this.generator = generator;
+        for (long id = 1; id <= spec.getCustomers(); id++) {
+            customerIds.add(id);
+        }
+        for (long id = 1; id <= spec.totalPolicies(); id++) {
+            policyIds.add(id);
+        }
+    }
+
+    public void seed() throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        Random random = new Random(options.seed());
+        for (int i = 0; i < USERS; i++) {
+            send(post("/api/auth/signup", Map.of(
+                    "username", "loaduser" + i,
+                    "email", "loaduser" + i + "@example.com",
+                    "password", PASSWORD)));
+        }
+        if (generator != null) {
+            logger.info("Seeded {} users; using {} generated customers and {} policies", USERS,
+                    customerIds.size(), policyIds.size());
+            return;
+        }
+
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < options.customers(); i++) {
+            JsonNode customer = mapper.readTree(send(post("/api/customers", Map.of(
+                    "firstName", "First" + i,
+                    "lastName", "Last" + i,
+                    "email", "customer" + i + "@example.com",
+                    "address", i + " Rue de la Paix, Paris",
+                    "phone", "+33600000" + String.format("%03d", i % 1000)))));
+            long customerId = customer.path("id").asLong();
+            customerIds.add(customerId);
+
+            for (int p = 0; p < options.policiesPerCustomer(); p++) {
+                LocalDate policyStart = today.minusDays(random.nextInt(300));
+                JsonNode policy = mapper.readTree(send(post("/api/policies", Map.of(
+                        "type", List.of("AUTO", "HOME", "HEALTH").get(random.nextInt(3)),
+                        "startDate", policyStart.toString(),
+                        "endDate", policyStart.plusYears(1).toString(),
+                        "coverageAmount", 10_000 + random.nextInt(490_000),
+                        "customerId", customerId))));
+                policyIds.add(policy.path("id").asLong());
+            }
+        }
+        logger.info("Seeded {} users, {} customers and {} policies in {} ms", USERS, customerIds.size(),
+                policyIds.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Starts one instance of the named operation. Completes exceptionally for
+     * transport failures and non-2xx responses.
+     */
+    public CompletableFuture<?> start(String operation, Random random) {
+        HttpRequest request = switch (operation) {
+            case "signin" -> post("/api/auth/signin", Map.of(
+                    "username", "loaduser" + random.nextInt(USERS),
+                    "password", PASSWORD));
+            case "browse" -> browse(random);
+            case "list" -> get("/api/policies");
+            case "fanout" -> get("/api/policies/all-with-customers");
+            case "claim" -> claim(random);
+            case "adjudicate" -> adjudicate(random);
+            case "search" -> search(random);
+            default -> throw new IllegalArgumentException("Unknown operation: " + operation);
+        };
+
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> {
+                    if (response.statusCode() == 503) {
+                        throw new ShedException(operation);
+                    }
+                    if (response.statusCode() / 100 != 2) {
+                        throw new IllegalStateException(operation + " returned " + response.statusCode());
+                    }
+                    if (operation.equals("claim")) {
+                        rememberClaim(response.body());
+                    }
+                    return response;
+                });
+    }
+
+    /** The service refused the request with 503 instead of queueing it. */
+    public static class ShedException extends IllegalStateException {
+        public ShedException(String operation) {
+            super(operation + " was shed with 503");
+        }
+    }
+
+    private HttpRequest browse(Random random) {
+        int roll = random.nextInt(10);
+        if (roll < 6) {
+            return get("/api/policies/" + pick(policyIds, random));
+        } else if (roll < 9) {
+            return get("/api/policies/with-customer/" + pick(policyIds, random));
+        }
+        return get("/api/policies/customer/" + pick(customerIds, random));
+    }
+
+    private HttpRequest claim(Random random) {
+        Long policyId = pick(policyIds, random);
+        LocalDate date = generator != null ? generator.policy(policyId).startDate() : LocalDate.now();
+        return post("/api/claims", Map.of(
+                "date", date.toString(),
+                "description", "Load test claim",
+                "claimedAmount", 100 + random.nextInt(5_000),
+                "policyId", policyId));
+    }
+
+    private HttpRequest search(Random random) {
+        if (generator != null) {
+            String email = generator.customer(pick(customerIds, random)).email();
+            return get("/api/customers/search?email=" + URLEncoder.encode(email, StandardCharsets.UTF_8));
+        }
+        return get("/api/customers/search?lastName=Last" + random.nextInt(options.customers()));
+    }
+
+    private HttpRequest adjudicate(Random random) {
+        Long claimId = pendingClaims.poll();
+        if (claimId == null) {
+            return browse(random);
+        }
+        String status = random.nextInt(4) == 0 ? "REJECTED" : "APPROVED";
+        return request("/api/claims/" + claimId + "/status")
+                .method("PATCH", json(Map.of("status", status)))
+                .build();
+    }
+
+    private void rememberClaim(String body) {
+        try {
+            pendingClaims.add(mapper.readTree(body).path("id").asLong());
+        } catch (IOException e) {
+            logger.warn("Could not parse created claim: {}", e.getMessage());
+        }
+    }
+
+    private static Long pick(List<Long> ids, Random random) {
+        return ids.get(random.nextInt(ids.size()));
+    }
+
+    private String send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException(request.method() + " " + request.uri() + " returned " + response.statusCode()
+                    + ": " + response.body());
+        }
+        return response.body();
+    }
+
+    private HttpRequest get(String path) {
+        return request(path).GET().build();
+    }
+
+    private HttpRequest post(String path, Map<String, Object> body) {
+        return request(path).POST(json(body)).build();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(gateway + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json");
+    }
+
+    private HttpRequest.BodyPublisher json(Map<String, Object> body) {
+        try {
+            return HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(new LinkedHashMap<>(body)));
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+}
@@ -4,10 +4,19 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
-@SpringBootApplication
+// Shared filters and data-source plumbing from service-support
+@SpringBootApplication(scanBasePackages = {
+        "com.insurance.policyservice",
+        "com.insurance.support.sql",
+        "com.insurance.support.idempotency",
+        "com.insurance.support.replica",
+        "com.insurance.support.repository"
+})
 @EnableDiscoveryClient
 @EnableFeignClients
+@EnableScheduling
 public class PolicyServiceApplication {
     public static void main(String[] args) {
         SpringApplication.run(PolicyServiceApplication.class, args);
@@ -0,0 +1,209 @@
+package com.insurance.policyservice.audit;
+
+import com.insurance.policyservice.model.ClaimStatus;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * One preallocated, memory-mapped file of fixed-size audit records:
+ * <pre>
+ *   sequence:8 timestamp:8 claimId:8 from:1 to:1 reserved:2 settledCents:8 crc32c:4
+ * </pre>
+ * The end of the written region is found on open by scanning until a record
+ * is zeroed, fails its checksum or breaks the sequence, which also discards a
+ * record torn by a crash. The claim id to offsets index is rebuilt by the
+ * same scan.
+ *
+ * Writes are serialised by {@link ClaimAuditLog}; reads may run concurrently
+ * and only see records published through the index.
+ */
+final class AuditSegment {
+    static final int RECORD_BYTES = 40;
+    private static final int CHECKSUMMED_BYTES = RECORD_BYTES - 4;
+    private static final byte NO_STATUS = -1;
+    private static final ClaimStatus[] STATUSES = ClaimStatus.values();
+
+    final Path path;
+    final long firstSequence;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final byte[] scratch = new byte[RECORD_BYTES];
+    private final ByteBuffer scratchBuffer = ByteBuffer.wrap(scratch);
+    private final CRC32C crc = new CRC32C();
+
+    // Claim id -> [count, offset, offset, ...]; guarded by this
+    private final Map<Long, int[]> offsets = new HashMap<>();
+    private int position; // guarded by this
+    private long lastSequence;
+    private volatile long lastTimestamp;
+
+    private AuditSegment(Path path, long firstSequence, FileChannel channel, MappedByteBuffer buffer) {
+        this.path = path;
+        this.firstSequence = firstSequence;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.lastSequence = firstSequence - 1;
+    }
+
+    static AuditSegment create(Path directory, long firstSequence, int bytes) {
+        Path path = directory.resolve(String.format("audit-%020d.log", firstSequence));
+        return map(path, firstSequence, bytes - bytes % RECORD_BYTES);
+    }
+
+    static AuditSegment open(Path path) {
+        String name = path.getFileName().toString();
+        long firstSequence = Long.parseLong(name.substring("audit-".length(), name.length() - ".log".length()));
+        try {
+            AuditSegment segment = map(path, firstSequence, (int) Files.size(path));
+            segment.recover();
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open audit segment " + path, e);
+        }
+    }
+
+    private static AuditSegment map(Path path, long firstSequence, int bytes) {
+        try {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            return new AuditSegment(path, firstSequence, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not map audit segment " + path, e);
+        }
+    }
+
+    boolean hasRoom() {
+        return position + RECORD_BYTES <= buffer.capacity();
+    }
+
+    boolean isEmpty() {
+        return position == 0;
+    }
+
+    long lastSequence() {
+        return lastSequence;
+    }
+
+    long lastTimestamp() {
+        return lastTimestamp;
+    }
+
+    void append(long sequence, long timestampMillis, long claimId, ClaimStatus from, ClaimStatus to, long settledCents) {
+        scratchBuffer.clear();
+        scratchBuffer.putLong(sequence)
+                .putLong(timestampMillis)
+                .putLong(claimId)
+                .put(from == null ? NO_STATUS : (byte) from.ordinal())
+                .put((byte) to.ordinal())
+                .putShort((short) 0)
+                .putLong(settledCents);
+        crc.reset();
+        crc.update(scratch, 0, CHECKSUMMED_BYTES);
+        scratchBuffer.putInt((int) crc.getValue());
+        buffer.put(position, scratch);
+        publish(claimId, position);
+        lastSequence = sequence;
+        lastTimestamp = timestampMillis;
+    }
+
+    /** Records of {@code claimId} in this segment, oldest first. */
+    void forClaim(long claimId, Consumer<ClaimAuditRecord> consumer) {
+        int[] entries;
+        synchronized (this) {
+            int[] indexed = offsets.get(claimId);
+            if (indexed == null) {
+                return;
+            }
+            entries = Arrays.copyOf(indexed, indexed[0] + 1);
+        }
+        for (int i = 1; i < entries.length; i++) {
+            consumer.accept(read(entries[i]));
+        }
+    }
+
+    /** Every record in this segment, in order; returns how many. */
+    int forEach(Consumer<ClaimAuditRecord> consumer) {
+        int end;
+        synchronized (this) {
+            end = position;
+        }
+        for (int offset = 0; offset < end; offset += RECORD_BYTES) {
+            consumer.accept(read(offset));
+        }
+        return end / RECORD_BYTES;
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not close audit segment " + path, e);
+        }
+    }
+
+    private ClaimAuditRecord read(int offset) {
+        byte from = buffer.get(offset + 24);
+        return new ClaimAuditRecord(buffer.getLong(offset), buffer.getLong(offset + 8), buffer.getLong(offset + 16),
+                from == NO_STATUS ? null : STATUSES[from], STATUSES[buffer.get(offset + 25)],
+                buffer.getLong(offset + 28));
+    }
+
+    private synchronized void publish(long claimId, int offset) {
+        index(claimId, offset);
+        position = offset + RECORD_BYTES;
+    }
+
+    private synchronized void index(long claimId, int offset) {
+        int[] entries = offsets.get(claimId);
+        if (entries == null) {
+            entries = new int[4];
+        } else if (entries[0] + 1 == entries.length) {
+            entries = Arrays.copyOf(entries, entries.length * 2);
+        }
+        entries[++entries[0]] = offset;
+        offsets.put(claimId, entries);
+    }
+
+    private void recover() {
+        int offset = 0;
+        while (offset + RECORD_BYTES <= buffer.capacity()) {
+            buffer.get(offset, scratch);
+            long sequence = scratchBuffer.getLong(0);
+            if (sequence != lastSequence + 1) {
+                break;
+            }
+            crc.reset();
+            crc.update(scratch, 0, CHECKSUMMED_BYTES);
+            if ((int) crc.getValue() != scratchBuffer.getInt(CHECKSUMMED_BYTES)) {
+                break;
+            }
+            index(scratchBuffer.getLong(16), offset);
+            lastSequence = sequence;
+            lastTimestamp = scratchBuffer.getLong(8);
+            offset += RECORD_BYTES;
+        }
+        synchronized (this) {
+            position = offset;
+        }
+        // Clear a torn tail so a later scan cannot mistake it for records
+        for (int i = offset; i < buffer.capacity() && buffer.getLong(i) != 0; i += RECORD_BYTES) {
+            buffer.put(i, new byte[RECORD_BYTES]);
+        }
+    }
+}
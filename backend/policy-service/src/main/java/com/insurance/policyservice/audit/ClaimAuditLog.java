@@ -0,0 +1,301 @@
+package com.insurance.policyservice.audit;
+
+import com.insurance.policyservice.model.ClaimStatus;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Append-only log of claim status transitions in a directory of
+ * {@link AuditSegment}s. Appends are serialised and copied into the active
+ * segment's mapping; durability follows the {@link FsyncPolicy}. Under
+ * {@code ALWAYS} one flusher thread forces everything appended so far and
+ * releases every waiting appender at once, so concurrent appends share a
+ * single force.
+ *
+ * A full segment is forced and sealed and a new one started. Sealed
+ * segments older than the retention cutoff are deleted by
+ * {@link #deleteSegmentsOlderThan}.
+ *
+ * An open log holds a file lock on its directory, so a second log cannot be
+ * opened over it and {@link #inUse} can tell a live directory from an
+ * abandoned one.
+ */
+public class ClaimAuditLog implements Closeable {
+    private static final String LOCK_FILE = "audit.lock";
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final FsyncPolicy fsyncPolicy;
+    private final long fsyncIntervalNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+    private final Condition flushed = lock.newCondition();
+    // Oldest first; the last one is the active segment
+    private final List<AuditSegment> segments = new CopyOnWriteArrayList<>();
+    private long appendedSequence;
+    private long durableSequence;
+    private boolean closed;
+    private Thread flusher;
+    private final FileChannel lockChannel;
+
+    public ClaimAuditLog(Path directory, int segmentBytes, FsyncPolicy fsyncPolicy, long fsyncIntervalMillis) {
+        if (segmentBytes < AuditSegment.RECORD_BYTES) {
+            throw new IllegalArgumentException("Audit segments must hold at least one record");
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.fsyncPolicy = fsyncPolicy;
+        this.fsyncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(fsyncIntervalMillis);
+        try {
+            Files.createDirectories(directory);
+            lockChannel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE);
+            if (tryLock(lockChannel) == null) {
+                lockChannel.close();
+                throw new IllegalStateException("Audit log in " + directory + " is already open");
+            }
+            try (Stream<Path> files = Files.list(directory)) {
+                files.filter(path -> path.getFileName().toString().matches("audit-\\d{20}\\.log"))
+                        .sorted()
+                        .forEach(path -> segments.add(AuditSegment.open(path)));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open audit log in " + directory, e);
+        }
+        appendedSequence = segments.isEmpty() ? 0 : active().lastSequence();
+        durableSequence = appendedSequence;
+        if (segments.isEmpty() || !active().hasRoom()) {
+            segments.add(AuditSegment.create(directory, appendedSequence + 1, segmentBytes));
+        }
+        if (fsyncPolicy != FsyncPolicy.NEVER) {
+            flusher = new Thread(this::flushLoop, "claim-audit-flusher");
+            flusher.setDaemon(true);
+            flusher.start();
+        }
+    }
+
+    /**
+     * Appends one transition and returns its sequence number; under
+     * {@link FsyncPolicy#ALWAYS} returns only once the record is on disk.
+     */
+    public long append(long claimId, ClaimStatus from, ClaimStatus to, long settledCents) {
+        lock.lock();
+        try {
+            long sequence = write(claimId, from, to, settledCents);
+            awaitDurable(sequence);
+            return sequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Appends the same transition for several claims and waits for the fsync
+     * policy once; {@code from[i]} and {@code settledCents[i]} belong to
+     * {@code claimIds[i]}. Returns the last sequence number.
+     */
+    public long appendAll(long[] claimIds, ClaimStatus[] from, ClaimStatus to, long[] settledCents) {
+        lock.lock();
+        try {
+            long sequence = appendedSequence;
+            for (int i = 0; i < claimIds.length; i++) {
+                sequence = write(claimIds[i], from[i], to, settledCents[i]);
+            }
+            awaitDurable(sequence);
+            return sequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Every transition of one claim, oldest first, read through the segments' offset indexes. */
+    public List<ClaimAuditRecord> replay(long claimId) {
+        List<ClaimAuditRecord> records = new ArrayList<>();
+        for (AuditSegment segment : segments) {
+            segment.forClaim(claimId, records::add);
+        }
+        return records;
+    }
+
+    /** Streams every retained record in sequence order; returns how many. */
+    public long replayAll(Consumer<ClaimAuditRecord> consumer) {
+        long records = 0;
+        for (AuditSegment segment : segments) {
+            records += segment.forEach(consumer);
+        }
+        return records;
+    }
+
+    /** Deletes sealed segments whose newest record is older than {@code cutoffMillis}; returns how many. */
+    public int deleteSegmentsOlderThan(long cutoffMillis) {
+        int deleted = 0;
+        for (AuditSegment segment : segments) {
+            if (segment == active() || segment.isEmpty() || segment.lastTimestamp() >= cutoffMillis) {
+                continue;
+            }
+            segments.remove(segment);
+            segment.close();
+            try {
+                Files.deleteIfExists(segment.path);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not delete audit segment " + segment.path, e);
+            }
+            deleted++;
+        }
+        return deleted;
+    }
+
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    public long lastSequence() {
+        lock.lock();
+        try {
+            return appendedSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            active().force();
+            durableSequence = appendedSequence;
+            appended.signalAll();
+            flushed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        if (flusher != null) {
+            flusher.interrupt();
+        }
+        segments.forEach(AuditSegment::close);
+        try {
+            // Closing the channel releases the lock
+            lockChannel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not release audit log lock in " + directory, e);
+        }
+    }
+
+    /** Whether a log is open on {@code directory}, in this process or another; true when it cannot tell. */
+    public static boolean inUse(Path directory) {
+        Path lockFile = directory.resolve(LOCK_FILE);
+        if (!Files.exists(lockFile)) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.WRITE)) {
+            return tryLock(channel) == null;
+        } catch (IOException e) {
+            return true;
+        }
+    }
+
+    // Null when another channel, here or in another process, holds the lock
+    private static FileLock tryLock(FileChannel channel) throws IOException {
+        try {
+            return channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            return null;
+        }
+    }
+
+    // Caller holds the lock
+    private long write(long claimId, ClaimStatus from, ClaimStatus to, long settledCents) {
+        if (closed) {
+            throw new IllegalStateException("Claim audit log is closed");
+        }
+        AuditSegment segment = active();
+        if (!segment.hasRoom()) {
+            segment.force();
+            durableSequence = appendedSequence;
+            flushed.signalAll();
+            segment = AuditSegment.create(directory, appendedSequence + 1, segmentBytes);
+            segments.add(segment);
+        }
+        long sequence = ++appendedSequence;
+        segment.append(sequence, System.currentTimeMillis(), claimId, from, to, settledCents);
+        return sequence;
+    }
+
+    // Caller holds the lock
+    private void awaitDurable(long sequence) {
+        if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+            appended.signal();
+            while (durableSequence < sequence && !closed) {
+                flushed.awaitUninterruptibly();
+            }
+        }
+    }
+
+    private AuditSegment active() {
+        return segments.get(segments.size() - 1);
+    }
+
+    private void flushLoop() {
+        while (true) {
+            long target;
+            AuditSegment segment;
+            boolean dirty;
+            lock.lock();
+            try {
+                if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+                    while (!closed && durableSequence == appendedSequence) {
+                        appended.awaitUninterruptibly();
+                    }
+                } else {
+                    long remaining = fsyncIntervalNanos;
+                    while (!closed && remaining > 0) {
+                        remaining = appended.awaitNanos(remaining);
+                    }
+                }
+                if (closed) {
+                    return;
+                }
+                // Records up to target are either in this segment or in sealed segments forced at rollover
+                target = appendedSequence;
+                segment = active();
+                dirty = target != durableSequence;
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                lock.unlock();
+            }
+            if (!dirty) {
+                continue;
+            }
+            segment.force();
+            lock.lock();
+            try {
+                durableSequence = Math.max(durableSequence, target);
+                flushed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
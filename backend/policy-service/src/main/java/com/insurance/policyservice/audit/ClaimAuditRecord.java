@@ -0,0 +1,12 @@
+package com.insurance.policyservice.audit;
+
+import com.insurance.policyservice.model.ClaimStatus;
+
+/**
+ * One claim status transition as stored in the audit log.
+ *
+ * @param fromStatus null when the claim was created
+ */
+public record ClaimAuditRecord(long sequence, long timestampMillis, long claimId, ClaimStatus fromStatus,
+                               ClaimStatus toStatus, long settledCents) {
+}
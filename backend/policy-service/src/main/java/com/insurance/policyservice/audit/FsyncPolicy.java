@@ -0,0 +1,11 @@
+package com.insurance.policyservice.audit;
+
+/** When appended audit records are forced to disk. */
+public enum FsyncPolicy {
+    /** Every append waits until it is on disk; concurrent appends share one force (group commit). */
+    ALWAYS,
+    /** A background thread forces new records every fsync interval; appends never wait. */
+    INTERVAL,
+    /** Left to the OS page cache; records are forced only at rollover and shutdown. */
+    NEVER
+}
@@ -1,13 +1,28 @@
 package com.insurance.policyservice.client;
 
+import com.insurance.policyservice.config.CustomerClientConfig;
+import com.insurance.policyservice.dto.CustomerChangeFeedDto;
 import com.insurance.policyservice.dto.CustomerDto;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 
-@FeignClient(name = "customer-service")
+import java.util.List;
+
+@FeignClient(name = "customer-service", configuration = CustomerClientConfig.class)
 public interface CustomerClient {
     @GetMapping("/api/customers/{id}")
     CustomerDto getCustomerById(@PathVariable("id") Long id);
-}
 
+    @GetMapping("/api/customers/batch")
+    List<CustomerDto> getCustomersByIds(@RequestParam("ids") List<Long> ids);
+
+    @GetMapping("/api/customers")
+    List<CustomerDto> getAllCustomers();
+
+    @GetMapping("/api/customers/changes")
+    CustomerChangeFeedDto getCustomerChanges(@RequestParam("after") long after,
+                                             @RequestParam("limit") int limit,
+                                             @RequestParam("waitMs") long waitMs);
+}
@@ -0,0 +1,37 @@
+package com.insurance.policyservice.client;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket that caps hedged requests to a percentage of primary traffic.
+ * Every primary request deposits {@code percent / 100} of a token and every
+ * hedge withdraws a whole one, so hedges can never exceed the configured
+ * share of extra load.
+ */
+public class HedgeBudget {
+    private static final long TOKEN = 1000;
+
+    private final long depositPerRequest;
+    private final long maxTokens;
+    private final AtomicLong balance = new AtomicLong();
+
+    public HedgeBudget(int percent, int burst) {
+        this.depositPerRequest = TOKEN * percent / 100;
+        this.maxTokens = TOKEN * Math.max(1, burst);
+    }
+
+    public void deposit() {
+        balance.getAndUpdate(current -> Math.min(maxTokens, current + depositPerRequest));
+    }
+
+    public boolean tryAcquire() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < TOKEN) {
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - TOKEN));
+        return true;
+    }
+}
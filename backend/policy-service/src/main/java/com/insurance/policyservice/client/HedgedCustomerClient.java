@@ -0,0 +1,265 @@
+package com.insurance.policyservice.client;
+
+import com.insurance.policyservice.dto.CustomerDto;
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
+import feign.RetryableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Idempotent customer reads with optional request hedging.
+ *
+ * When hedging is enabled the first attempt goes to a random customer-service
+ * instance. If it has not answered within the observed latency percentile, a
+ * second attempt goes to a different instance; the first successful response
+ * wins and the other attempt is cancelled. When disabled, calls go straight
+ * through the load-balanced {@link CustomerClient}.
+ *
+ * Attempts run on a bounded pool; when it is busy the lookup goes through
+ * {@link CustomerClient} unhedged. Errors are raised as the same
+ * {@link FeignException}s the Feign client throws.
+ */
+@Component
+public class HedgedCustomerClient {
+    private static final Logger logger = LoggerFactory.getLogger(HedgedCustomerClient.class);
+
+    private static final String SERVICE_ID = "customer-service";
+
+    private static final int BATCH_SIZE = 200;
+
+    private static final MediaType CBOR = MediaType.parseMediaType("application/cbor");
+
+    private static final String METHOD_KEY = "CustomerClient#getCustomerById(Long)";
+
+    @Autowired
+    private CustomerClient customerClient;
+
+    @Autowired
+    private DiscoveryClient discoveryClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${insurance.customer-client.hedging.enabled:false}")
+    private boolean hedgingEnabled;
+
+    @Value("${insurance.customer-client.hedging.percentile:0.95}")
+    private double percentile;
+
+    @Value("${insurance.customer-client.hedging.min-delay-ms:5}")
+    private long minDelayMs;
+
+    @Value("${insurance.customer-client.hedging.initial-delay-ms:50}")
+    private long initialDelayMs;
+
+    @Value("${insurance.customer-client.hedging.window-size:1000}")
+    private int windowSize;
+
+    @Value("${insurance.customer-client.hedging.budget-percent:10}")
+    private int budgetPercent;
+
+    @Value("${insurance.customer-client.hedging.budget-burst:10}")
+    private int budgetBurst;
+
+    @Value("${insurance.customer-client.hedging.max-threads:32}")
+    private int maxThreads;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private RestClient restClient;
+    private Executor executor;
+    private LatencyTracker latencyTracker;
+    private HedgeBudget hedgeBudget;
+
+    private Counter requests;
+    private Counter hedges;
+    private Counter hedgeWins;
+    private Counter budgetExhausted;
+    private Counter rejected;
+
+    @PostConstruct
+    void init() {
+        restClient = RestClient.builder()
+                .requestFactory(new JdkClientHttpRequestFactory())
+                .build();
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor virtualExecutor = new SimpleAsyncTaskExecutor("customer-hedge-");
+            virtualExecutor.setVirtualThreads(true);
+            executor = virtualExecutor;
+        } else {
+            AtomicInteger threads = new AtomicInteger();
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(maxThreads, maxThreads, 60, TimeUnit.SECONDS,
+                    new SynchronousQueue<>(), runnable -> {
+                        Thread thread = new Thread(runnable, "customer-hedge-" + threads.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            pool.allowCoreThreadTimeOut(true);
+            executor = pool;
+        }
+        latencyTracker = new LatencyTracker(windowSize, percentile,
+                TimeUnit.MILLISECONDS.toNanos(minDelayMs), TimeUnit.MILLISECONDS.toNanos(initialDelayMs));
+        hedgeBudget = new HedgeBudget(budgetPercent, budgetBurst);
+
+        requests = meterRegistry.counter("customer.client.hedging.requests");
+        hedges = meterRegistry.counter("customer.client.hedging.hedges");
+        hedgeWins = meterRegistry.counter("customer.client.hedging.wins");
+        budgetExhausted = meterRegistry.counter("customer.client.hedging.budget.exhausted");
+        rejected = meterRegistry.counter("customer.client.hedging.rejected");
+        Gauge.builder("customer.client.hedging.delay", latencyTracker,
+                        tracker -> tracker.thresholdNanos() / 1_000_000.0)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        } else if (executor instanceof SimpleAsyncTaskExecutor asyncTaskExecutor) {
+            asyncTaskExecutor.close();
+        }
+    }
+
+    public CustomerDto getCustomerById(Long id) {
+        if (!hedgingEnabled) {
+            return customerClient.getCustomerById(id);
+        }
+
+        List<ServiceInstance> instances = discoveryClient.getInstances(SERVICE_ID);
+        if (instances.isEmpty()) {
+            return customerClient.getCustomerById(id);
+        }
+
+        requests.increment();
+        hedgeBudget.deposit();
+
+        int first = ThreadLocalRandom.current().nextInt(instances.size());
+        CompletionService<CustomerDto> completion = new ExecutorCompletionService<>(executor);
+        List<Future<CustomerDto>> attempts = new ArrayList<>(2);
+        try {
+            attempts.add(completion.submit(() -> fetch(instances.get(first), id)));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            return customerClient.getCustomerById(id);
+        }
+
+        try {
+            Future<CustomerDto> done = completion.poll(latencyTracker.thresholdNanos(), TimeUnit.NANOSECONDS);
+            if (done == null && instances.size() > 1) {
+                if (hedgeBudget.tryAcquire()) {
+                    ServiceInstance second = instances.get((first + 1) % instances.size());
+                    try {
+                        attempts.add(completion.submit(() -> fetch(second, id)));
+                        hedges.increment();
+                    } catch (RejectedExecutionException e) {
+                        rejected.increment();
+                    }
+                } else {
+                    budgetExhausted.increment();
+                }
+            }
+
+            RuntimeException failure = null;
+            for (int pending = attempts.size(); pending > 0; pending--) {
+                if (done == null) {
+                    done = completion.take();
+                }
+                try {
+                    CustomerDto customer = done.get();
+                    if (attempts.size() > 1 && done == attempts.get(1)) {
+                        hedgeWins.increment();
+                    }
+                    return customer;
+                } catch (ExecutionException e) {
+                    failure = e.getCause() instanceof RuntimeException runtime
+                            ? runtime
+                            : new RuntimeException(e.getCause());
+                    logger.debug("Customer lookup attempt failed for id {}: {}", id, failure.getMessage());
+                }
+                done = null;
+            }
+            throw failure;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while fetching customer with id: " + id, e);
+        } finally {
+            attempts.forEach(attempt -> attempt.cancel(true));
+        }
+    }
+
+    public List<CustomerDto> getCustomersByIds(List<Long> ids) {
+        List<CustomerDto> customers = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+            customers.addAll(customerClient.getCustomersByIds(ids.subList(from, Math.min(ids.size(), from + BATCH_SIZE))));
+        }
+        return customers;
+    }
+
+    private CustomerDto fetch(ServiceInstance instance, Long id) {
+        String url = instance.getUri() + "/api/customers/" + id;
+        long start = System.nanoTime();
+        try {
+            return restClient.get()
+                    .uri(url)
+                    .accept(CBOR, MediaType.APPLICATION_JSON)
+                    .exchange((request, response) -> {
+                        if (response.getStatusCode().isError()) {
+                            throw FeignException.errorStatus(METHOD_KEY, Response.builder()
+                                    .status(response.getStatusCode().value())
+                                    .reason(response.getStatusText())
+                                    .headers(Map.of())
+                                    .request(feignRequest(url))
+                                    .body(response.getBody().readAllBytes())
+                                    .build());
+                        }
+                        return response.bodyTo(CustomerDto.class);
+                    });
+        } catch (ResourceAccessException e) {
+            throw new RetryableException(-1, e.getMessage(), Request.HttpMethod.GET, e, (Long) null, feignRequest(url));
+        } finally {
+            // Failed attempts and losers cancelled when the other attempt won are sampled too. A loser's
+            // elapsed time is only a lower bound, but dropping it would bias the threshold low.
+            latencyTracker.record(System.nanoTime() - start);
+        }
+    }
+
+    private static Request feignRequest(String url) {
+        return Request.create(Request.HttpMethod.GET, url, Map.of(), null, StandardCharsets.UTF_8, null);
+    }
+}
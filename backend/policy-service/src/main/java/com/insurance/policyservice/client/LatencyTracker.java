@@ -0,0 +1,54 @@
+package com.insurance.policyservice.client;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Sliding window of recent call latencies used to derive the hedging delay.
+ * The percentile is recomputed every {@code recomputeEvery} samples so the
+ * hot path only pays for an array write.
+ */
+public class LatencyTracker {
+    private final long[] samples;
+    private final double percentile;
+    private final long minThresholdNanos;
+    private final int recomputeEvery;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private int next;
+    private int count;
+    private int sinceRecompute;
+    private volatile long thresholdNanos;
+
+    public LatencyTracker(int windowSize, double percentile, long minThresholdNanos, long initialThresholdNanos) {
+        this.samples = new long[windowSize];
+        this.percentile = percentile;
+        this.minThresholdNanos = minThresholdNanos;
+        this.recomputeEvery = Math.max(1, windowSize / 10);
+        this.thresholdNanos = Math.max(minThresholdNanos, initialThresholdNanos);
+    }
+
+    public void record(long elapsedNanos) {
+        lock.lock();
+        try {
+            samples[next] = elapsedNanos;
+            next = (next + 1) % samples.length;
+            if (count < samples.length) {
+                count++;
+            }
+            if (++sinceRecompute >= recomputeEvery) {
+                sinceRecompute = 0;
+                long[] window = Arrays.copyOf(samples, count);
+                Arrays.sort(window);
+                int index = (int) Math.ceil(percentile * count) - 1;
+                thresholdNanos = Math.max(minThresholdNanos, window[Math.max(0, index)]);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long thresholdNanos() {
+        return thresholdNanos;
+    }
+}
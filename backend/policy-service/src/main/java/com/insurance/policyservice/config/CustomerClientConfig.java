@@ -0,0 +1,17 @@
+package com.insurance.policyservice.config;
+
+import feign.RequestInterceptor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Feign configuration for {@code CustomerClient}. Not annotated with
+ * {@code @Configuration} so it only applies to that client.
+ */
+public class CustomerClientConfig {
+
+    @Bean
+    public RequestInterceptor cborAcceptInterceptor() {
+        return template -> template.header(HttpHeaders.ACCEPT, "application/cbor", "application/json;q=0.9");
+    }
+}
@@ -1,16 +1,27 @@
     package com.insurance.policyservice.controller;
 
+    import com.insurance.policyservice.dto.BulkClaimTransitionRequest;
+    import com.insurance.policyservice.dto.BulkClaimTransitionResult;
+    import com.insurance.policyservice.dto.ClaimIntakeDto;
+    import com.insurance.policyservice.dto.ClaimStatusChangeDto;
     import com.insurance.policyservice.dto.ClaimUpdateRequest;
 import com.insurance.policyservice.model.Claim;
     import com.insurance.policyservice.model.ClaimStatus;
+    import com.insurance.policyservice.service.ClaimIntakeService;
     import com.insurance.policyservice.service.ClaimService;
+    import com.insurance.policyservice.service.ClaimTransitionService;
     import jakarta.validation.Valid;
     import org.springframework.beans.factory.annotation.Autowired;
+    import org.springframework.dao.InvalidDataAccessApiUsageException;
+    import org.springframework.dao.OptimisticLockingFailureException;
+    import org.springframework.http.HttpHeaders;
     import org.springframework.http.HttpStatus;
     import org.springframework.http.ResponseEntity;
     import org.springframework.web.bind.annotation.*;
+    import org.springframework.web.context.request.async.DeferredResult;
 
     import java.util.List;
+    import java.util.Map;
 
     @RestController
     @RequestMapping("/api/claims")
@@ -18,23 +29,74 @@ import com.insurance.policyservice.model.Claim;
         @Autowired
         private ClaimService claimService;
 
+        @Autowired
+        private ClaimTransitionService claimTransitionService;
+
+        @Autowired
+        private ClaimIntakeService claimIntakeService;
+
+        private static final long MAX_INTAKE_WAIT_MS = 30_000;
+        private static final int MAX_PAGE_LIMIT = 1000;
+
         @GetMapping
-        public ResponseEntity<List<Claim>> getAllClaims() {
-            List<Claim> claims = claimService.getAllClaims();
+        public ResponseEntity<List<?>> getAllClaims(@RequestParam(required = false) List<String> fields) {
+            if (fields == null || fields.isEmpty()) {
+                List<Claim> claims = claimService.getAllClaims();
+                return new ResponseEntity<>(claims, HttpStatus.OK);
+            }
+            try {
+                return new ResponseEntity<>(claimService.getAllClaims(fields), HttpStatus.OK);
+            } catch (IllegalArgumentException | InvalidDataAccessApiUsageException e) {
+                return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+            }
+        }
+
+        // Keyset page in id order; pass the last id of a page as afterId to get the next
+        @GetMapping(params = "limit")
+        public ResponseEntity<List<Claim>> getClaimPage(@RequestParam(defaultValue = "0") long afterId,
+                                                        @RequestParam int limit) {
+            if (limit < 1 || limit > MAX_PAGE_LIMIT) {
+                return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+            }
+            return new ResponseEntity<>(claimService.getClaimPage(afterId, limit), HttpStatus.OK);
+        }
+
+        // Claims whose fraud score crossed the review threshold, newest first
+        @GetMapping("/flagged")
+        public ResponseEntity<List<Claim>> getFlaggedClaims() {
+            List<Claim> claims = claimService.getFlaggedClaims();
             return new ResponseEntity<>(claims, HttpStatus.OK);
         }
 
         @GetMapping("/{id}")
         public ResponseEntity<Claim> getClaimById(@PathVariable Long id) {
             return claimService.getClaimById(id)
-                    .map(claim -> new ResponseEntity<>(claim, HttpStatus.OK))
+                    .map(claim -> new ResponseEntity<>(claim, ETags.headers(claim.getVersion()), HttpStatus.OK))
                     .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
         }
 
+        // Every status transition of the claim, oldest first, from this instance's audit log
+        @GetMapping("/{id}/history")
+        public ResponseEntity<List<ClaimStatusChangeDto>> getClaimHistory(@PathVariable Long id) {
+            try {
+                return new ResponseEntity<>(claimService.getClaimHistory(id), HttpStatus.OK);
+            } catch (RuntimeException e) {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+        }
+
         @GetMapping("/policy/{policyId}")
-        public ResponseEntity<List<Claim>> getClaimsByPolicyId(@PathVariable Long policyId) {
-            List<Claim> claims = claimService.getClaimsByPolicyId(policyId);
-            return new ResponseEntity<>(claims, HttpStatus.OK);
+        public ResponseEntity<List<?>> getClaimsByPolicyId(@PathVariable Long policyId,
+                                                           @RequestParam(required = false) List<String> fields) {
+            if (fields == null || fields.isEmpty()) {
+                List<Claim> claims = claimService.getClaimsByPolicyId(policyId);
+                return new ResponseEntity<>(claims, HttpStatus.OK);
+            }
+            try {
+                return new ResponseEntity<>(claimService.getClaimsByPolicyId(policyId, fields), HttpStatus.OK);
+            } catch (IllegalArgumentException | InvalidDataAccessApiUsageException e) {
+                return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+            }
         }
 
         @PostMapping
@@ -47,11 +109,63 @@ import com.insurance.policyservice.model.Claim;
             }
         }
 
+        // Queued for batch creation; poll GET /api/claims/intake/{trackingId} for the outcome
+        @PostMapping(params = "async=true")
+        public ResponseEntity<ClaimIntakeDto> submitClaim(@Valid @RequestBody Claim claim) {
+            try {
+                return new ResponseEntity<>(claimIntakeService.submit(claim), HttpStatus.ACCEPTED);
+            } catch (IllegalStateException e) {
+                return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+            }
+        }
+
+        // With waitMs, answers as soon as the claim is created or rejected, or with QUEUED once the wait ends
+        @GetMapping("/intake/{trackingId}")
+        public DeferredResult<ResponseEntity<ClaimIntakeDto>> getIntakeStatus(@PathVariable String trackingId,
+                                                                              @RequestParam(defaultValue = "0") long waitMs) {
+            long wait = Math.max(0, Math.min(waitMs, MAX_INTAKE_WAIT_MS));
+            DeferredResult<ResponseEntity<ClaimIntakeDto>> result = new DeferredResult<>(wait + 1_000);
+            try {
+                claimIntakeService.poll(trackingId, wait)
+                        .thenAccept(intake -> result.setResult(new ResponseEntity<>(intake, HttpStatus.OK)));
+            } catch (RuntimeException e) {
+                result.setResult(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+            }
+            return result;
+        }
+
         @PutMapping("/{id}")
         public ResponseEntity<Claim> updateClaim(@PathVariable Long id, @Valid @RequestBody Claim claim) {
             try {
                 Claim updatedClaim = claimService.updateClaim(id, claim);
                 return new ResponseEntity<>(updatedClaim, HttpStatus.OK);
+            } catch (IllegalArgumentException e) {
+                return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+            } catch (OptimisticLockingFailureException e) {
+                // Another update committed between this one's read and write
+                return new ResponseEntity<>(HttpStatus.CONFLICT);
+            } catch (IllegalStateException e) {
+                return new ResponseEntity<>(HttpStatus.CONFLICT);
+            } catch (RuntimeException e) {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+        }
+
+        // Only the fields in the body are written; send the ETag from GET as If-Match to update conditionally
+        @PatchMapping("/{id}")
+        public ResponseEntity<Claim> patchClaim(@PathVariable Long id,
+                                                @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                @RequestBody Map<String, Object> changes) {
+            try {
+                Claim patchedClaim = claimService.patchClaim(id, ETags.expectedVersion(ifMatch), changes);
+                return new ResponseEntity<>(patchedClaim, ETags.headers(patchedClaim.getVersion()), HttpStatus.OK);
+            } catch (IllegalArgumentException | InvalidDataAccessApiUsageException e) {
+                // PatchRepository's IllegalArgumentException arrives translated by its @Repository proxy
+                return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+            } catch (OptimisticLockingFailureException e) {
+                return new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED);
+            } catch (IllegalStateException e) {
+                return new ResponseEntity<>(HttpStatus.CONFLICT);
             } catch (RuntimeException e) {
                 return new ResponseEntity<>(HttpStatus.NOT_FOUND);
             }
@@ -75,10 +189,26 @@ import com.insurance.policyservice.model.Claim;
         public ResponseEntity<Claim> updateClaimStatus(
                 @PathVariable Long id,
                 @RequestBody ClaimUpdateRequest request) { 
-            Claim updatedClaim = claimService.processClaimStatus(id, request.getStatus(), request.getSettledAmount());
-            return ResponseEntity.ok(updatedClaim);
+            try {
+                Claim updatedClaim = claimService.processClaimStatus(id, request.getStatus(), request.getSettledAmount());
+                return ResponseEntity.ok(updatedClaim);
+            } catch (IllegalStateException e) {
+                return new ResponseEntity<>(HttpStatus.CONFLICT);
+            } catch (RuntimeException e) {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
         }
         
+        // e.g. {"targetStatus": "REJECTED", "policyId": 42, "fromStatus": "PENDING"} or {"targetStatus": "APPROVED", "claimIds": [...]}
+        @PostMapping("/transitions")
+        public ResponseEntity<BulkClaimTransitionResult> transitionClaims(@RequestBody BulkClaimTransitionRequest request) {
+            try {
+                return new ResponseEntity<>(claimTransitionService.transition(request), HttpStatus.OK);
+            } catch (IllegalArgumentException e) {
+                return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+            }
+        }
+
         @DeleteMapping("/{id}")
         public ResponseEntity<Void> deleteClaim(@PathVariable Long id) {
             try {
@@ -1,15 +1,29 @@
 package com.insurance.policyservice.controller;
 
+import com.insurance.policyservice.dto.ExposureBucketDto;
 import com.insurance.policyservice.dto.PolicyWithCustomerDto;
+import com.insurance.policyservice.dto.QuoteDto;
+import com.insurance.policyservice.dto.QuoteRequest;
 import com.insurance.policyservice.model.Policy;
+import com.insurance.policyservice.model.PolicyType;
+import com.insurance.policyservice.service.BulkLoadService;
 import com.insurance.policyservice.service.PolicyService;
+import com.insurance.policyservice.service.PortfolioColumns;
+import com.insurance.policyservice.service.PortfolioService;
+import com.insurance.policyservice.service.QuoteService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/policies")
@@ -17,16 +31,112 @@ public class PolicyController {
     @Autowired
     private PolicyService policyService;
 
+    @Autowired
+    private PortfolioService portfolioService;
+
+    @Autowired
+    private QuoteService quoteService;
+
+    @Autowired
+    private BulkLoadService bulkLoadService;
+
+    private static final int MAX_PAGE_LIMIT = 1000;
+
     @GetMapping
-    public ResponseEntity<List<Policy>> getAllPolicies() {
-        List<Policy> policies = policyService.getAllPolicies();
+    public ResponseEntity<List<?>> getAllPolicies(@RequestParam(required = false) List<String> fields) {
+        if (fields == null || fields.isEmpty()) {
+            List<Policy> policies = policyService.getAllPolicies();
+            return new ResponseEntity<>(policies, HttpStatus.OK);
+        }
+        try {
+            return new ResponseEntity<>(policyService.getAllPolicies(fields), HttpStatus.OK);
+        } catch (IllegalArgumentException | InvalidDataAccessApiUsageException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    // Keyset page in id order; pass the last id of a page as afterId to get the next
+    @GetMapping(params = "limit")
+    public ResponseEntity<List<Policy>> getPolicyPage(@RequestParam(defaultValue = "0") long afterId,
+                                                      @RequestParam int limit) {
+        if (limit < 1 || limit > MAX_PAGE_LIMIT) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(policyService.getPolicyPage(afterId, limit), HttpStatus.OK);
+    }
+
+    @GetMapping("/active")
+    public ResponseEntity<List<Policy>> getActivePolicies(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) Long customerId) {
+        LocalDate day = date == null ? LocalDate.now() : date;
+        List<Policy> policies = customerId == null
+                ? policyService.getActivePolicies(day)
+                : policyService.getActivePoliciesByCustomerId(customerId, day);
         return new ResponseEntity<>(policies, HttpStatus.OK);
     }
 
+    // e.g. ?type=AUTO&activeOn=2025-01-01&groupBy=START_MONTH, computed on the in-memory portfolio snapshot
+    @GetMapping("/analytics")
+    public ResponseEntity<List<ExposureBucketDto>> getExposure(
+            @RequestParam(required = false) PolicyType type,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate activeOn,
+            @RequestParam(defaultValue = "NONE") PortfolioColumns.GroupBy groupBy) {
+        try {
+            return new ResponseEntity<>(portfolioService.aggregate(type, activeOn, groupBy), HttpStatus.OK);
+        } catch (IllegalStateException e) {
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+        }
+    }
+
+    @PostMapping("/analytics/rebuild")
+    public ResponseEntity<Integer> rebuildPortfolio() {
+        return new ResponseEntity<>(portfolioService.rebuild(), HttpStatus.OK);
+    }
+
+    // Called by datagen after it wrote rows straight into the tables
+    @PostMapping("/bulk-load/refresh")
+    public ResponseEntity<Void> refreshAfterBulkLoad() {
+        try {
+            bulkLoadService.refreshAfterBulkLoad();
+            return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+        } catch (IllegalStateException e) {
+            return new ResponseEntity<>(HttpStatus.CONFLICT);
+        }
+    }
+
+    @PostMapping("/quote")
+    public ResponseEntity<QuoteDto> quote(@Valid @RequestBody QuoteRequest request) {
+        try {
+            return new ResponseEntity<>(quoteService.quote(request), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    // All quotes in a batch are priced against the same rules version
+    @PostMapping("/quote/batch")
+    public ResponseEntity<List<QuoteDto>> quoteBatch(@RequestBody List<QuoteRequest> requests) {
+        try {
+            return new ResponseEntity<>(quoteService.quoteAll(requests), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @PostMapping("/quote/rules/reload")
+    public ResponseEntity<String> reloadRatingRules() {
+        try {
+            return new ResponseEntity<>(quoteService.reload(), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Policy> getPolicyById(@PathVariable Long id) {
         return policyService.getPolicyById(id)
-                .map(policy -> new ResponseEntity<>(policy, HttpStatus.OK))
+                .map(policy -> new ResponseEntity<>(policy, ETags.headers(policy.getVersion()), HttpStatus.OK))
                 .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
@@ -47,9 +157,17 @@ public class PolicyController {
     }
 
     @GetMapping("/customer/{customerId}")
-    public ResponseEntity<List<Policy>> getPoliciesByCustomerId(@PathVariable Long customerId) {
-        List<Policy> policies = policyService.getPoliciesByCustomerId(customerId);
-        return new ResponseEntity<>(policies, HttpStatus.OK);
+    public ResponseEntity<List<?>> getPoliciesByCustomerId(@PathVariable Long customerId,
+                                                           @RequestParam(required = false) List<String> fields) {
+        if (fields == null || fields.isEmpty()) {
+            List<Policy> policies = policyService.getPoliciesByCustomerId(customerId);
+            return new ResponseEntity<>(policies, HttpStatus.OK);
+        }
+        try {
+            return new ResponseEntity<>(policyService.getPoliciesByCustomerId(customerId, fields), HttpStatus.OK);
+        } catch (IllegalArgumentException | InvalidDataAccessApiUsageException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
     }
 
     @PostMapping
@@ -63,6 +181,27 @@ public class PolicyController {
         try {
             Policy updatedPolicy = policyService.updatePolicy(id, policy);
             return new ResponseEntity<>(updatedPolicy, HttpStatus.OK);
+        } catch (OptimisticLockingFailureException e) {
+            // Another update committed between this one's read and write
+            return new ResponseEntity<>(HttpStatus.CONFLICT);
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+
+    // Only the fields in the body are written; send the ETag from GET as If-Match to update conditionally
+    @PatchMapping("/{id}")
+    public ResponseEntity<Policy> patchPolicy(@PathVariable Long id,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                              @RequestBody Map<String, Object> changes) {
+        try {
+            Policy patchedPolicy = policyService.patchPolicy(id, ETags.expectedVersion(ifMatch), changes);
+            return new ResponseEntity<>(patchedPolicy, ETags.headers(patchedPolicy.getVersion()), HttpStatus.OK);
+        } catch (IllegalArgumentException | InvalidDataAccessApiUsageException e) {
+            // PatchRepository's IllegalArgumentException arrives translated by its @Repository proxy
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        } catch (OptimisticLockingFailureException e) {
+            return new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED);
         } catch (RuntimeException e) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
@@ -0,0 +1,53 @@
+package com.insurance.policyservice.controller;
+
+import com.insurance.policyservice.dto.RenewalJobReport;
+import com.insurance.policyservice.model.RenewalJob;
+import com.insurance.policyservice.service.RenewalJobService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/renewals")
+public class RenewalController {
+    @Autowired
+    private RenewalJobService renewalJobService;
+
+    // Renews policies ending in [from, to]; runs in the background, poll GET /api/renewals/{id} for progress
+    @PostMapping
+    public ResponseEntity<RenewalJob> startRenewalJob(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Integer chunkSize,
+            @RequestParam(required = false) Integer partitions) {
+        try {
+            return new ResponseEntity<>(renewalJobService.startJob(from, to, chunkSize, partitions), HttpStatus.ACCEPTED);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        } catch (IllegalStateException e) {
+            return new ResponseEntity<>(HttpStatus.CONFLICT);
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<RenewalJobReport> getRenewalJob(@PathVariable Long id) {
+        try {
+            return new ResponseEntity<>(renewalJobService.getReport(id), HttpStatus.OK);
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+
+    @PostMapping("/{id}/resume")
+    public ResponseEntity<RenewalJob> resumeRenewalJob(@PathVariable Long id) {
+        try {
+            return new ResponseEntity<>(renewalJobService.resumeJob(id), HttpStatus.ACCEPTED);
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+}
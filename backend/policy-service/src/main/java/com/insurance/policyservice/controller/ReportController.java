@@ -0,0 +1,38 @@
+package com.insurance.policyservice.controller;
+
+import com.insurance.policyservice.dto.ClaimRollupDto;
+import com.insurance.policyservice.service.ClaimRollupService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/reports")
+public class ReportController {
+    @Autowired
+    private ClaimRollupService claimRollupService;
+
+    // Reads only claim_rollups, never the claims table
+    @GetMapping("/claims/monthly")
+    public ResponseEntity<List<ClaimRollupDto>> getMonthlyClaimTotals(
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth to) {
+        List<ClaimRollupDto> rollups = claimRollupService.getMonthlyRollups(from, to);
+        return new ResponseEntity<>(rollups, HttpStatus.OK);
+    }
+
+    @PostMapping("/claims/monthly/rebuild")
+    public ResponseEntity<Map<YearMonth, Long>> rebuildMonthlyClaimTotals() {
+        try {
+            return new ResponseEntity<>(claimRollupService.rebuild(), HttpStatus.OK);
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+}
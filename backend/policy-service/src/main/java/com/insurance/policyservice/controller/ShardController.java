@@ -0,0 +1,44 @@
+package com.insurance.policyservice.controller;
+
+import com.insurance.policyservice.dto.ShardMoveRequest;
+import com.insurance.policyservice.dto.ShardMoveResult;
+import com.insurance.policyservice.shard.ShardRebalancer;
+import com.insurance.policyservice.shard.ShardRouter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/shards")
+public class ShardController {
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private ShardRebalancer shardRebalancer;
+
+    // Buckets held by each shard
+    @GetMapping
+    public ResponseEntity<Map<Integer, Integer>> getBucketCounts() {
+        return new ResponseEntity<>(shardRouter.bucketCounts(), HttpStatus.OK);
+    }
+
+    // Runs the move to completion before answering; re-posting an interrupted move finishes it
+    @PostMapping("/moves")
+    public ResponseEntity<ShardMoveResult> moveBuckets(@RequestBody ShardMoveRequest request) {
+        if (request.getFromBucket() == null || request.getToBucket() == null || request.getTargetShard() == null) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        try {
+            return new ResponseEntity<>(shardRebalancer.move(request.getFromBucket(), request.getToBucket(),
+                    request.getTargetShard()), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        } catch (IllegalStateException e) {
+            return new ResponseEntity<>(HttpStatus.CONFLICT);
+        }
+    }
+}
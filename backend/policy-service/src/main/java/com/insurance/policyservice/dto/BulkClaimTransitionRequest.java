@@ -0,0 +1,23 @@
+package com.insurance.policyservice.dto;
+
+import com.insurance.policyservice.model.ClaimStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Moves either the listed claims or every claim of one policy to
+ * {@code targetStatus}; {@code fromStatus} narrows the claims considered,
+ * otherwise every status allowed to reach the target is.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkClaimTransitionRequest {
+    private ClaimStatus targetStatus;
+    private List<Long> claimIds;
+    private Long policyId;
+    private ClaimStatus fromStatus;
+}
@@ -0,0 +1,19 @@
+package com.insurance.policyservice.dto;
+
+import com.insurance.policyservice.model.ClaimStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkClaimTransitionResult {
+    private ClaimStatus targetStatus;
+    private Integer updated;
+    private Integer batches;
+    // Listed ids that do not exist or are in a status that cannot reach the target
+    private List<Long> refusedIds;
+}
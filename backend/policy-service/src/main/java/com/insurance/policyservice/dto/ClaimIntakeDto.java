@@ -0,0 +1,22 @@
+package com.insurance.policyservice.dto;
+
+import com.insurance.policyservice.model.ClaimIntakeStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClaimIntakeDto {
+    private String trackingId;
+    private ClaimIntakeStatus status;
+    // Set once the claim is created
+    private Long claimId;
+    // Why the claim was rejected or failed
+    private String error;
+    private Instant submittedAt;
+    private Instant completedAt;
+}
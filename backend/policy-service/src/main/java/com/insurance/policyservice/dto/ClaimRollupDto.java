@@ -0,0 +1,22 @@
+package com.insurance.policyservice.dto;
+
+import com.insurance.policyservice.model.ClaimStatus;
+import com.insurance.policyservice.model.PolicyType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClaimRollupDto {
+    private YearMonth month;
+    private ClaimStatus status;
+    private PolicyType policyType;
+    private Long claimCount;
+    private BigDecimal claimedTotal;
+    private BigDecimal settledTotal;
+}
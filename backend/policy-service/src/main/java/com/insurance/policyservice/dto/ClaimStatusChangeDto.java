@@ -0,0 +1,22 @@
+package com.insurance.policyservice.dto;
+
+import com.insurance.policyservice.model.ClaimStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClaimStatusChangeDto {
+    private Long sequence;
+    private Long claimId;
+    // Null for the transition that created the claim
+    private ClaimStatus fromStatus;
+    private ClaimStatus toStatus;
+    private BigDecimal settledAmount;
+    private Instant changedAt;
+}
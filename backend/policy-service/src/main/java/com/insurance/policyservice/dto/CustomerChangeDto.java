@@ -0,0 +1,19 @@
+package com.insurance.policyservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerChangeDto {
+    private Long seq;
+    private Long customerId;
+    private String operation;
+    private String firstName;
+    private String lastName;
+    private String email;
+    private String address;
+    private String phone;
+}
@@ -0,0 +1,17 @@
+package com.insurance.policyservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerChangeFeedDto {
+    private List<CustomerChangeDto> changes;
+    private Long lastSeq;
+    private boolean resetRequired;
+    private Long headSeq;
+}
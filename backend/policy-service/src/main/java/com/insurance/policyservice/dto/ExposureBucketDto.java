@@ -0,0 +1,17 @@
+package com.insurance.policyservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExposureBucketDto {
+    // "2024-03" for month grouping, a policy type name, or "ALL"
+    private String key;
+    private Long policies;
+    private BigDecimal coverageAmount;
+}
@@ -0,0 +1,23 @@
+package com.insurance.policyservice.dto;
+
+import com.insurance.policyservice.model.PolicyType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuoteDto {
+    private PolicyType type;
+    private BigDecimal coverageAmount;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private Integer termDays;
+    private BigDecimal premium;
+    // Version of the rating rules that priced this quote
+    private String rulesVersion;
+}
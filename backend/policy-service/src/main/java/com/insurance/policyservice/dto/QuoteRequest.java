@@ -0,0 +1,29 @@
+package com.insurance.policyservice.dto;
+
+import com.insurance.policyservice.model.PolicyType;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuoteRequest {
+    @NotNull
+    private PolicyType type;
+
+    @NotNull
+    @Positive
+    private BigDecimal coverageAmount;
+
+    @NotNull
+    private LocalDate startDate;
+
+    @NotNull
+    private LocalDate endDate;
+}
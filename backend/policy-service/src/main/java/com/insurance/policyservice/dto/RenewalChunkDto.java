@@ -0,0 +1,23 @@
+package com.insurance.policyservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RenewalChunkDto {
+    private Integer partition;
+    private Long firstPolicyId;
+    private Long lastPolicyId;
+    private Integer renewed;
+    private Integer failed;
+    private List<Long> failedPolicyIds;
+    private Long durationMs;
+    private Double itemsPerSecond;
+    private Instant finishedAt;
+}
@@ -0,0 +1,21 @@
+package com.insurance.policyservice.dto;
+
+import com.insurance.policyservice.model.RenewalCheckpoint;
+import com.insurance.policyservice.model.RenewalJob;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RenewalJobReport {
+    private RenewalJob job;
+    private Long renewed;
+    private Long failed;
+    private List<RenewalCheckpoint> partitions;
+    // Most recent chunks since this instance started, oldest first
+    private List<RenewalChunkDto> recentChunks;
+}
@@ -0,0 +1,15 @@
+package com.insurance.policyservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Moves buckets {@code fromBucket} to {@code toBucket}, inclusive, to {@code targetShard}. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShardMoveRequest {
+    private Integer fromBucket;
+    private Integer toBucket;
+    private Integer targetShard;
+}
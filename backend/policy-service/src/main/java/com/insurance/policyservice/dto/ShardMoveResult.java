@@ -0,0 +1,16 @@
+package com.insurance.policyservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShardMoveResult {
+    private Integer targetShard;
+    // Buckets that changed shard; those already on the target only had leftovers cleared
+    private Integer bucketsMoved;
+    private Long policiesCopied;
+    private Long claimsCopied;
+}
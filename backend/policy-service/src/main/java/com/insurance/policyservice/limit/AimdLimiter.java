@@ -0,0 +1,65 @@
+package com.insurance.policyservice.limit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Additive-increase, multiplicative-decrease concurrency limit. A request
+ * that completes within the latency target raises the limit by
+ * {@code 1/limit}, i.e. by about one per limit's worth of requests, and
+ * only while at least half the limit is in use. A slow or failed request
+ * cuts the limit by the backoff ratio. Requests over the limit are refused
+ * rather than queued, so excess load is shed before it adds latency.
+ */
+public class AimdLimiter {
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetNanos;
+    private final double backoffRatio;
+
+    // Guarded by this
+    private double limit;
+    private int inFlight;
+
+    public AimdLimiter(int initialLimit, int minLimit, int maxLimit, long targetLatencyMillis, double backoffRatio) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit || backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Need 1 <= min <= initial <= max and a backoff ratio between 0 and 1");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetNanos = TimeUnit.MILLISECONDS.toNanos(targetLatencyMillis);
+        this.backoffRatio = backoffRatio;
+        this.limit = initialLimit;
+    }
+
+    /** Takes a slot, or returns false when the limit is reached. */
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    /** Returns a slot and adjusts the limit from the request's latency and outcome. */
+    public synchronized void release(long latencyNanos, boolean failed) {
+        inFlight--;
+        if (failed || latencyNanos > targetNanos) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+        } else if (inFlight * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+    }
+
+    /** Returns a slot without a sample, e.g. for a request that went async. */
+    public synchronized void releaseWithoutSample() {
+        inFlight--;
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+}
@@ -0,0 +1,154 @@
+package com.insurance.policyservice.limit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Adaptive concurrency limits for the policy and claim APIs. Fan-out
+ * endpoints, which join policies with customer-service data, have their own
+ * {@link AimdLimiter} so they cannot starve cheap reads and writes.
+ * A request over its group's limit gets 503 with Retry-After at once.
+ *
+ * Only latency and timeouts move the limits. Error statuses are sampled
+ * for their latency alone, and 503s shed further in (e.g. a full intake
+ * queue) are not sampled, so load shedding does not shrink the limit.
+ *
+ * Requests that go async (long-polls) give their slot back when the
+ * request thread is released and are not sampled.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+    static final String DEFAULT_GROUP = "default";
+    static final String FAN_OUT_GROUP = "fan-out";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${insurance.limits.enabled:true}")
+    private boolean enabled;
+
+    @Value("${insurance.limits.paths:/api/policies,/api/claims}")
+    private List<String> paths;
+
+    @Value("${insurance.limits.fan-out-paths:/api/policies/all-with-customers,/api/policies/with-customer/}")
+    private List<String> fanOutPaths;
+
+    @Value("${insurance.limits.backoff-ratio:0.9}")
+    private double backoffRatio;
+
+    @Value("${insurance.limits.retry-after-seconds:1}")
+    private int retryAfterSeconds;
+
+    @Value("${insurance.limits.default.initial:50}")
+    private int defaultInitial;
+
+    @Value("${insurance.limits.default.min:10}")
+    private int defaultMin;
+
+    @Value("${insurance.limits.default.max:500}")
+    private int defaultMax;
+
+    @Value("${insurance.limits.default.target-latency-ms:250}")
+    private long defaultTargetMs;
+
+    @Value("${insurance.limits.fan-out.initial:8}")
+    private int fanOutInitial;
+
+    @Value("${insurance.limits.fan-out.min:2}")
+    private int fanOutMin;
+
+    @Value("${insurance.limits.fan-out.max:64}")
+    private int fanOutMax;
+
+    @Value("${insurance.limits.fan-out.target-latency-ms:1000}")
+    private long fanOutTargetMs;
+
+    private AimdLimiter defaultLimiter;
+    private AimdLimiter fanOutLimiter;
+    private Counter defaultRejected;
+    private Counter fanOutRejected;
+
+    @PostConstruct
+    void init() {
+        defaultLimiter = new AimdLimiter(defaultInitial, defaultMin, defaultMax, defaultTargetMs, backoffRatio);
+        fanOutLimiter = new AimdLimiter(fanOutInitial, fanOutMin, fanOutMax, fanOutTargetMs, backoffRatio);
+        defaultRejected = register(DEFAULT_GROUP, defaultLimiter);
+        fanOutRejected = register(FAN_OUT_GROUP, fanOutLimiter);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || paths.stream().noneMatch(request.getRequestURI()::startsWith);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String uri = request.getRequestURI();
+        // Fan-out paths ending in a slash match as prefixes, the others exactly
+        boolean fanOut = fanOutPaths.stream().anyMatch(path -> path.endsWith("/") ? uri.startsWith(path) : uri.equals(path));
+        AimdLimiter limiter = fanOut ? fanOutLimiter : defaultLimiter;
+        if (!limiter.tryAcquire()) {
+            (fanOut ? fanOutRejected : defaultRejected).increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, Integer.toString(retryAfterSeconds));
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Concurrency limit reached");
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean timedOut = false;
+        try {
+            chain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            timedOut = isTimeout(e);
+            throw e;
+        } finally {
+            if (request.isAsyncStarted() || response.getStatus() == HttpStatus.SERVICE_UNAVAILABLE.value()) {
+                limiter.releaseWithoutSample();
+            } else {
+                limiter.release(System.nanoTime() - start, timedOut);
+            }
+        }
+    }
+
+    private static boolean isTimeout(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SocketTimeoutException || cause instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Counter register(String group, AimdLimiter limiter) {
+        Gauge.builder("http.server.concurrency.limit", limiter, AimdLimiter::getLimit)
+                .tag("group", group)
+                .register(meterRegistry);
+        Gauge.builder("http.server.concurrency.in.flight", limiter, AimdLimiter::getInFlight)
+                .tag("group", group)
+                .register(meterRegistry);
+        return Counter.builder("http.server.concurrency.rejected")
+                .tag("group", group)
+                .register(meterRegistry);
+    }
+}
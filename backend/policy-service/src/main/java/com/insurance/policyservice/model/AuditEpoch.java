@@ -0,0 +1,26 @@
+package com.insurance.policyservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Identifies the database the claim audit log belongs to. Written once when
+ * the database is first used; a database recreated from scratch gets a new
+ * epoch, and with it a new log.
+ */
+@Entity
+@Table(name = "audit_epochs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditEpoch {
+    public static final int ID = 1;
+
+    @Id
+    private Integer id;
+
+    @Column(nullable = false, length = 36)
+    private String epoch;
+}
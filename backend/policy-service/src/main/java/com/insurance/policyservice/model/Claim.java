@@ -1,5 +1,7 @@
 package com.insurance.policyservice.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.insurance.policyservice.shard.ShardedIdGenerator;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -7,18 +9,28 @@ import jakarta.validation.constraints.Positive;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.GenericGenerator;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "claims")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "claims")
+@Table(name = "claims", indexes = {
+        @Index(name = "idx_claims_date", columnList = "date"),
+        @Index(name = "idx_claims_flagged", columnList = "flaggedForReview")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Claim {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "sharded")
+    @GenericGenerator(name = "sharded", type = ShardedIdGenerator.class)
     private Long id;
 
     @NotNull
@@ -39,5 +51,17 @@ public class Claim {
 
     @NotNull
     private Long policyId;
+
+    // Set by fraud scoring when the claim is created
+    private Integer fraudScore;
+
+    private Boolean flaggedForReview = false;
+
+    // Bumped on every write; exposed as the ETag checked by If-Match on PATCH
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
 }
 
@@ -0,0 +1,5 @@
+package com.insurance.policyservice.model;
+
+public enum ClaimIntakeStatus {
+    QUEUED, CREATED, REJECTED, FAILED
+}
@@ -0,0 +1,31 @@
+package com.insurance.policyservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Claim totals per (month, status, policy type), maintained incrementally by
+ * {@code ClaimRollupService} so reporting never scans {@code claims}.
+ */
+@Entity
+@Table(name = "claim_rollups")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClaimRollup {
+    @EmbeddedId
+    private ClaimRollupId id;
+
+    @Column(nullable = false)
+    private Long claimCount;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal claimedTotal;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal settledTotal;
+}
@@ -0,0 +1,27 @@
+package com.insurance.policyservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClaimRollupId implements Serializable {
+    // First day of the claim month
+    @Column(name = "rollup_month", nullable = false)
+    private LocalDate month;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ClaimStatus status;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "policy_type", nullable = false, length = 20)
+    private PolicyType policyType;
+}
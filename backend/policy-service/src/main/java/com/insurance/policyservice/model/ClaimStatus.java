@@ -1,6 +1,25 @@
 package com.insurance.policyservice.model;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
 public enum ClaimStatus {
-    PENDING, APPROVED, REJECTED, SETTLED
-}
+    PENDING, APPROVED, REJECTED, SETTLED;
 
+    // PENDING -> APPROVED | REJECTED, APPROVED -> SETTLED | REJECTED; REJECTED and SETTLED are final
+    public boolean canTransitionTo(ClaimStatus target) {
+        return switch (this) {
+            case PENDING -> target == APPROVED || target == REJECTED;
+            case APPROVED -> target == SETTLED || target == REJECTED;
+            case REJECTED, SETTLED -> false;
+        };
+    }
+
+    /** Statuses a claim may move to {@code target} from. */
+    public static List<ClaimStatus> sourcesOf(ClaimStatus target) {
+        return Arrays.stream(values())
+                .filter(status -> status.canTransitionTo(target))
+                .collect(Collectors.toList());
+    }
+}
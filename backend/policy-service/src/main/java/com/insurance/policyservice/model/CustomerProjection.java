@@ -0,0 +1,34 @@
+package com.insurance.policyservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Local read-optimized copy of the customer fields policy-service shows,
+ * kept current from customer-service's change feed.
+ */
+@Entity
+@Table(name = "customer_projection")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerProjection {
+    @Id
+    private Long id;
+
+    private String firstName;
+
+    private String lastName;
+
+    private String email;
+
+    private String address;
+
+    private String phone;
+
+    // Change feed sequence of the last change applied to this row
+    @Column(nullable = false)
+    private Long lastSeq;
+}
@@ -1,23 +1,37 @@
 package com.insurance.policyservice.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.insurance.policyservice.shard.ShardedIdGenerator;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.GenericGenerator;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "policies")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "policies")
+@Table(name = "policies", indexes = {
+        // "Active on date" lookups: equality on customer, then range on the validity period
+        @Index(name = "idx_policies_customer_period", columnList = "customerId, startDate, endDate"),
+        @Index(name = "idx_policies_period", columnList = "startDate, endDate"),
+        @Index(name = "idx_policies_end_date", columnList = "endDate")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Policy {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "sharded")
+    @GenericGenerator(name = "sharded", type = ShardedIdGenerator.class)
     private Long id;
 
     @Enumerated(EnumType.STRING)
@@ -36,5 +50,16 @@ public class Policy {
 
     @NotNull
     private Long customerId;
+
+    // Policy this one renewed; unique, so a policy is renewed at most once
+    @Column(unique = true)
+    private Long renewedFromId;
+
+    // Bumped on every write; exposed as the ETag checked by If-Match on PATCH
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
 }
 
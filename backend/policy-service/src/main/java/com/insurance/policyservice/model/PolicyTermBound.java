@@ -0,0 +1,26 @@
+package com.insurance.policyservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Upper bound on the term of any policy stored in this database, so every
+ * instance bounds its active-on-date scans the same way. Only ever widened,
+ * in the transaction that writes the longer policy.
+ */
+@Entity
+@Table(name = "policy_term_bounds")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PolicyTermBound {
+    public static final int ID = 1;
+
+    @Id
+    private Integer id;
+
+    @Column(nullable = false)
+    private Long maxTermDays;
+}
@@ -0,0 +1,29 @@
+package com.insurance.policyservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Position of a projection in its upstream change feed, committed together
+ * with the rows it covers so a restart resumes where it left off.
+ */
+@Entity
+@Table(name = "projection_checkpoints")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectionCheckpoint {
+    @Id
+    @Column(length = 50)
+    private String name;
+
+    @Column(nullable = false)
+    private Long lastSeq;
+
+    // Last time the projection was confirmed to be caught up with the feed head
+    private Instant caughtUpAt;
+}
@@ -0,0 +1,45 @@
+package com.insurance.policyservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Progress of one partition of a {@link RenewalJob}. Updated in the same
+ * transaction as the renewals it counts, so a resumed job continues after
+ * {@code lastPolicyId} without renewing anything twice.
+ */
+@Entity
+@Table(name = "renewal_checkpoints",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"jobId", "partitionIndex"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RenewalCheckpoint {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long jobId;
+
+    @Column(nullable = false)
+    private Integer partitionIndex;
+
+    @Column(nullable = false)
+    private Long lastPolicyId;
+
+    @Column(nullable = false)
+    private Long renewed;
+
+    @Column(nullable = false)
+    private Long failed;
+
+    @Column(nullable = false)
+    private boolean completed;
+
+    private Instant updatedAt;
+}
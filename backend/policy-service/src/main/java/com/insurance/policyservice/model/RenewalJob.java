@@ -0,0 +1,49 @@
+package com.insurance.policyservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * A renewal run over the policies whose end date falls in
+ * [windowStart, windowEnd]. Progress lives in its {@link RenewalCheckpoint}s.
+ */
+@Entity
+@Table(name = "renewal_jobs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RenewalJob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate windowStart;
+
+    @Column(nullable = false)
+    private LocalDate windowEnd;
+
+    // Highest policy id when the job started; renewals it creates are never picked up again
+    @Column(nullable = false)
+    private Long maxPolicyId;
+
+    @Column(nullable = false)
+    private Integer chunkSize;
+
+    @Column(nullable = false)
+    private Integer partitions;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private RenewalJobStatus status;
+
+    @Column(nullable = false)
+    private Instant startedAt;
+
+    private Instant finishedAt;
+}
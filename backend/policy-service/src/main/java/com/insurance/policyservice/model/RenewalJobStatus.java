@@ -0,0 +1,5 @@
+package com.insurance.policyservice.model;
+
+public enum RenewalJobStatus {
+    RUNNING, COMPLETED, FAILED
+}
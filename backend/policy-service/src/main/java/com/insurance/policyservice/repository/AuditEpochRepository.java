@@ -0,0 +1,9 @@
+package com.insurance.policyservice.repository;
+
+import com.insurance.policyservice.model.AuditEpoch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AuditEpochRepository extends JpaRepository<AuditEpoch, Integer> {
+}
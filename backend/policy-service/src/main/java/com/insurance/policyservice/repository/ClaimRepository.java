@@ -1,13 +1,33 @@
 package com.insurance.policyservice.repository;
 
 import com.insurance.policyservice.model.Claim;
+import com.insurance.policyservice.model.ClaimStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ClaimRepository extends JpaRepository<Claim, Long> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Claim> findByPolicyId(Long policyId);
+
+    List<Claim> findByFlaggedForReviewTrueOrderByIdDesc();
+
+    List<Claim> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+    // Guarded set-based transition; as a bulk HQL update it also invalidates the claims cache regions
+    @Modifying
+    @Query("UPDATE Claim c SET c.status = :target, c.version = c.version + 1 WHERE c.id IN :ids AND c.status IN :sources")
+    int transitionAll(@Param("ids") Collection<Long> ids, @Param("sources") Collection<ClaimStatus> sources,
+                      @Param("target") ClaimStatus target);
 }
 
@@ -0,0 +1,18 @@
+package com.insurance.policyservice.repository;
+
+import com.insurance.policyservice.model.ClaimRollup;
+import com.insurance.policyservice.model.ClaimRollupId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ClaimRollupRepository extends JpaRepository<ClaimRollup, ClaimRollupId> {
+    @Query("SELECT r FROM ClaimRollup r WHERE r.id.month >= :from AND r.id.month <= :to "
+            + "ORDER BY r.id.month, r.id.policyType, r.id.status")
+    List<ClaimRollup> findByMonthBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
@@ -0,0 +1,9 @@
+package com.insurance.policyservice.repository;
+
+import com.insurance.policyservice.model.CustomerProjection;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CustomerProjectionRepository extends JpaRepository<CustomerProjection, Long> {
+}
@@ -1,13 +1,70 @@
 package com.insurance.policyservice.repository;
 
 import com.insurance.policyservice.model.Policy;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface PolicyRepository extends JpaRepository<Policy, Long> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Policy> findByCustomerId(Long customerId);
+
+    @Query("SELECT p FROM Policy p WHERE p.customerId = :customerId "
+            + "AND p.startDate <= :date AND p.endDate >= :date ORDER BY p.id")
+    List<Policy> findActiveByCustomerId(@Param("customerId") Long customerId, @Param("date") LocalDate date);
+
+    // earliestStart = date minus the longest policy term, which bounds the start_date range scan
+    @Query("SELECT p FROM Policy p WHERE p.startDate BETWEEN :earliestStart AND :date "
+            + "AND p.endDate >= :date ORDER BY p.id")
+    List<Policy> findActiveOn(@Param("date") LocalDate date, @Param("earliestStart") LocalDate earliestStart);
+
+    // Row-locks the policy so its period cannot change until the caller's transaction ends
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Policy p WHERE p.id = :id AND p.startDate <= :date AND p.endDate >= :date")
+    Optional<Policy> findCoveringForUpdate(@Param("id") Long id, @Param("date") LocalDate date);
+
+    // Row-locks a group of policies in id order, so concurrent lockers cannot deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Policy p WHERE p.id IN :ids ORDER BY p.id")
+    List<Policy> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    // Next chunk of one renewal partition, locked until the chunk's transaction ends
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Policy p WHERE p.endDate BETWEEN :from AND :to "
+            + "AND MOD(p.id, :partitions) = :partition AND p.id > :afterId AND p.id <= :maxId "
+            + "AND NOT EXISTS (SELECT r.id FROM Policy r WHERE r.renewedFromId = p.id) ORDER BY p.id")
+    List<Policy> findExpiringChunk(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                   @Param("partitions") long partitions, @Param("partition") long partition,
+                                   @Param("afterId") Long afterId, @Param("maxId") Long maxId, Pageable pageable);
+
+    List<Policy> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+    @Query("SELECT COALESCE(MAX(p.id), 0) FROM Policy p")
+    Long findMaxId();
+
+    @Query(value = "SELECT MAX(DATEDIFF('DAY', start_date, end_date)) FROM policies", nativeQuery = true)
+    Long findMaxTermDays();
+
+    // Each row is {Policy, CustomerProjection or null}
+    @Query("SELECT p, c FROM Policy p LEFT JOIN CustomerProjection c ON c.id = p.customerId")
+    List<Object[]> findAllWithCustomerProjection();
+
+    // Keyset page of {id, type, startDate, endDate, coverageAmount} rows for the portfolio snapshot
+    @Query("SELECT p.id, p.type, p.startDate, p.endDate, p.coverageAmount FROM Policy p "
+            + "WHERE p.id > :afterId ORDER BY p.id")
+    List<Object[]> findColumnsAfter(@Param("afterId") Long afterId, Pageable pageable);
 }
 
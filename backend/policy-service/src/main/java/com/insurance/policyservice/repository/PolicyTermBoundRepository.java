@@ -0,0 +1,21 @@
+package com.insurance.policyservice.repository;
+
+import com.insurance.policyservice.model.PolicyTermBound;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface PolicyTermBoundRepository extends JpaRepository<PolicyTermBound, Integer> {
+    // Creates the row on first use; otherwise only touches it when the bound grows
+    @Modifying
+    @Transactional
+    @Query(value = "MERGE INTO policy_term_bounds b USING (VALUES (1, CAST(:days AS BIGINT))) d(id, days) "
+            + "ON b.id = d.id "
+            + "WHEN MATCHED AND b.max_term_days < d.days THEN UPDATE SET max_term_days = d.days "
+            + "WHEN NOT MATCHED THEN INSERT (id, max_term_days) VALUES (d.id, d.days)", nativeQuery = true)
+    int widen(@Param("days") long days);
+}
@@ -0,0 +1,12 @@
+package com.insurance.policyservice.repository;
+
+import com.insurance.policyservice.model.RenewalCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface RenewalCheckpointRepository extends JpaRepository<RenewalCheckpoint, Long> {
+    List<RenewalCheckpoint> findByJobIdOrderByPartitionIndex(Long jobId);
+}
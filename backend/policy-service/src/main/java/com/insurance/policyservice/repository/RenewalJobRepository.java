@@ -0,0 +1,13 @@
+package com.insurance.policyservice.repository;
+
+import com.insurance.policyservice.model.RenewalJob;
+import com.insurance.policyservice.model.RenewalJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface RenewalJobRepository extends JpaRepository<RenewalJob, Long> {
+    List<RenewalJob> findByStatus(RenewalJobStatus status);
+}
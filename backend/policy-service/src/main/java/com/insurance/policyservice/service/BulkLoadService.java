@@ -0,0 +1,53 @@
+package com.insurance.policyservice.service;
+
+import com.insurance.policyservice.shard.ShardRouter;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Catches up the state that service writes keep current as they go, for rows
+ * loaded straight into the tables (e.g. by datagen): the second-level and
+ * query caches, the monthly rollups, the portfolio snapshot, the policy term
+ * bound and the fraud windows.
+ */
+@Service
+public class BulkLoadService {
+    private static final Logger logger = LoggerFactory.getLogger(BulkLoadService.class);
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ClaimRollupService claimRollupService;
+
+    @Autowired
+    private PortfolioService portfolioService;
+
+    @Autowired
+    private PolicyService policyService;
+
+    @Autowired
+    private FraudScoringService fraudScoringService;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    public void refreshAfterBulkLoad() {
+        // Bulk loads write explicit sequential ids to one database
+        if (shardRouter.isEnabled()) {
+            throw new IllegalStateException("Bulk loads are not supported with sharding enabled");
+        }
+        long start = System.nanoTime();
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        claimRollupService.rebuild();
+        int policies = portfolioService.rebuild();
+        policyService.refreshMaxPolicyTerm();
+        fraudScoringService.reload();
+        logger.info("Refreshed derived state for {} policies after a bulk load in {} ms", policies,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+}
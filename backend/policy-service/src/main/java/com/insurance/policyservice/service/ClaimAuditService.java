@@ -0,0 +1,205 @@
+package com.insurance.policyservice.service;
+
+import com.insurance.policyservice.audit.ClaimAuditLog;
+import com.insurance.policyservice.audit.ClaimAuditRecord;
+import com.insurance.policyservice.audit.FsyncPolicy;
+import com.insurance.policyservice.dto.ClaimStatusChangeDto;
+import com.insurance.policyservice.model.AuditEpoch;
+import com.insurance.policyservice.model.Claim;
+import com.insurance.policyservice.model.ClaimStatus;
+import com.insurance.policyservice.repository.AuditEpochRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.FileSystemUtils;
+
+import java.math.BigDecimal;
+import java.io.IOException;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Records every claim status transition in the {@link ClaimAuditLog}.
+ * Transitions are appended, and under fsync ALWAYS forced to disk, as the
+ * claim's transaction is about to commit and after its writes are flushed:
+ * an append that fails rolls the change back, so a committed transition is
+ * never missing from the history. A commit the database refuses after the
+ * append leaves a record of a transition that did not happen. The log is
+ * kept under the database's audit epoch, so a database recreated from
+ * scratch (e.g. the in-memory one on restart) never inherits history for the
+ * ids it reuses; the logs of earlier epochs are deleted at startup.
+ * <p>
+ * The log is local to each instance: history lists the transitions written
+ * by the instance serving the request, so with more than one instance a
+ * claim's full history is spread across their logs.
+ */
+@Service
+public class ClaimAuditService {
+    private static final Logger logger = LoggerFactory.getLogger(ClaimAuditService.class);
+
+    @Autowired
+    private AuditEpochRepository auditEpochRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${insurance.audit.directory:${java.io.tmpdir}/claim-audit}")
+    private String directory;
+
+    @Value("${insurance.audit.segment-bytes:67108864}")
+    private int segmentBytes;
+
+    @Value("${insurance.audit.fsync:ALWAYS}")
+    private FsyncPolicy fsyncPolicy;
+
+    @Value("${insurance.audit.fsync-interval-ms:50}")
+    private long fsyncIntervalMs;
+
+    // 0 keeps every segment
+    @Value("${insurance.audit.retention-days:0}")
+    private int retentionDays;
+
+    private ClaimAuditLog auditLog;
+    private Timer appendTimer;
+
+    @PostConstruct
+    void init() {
+        String epoch = databaseEpoch();
+        deleteOtherEpochs(epoch);
+        Path epochDirectory = Paths.get(directory, epoch);
+        auditLog = new ClaimAuditLog(epochDirectory, segmentBytes, fsyncPolicy, fsyncIntervalMs);
+        appendTimer = meterRegistry.timer("claims.audit.append");
+        Gauge.builder("claims.audit.segments", auditLog, ClaimAuditLog::segmentCount).register(meterRegistry);
+        logger.info("Opened claim audit log in {} at sequence {} (fsync {})", epochDirectory, auditLog.lastSequence(),
+                fsyncPolicy);
+    }
+
+    // Kept on shard 0; the shards are created, and recreated, together
+    private String databaseEpoch() {
+        return auditEpochRepository.findById(AuditEpoch.ID).map(AuditEpoch::getEpoch).orElseGet(() -> {
+            try {
+                return auditEpochRepository.saveAndFlush(new AuditEpoch(AuditEpoch.ID, UUID.randomUUID().toString()))
+                        .getEpoch();
+            } catch (DataIntegrityViolationException e) {
+                // Another instance created it first
+                return auditEpochRepository.findById(AuditEpoch.ID).orElseThrow().getEpoch();
+            }
+        });
+    }
+
+    // Their database is gone, so their history describes claims that no longer exist
+    private void deleteOtherEpochs(String epoch) {
+        Path root = Paths.get(directory);
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        try (Stream<Path> epochs = Files.list(root)) {
+            // A directory still locked belongs to another instance, or test context, sharing the root
+            for (Path stale : epochs.filter(path -> Files.isDirectory(path) && !path.getFileName().toString().equals(epoch)
+                    && !ClaimAuditLog.inUse(path)).toList()) {
+                FileSystemUtils.deleteRecursively(stale);
+                logger.info("Deleted claim audit log of earlier database epoch {}", stale);
+            }
+        } catch (IOException e) {
+            logger.warn("Could not delete claim audit logs of earlier database epochs in {}: {}", root, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        auditLog.close();
+    }
+
+    /** Logs the claim's move from {@code from} (null on creation) to its current status, before commit. */
+    public void statusChanged(Claim claim, ClaimStatus from) {
+        if (from == claim.getStatus()) {
+            return;
+        }
+        long claimId = claim.getId();
+        ClaimStatus to = claim.getStatus();
+        long settledCents = toCents(claim.getSettledAmount());
+        beforeCommit(() -> {
+            long start = System.nanoTime();
+            auditLog.append(claimId, from, to, settledCents);
+            appendTimer.record(Duration.ofNanos(System.nanoTime() - start));
+        });
+    }
+
+    /** Logs the same transition for many claims in one append, before commit; arrays are indexed alike. */
+    public void statusesChanged(long[] claimIds, ClaimStatus[] from, ClaimStatus to, long[] settledCents) {
+        if (claimIds.length == 0) {
+            return;
+        }
+        beforeCommit(() -> {
+            long start = System.nanoTime();
+            auditLog.appendAll(claimIds, from, to, settledCents);
+            appendTimer.record(Duration.ofNanos(System.nanoTime() - start));
+        });
+    }
+
+    public List<ClaimStatusChangeDto> getHistory(Long claimId) {
+        return auditLog.replay(claimId).stream()
+                .map(ClaimAuditService::toDto)
+                .collect(Collectors.toList());
+    }
+
+    @Scheduled(fixedDelayString = "${insurance.audit.retention-check-interval-ms:3600000}")
+    public void applyRetention() {
+        if (retentionDays <= 0) {
+            return;
+        }
+        int deleted = auditLog.deleteSegmentsOlderThan(
+                Instant.now().minus(Duration.ofDays(retentionDays)).toEpochMilli());
+        if (deleted > 0) {
+            logger.info("Deleted {} claim audit segments past the {} day retention", deleted, retentionDays);
+        }
+    }
+
+    private void beforeCommit(Runnable append) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    // Version checks and constraints fail here, before the record is written
+                    entityManager.flush();
+                    append.run();
+                }
+            });
+        } else {
+            append.run();
+        }
+    }
+
+    private static ClaimStatusChangeDto toDto(ClaimAuditRecord record) {
+        return new ClaimStatusChangeDto(record.sequence(), record.claimId(), record.fromStatus(), record.toStatus(),
+                BigDecimal.valueOf(record.settledCents(), 2), Instant.ofEpochMilli(record.timestampMillis()));
+    }
+
+    public static long toCents(BigDecimal amount) {
+        return amount == null ? 0 : amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+}
@@ -0,0 +1,90 @@
+package com.insurance.policyservice.service;
+
+/**
+ * Scores a claim from 0 to 100 using sliding-window signals kept per policy
+ * and per customer, with the window counted in claim-date days:
+ * <ul>
+ *   <li>claim frequency on the policy and on the customer,</li>
+ *   <li>claimed-amount velocity on the policy, as a share of its coverage,</li>
+ *   <li>this claim's amount as a share of the policy's coverage.</li>
+ * </ul>
+ * Each signal is capped at 1 and the weighted sum is scaled to 100. Scoring
+ * records the claim and reads the windows under one stripe lock, so a burst
+ * of concurrent claims on a policy sees itself.
+ */
+public class ClaimFraudScorer {
+    // Extra claims in the window at which the frequency signals saturate
+    private static final double POLICY_FREQUENCY_CAP = 3;
+    private static final double CUSTOMER_FREQUENCY_CAP = 5;
+
+    private static final double POLICY_FREQUENCY_WEIGHT = 0.25;
+    private static final double CUSTOMER_FREQUENCY_WEIGHT = 0.20;
+    private static final double VELOCITY_WEIGHT = 0.30;
+    private static final double CLAIM_RATIO_WEIGHT = 0.25;
+
+    private final int bucketDays;
+    private final SlidingWindowCounters byPolicy;
+    private final SlidingWindowCounters byCustomer;
+
+    /**
+     * @param bucketDays width of one time bucket in days
+     * @param buckets    buckets per window, so the window spans {@code bucketDays * buckets} days
+     * @param stripes    lock stripes per counter table, a power of two
+     */
+    public ClaimFraudScorer(int bucketDays, int buckets, int stripes, int expectedKeys) {
+        this.bucketDays = bucketDays;
+        this.byPolicy = new SlidingWindowCounters(buckets, stripes, expectedKeys / stripes);
+        this.byCustomer = new SlidingWindowCounters(buckets, stripes, expectedKeys / stripes);
+    }
+
+    /** Records the claim and returns its score. */
+    public int score(long policyId, long customerId, long epochDay, long claimedCents, long coverageCents) {
+        int bucket = bucket(epochDay);
+        long[] totals = new long[2];
+        byPolicy.addAndSum(policyId, bucket, claimedCents, totals);
+        long policyClaims = totals[0];
+        long policyAmount = totals[1];
+        byCustomer.addAndSum(customerId, bucket, claimedCents, totals);
+        long customerClaims = totals[0];
+
+        double coverage = Math.max(1, coverageCents);
+        double score = POLICY_FREQUENCY_WEIGHT * Math.min(1, (policyClaims - 1) / POLICY_FREQUENCY_CAP)
+                + CUSTOMER_FREQUENCY_WEIGHT * Math.min(1, (customerClaims - 1) / CUSTOMER_FREQUENCY_CAP)
+                + VELOCITY_WEIGHT * Math.min(1, policyAmount / coverage)
+                + CLAIM_RATIO_WEIGHT * Math.min(1, claimedCents / coverage);
+        return (int) Math.round(100 * score);
+    }
+
+    /** Records a historical claim without scoring it, e.g. when warming up after a restart. */
+    public void record(long policyId, long customerId, long epochDay, long claimedCents) {
+        int bucket = bucket(epochDay);
+        long[] totals = new long[2];
+        byPolicy.addAndSum(policyId, bucket, claimedCents, totals);
+        byCustomer.addAndSum(customerId, bucket, claimedCents, totals);
+    }
+
+    /** Takes back a claim recorded by {@link #score} or {@link #record}, e.g. one rolled back or deleted. */
+    public void forget(long policyId, long customerId, long epochDay, long claimedCents) {
+        int bucket = bucket(epochDay);
+        byPolicy.remove(policyId, bucket, claimedCents);
+        byCustomer.remove(customerId, bucket, claimedCents);
+    }
+
+    /** Forgets policies and customers with no claims in the window ending on {@code epochDay}. */
+    public int expire(long epochDay) {
+        int bucket = bucket(epochDay);
+        return byPolicy.sweep(bucket) + byCustomer.sweep(bucket);
+    }
+
+    public int keys() {
+        return byPolicy.size() + byCustomer.size();
+    }
+
+    public long memoryBytes() {
+        return byPolicy.memoryBytes() + byCustomer.memoryBytes();
+    }
+
+    private int bucket(long epochDay) {
+        return (int) Math.floorDiv(epochDay, bucketDays);
+    }
+}
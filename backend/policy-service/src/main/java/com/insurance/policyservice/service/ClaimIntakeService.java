@@ -0,0 +1,267 @@
+package com.insurance.policyservice.service;
+
+import com.insurance.policyservice.dto.ClaimIntakeDto;
+import com.insurance.policyservice.model.Claim;
+import com.insurance.policyservice.model.ClaimIntakeStatus;
+import com.insurance.policyservice.shard.ShardIds;
+import com.insurance.policyservice.shard.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Asynchronous claim intake. Submitted claims go into a bounded queue and
+ * the caller gets a tracking id straight away; when the queue is full the
+ * claim is refused rather than queued. Workers drain the queue in batches
+ * and create each batch in one transaction that locks every policy once;
+ * with sharding a batch is split into one transaction per shard. A batch
+ * that fails is retried one claim per transaction, so one bad claim cannot
+ * sink the others; its fraud window updates are undone with the rolled-back
+ * transaction, so the retried claims are only counted once.
+ *
+ * Outcomes are kept in memory for {@code retention-minutes} after they
+ * complete, and queued claims are lost if the instance stops.
+ */
+@Service
+public class ClaimIntakeService {
+    private static final Logger logger = LoggerFactory.getLogger(ClaimIntakeService.class);
+
+    private static final class Ticket {
+        final String trackingId = UUID.randomUUID().toString();
+        final Instant submittedAt = Instant.now();
+        final long submittedNanos = System.nanoTime();
+        final Claim claim;
+        final CompletableFuture<ClaimIntakeDto> outcome = new CompletableFuture<>();
+
+        Ticket(Claim claim) {
+            this.claim = claim;
+        }
+
+        ClaimIntakeDto queued() {
+            return new ClaimIntakeDto(trackingId, ClaimIntakeStatus.QUEUED, null, null, submittedAt, null);
+        }
+
+        ClaimIntakeDto current() {
+            return outcome.getNow(queued());
+        }
+    }
+
+    @Autowired
+    private ClaimService claimService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${insurance.claims.intake.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${insurance.claims.intake.batch-size:100}")
+    private int batchSize;
+
+    @Value("${insurance.claims.intake.workers:2}")
+    private int workerCount;
+
+    @Value("${insurance.claims.intake.retention-minutes:15}")
+    private long retentionMinutes;
+
+    private BlockingQueue<Ticket> queue;
+    private final Map<String, Ticket> tickets = new ConcurrentHashMap<>();
+    private ExecutorService workers;
+    private volatile boolean running;
+    private TransactionTemplate transactionTemplate;
+
+    private DistributionSummary batchSizes;
+    private Timer latency;
+    private Counter shed;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        Gauge.builder("claims.intake.queue.depth", queue, BlockingQueue::size).register(meterRegistry);
+        Gauge.builder("claims.intake.tracked", tickets, Map::size).register(meterRegistry);
+        batchSizes = DistributionSummary.builder("claims.intake.batch.size").register(meterRegistry);
+        latency = Timer.builder("claims.intake.latency")
+                .description("Time from submission to the claim's outcome")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        shed = meterRegistry.counter("claims.intake.shed");
+
+        running = true;
+        AtomicInteger threads = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "claim-intake-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < workerCount; i++) {
+            workers.execute(this::work);
+        }
+    }
+
+    /** Queues the claim and returns its tracking status; throws IllegalStateException when the queue is full. */
+    public ClaimIntakeDto submit(Claim claim) {
+        Ticket ticket = new Ticket(claim);
+        tickets.put(ticket.trackingId, ticket);
+        if (!running || !queue.offer(ticket)) {
+            tickets.remove(ticket.trackingId);
+            shed.increment();
+            throw new IllegalStateException("Claim intake queue is full");
+        }
+        return ticket.queued();
+    }
+
+    /**
+     * The claim's outcome once it is known, or its queued status after
+     * {@code waitMs}; throws RuntimeException for an unknown tracking id.
+     */
+    public CompletableFuture<ClaimIntakeDto> poll(String trackingId, long waitMs) {
+        Ticket ticket = tickets.get(trackingId);
+        if (ticket == null) {
+            throw new RuntimeException("Claim intake not found with tracking id: " + trackingId);
+        }
+        if (ticket.outcome.isDone() || waitMs <= 0) {
+            return CompletableFuture.completedFuture(ticket.current());
+        }
+        return ticket.outcome.copy().completeOnTimeout(ticket.queued(), waitMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Scheduled(fixedDelayString = "${insurance.claims.intake.purge-interval-ms:60000}")
+    public void purge() {
+        Instant cutoff = Instant.now().minus(Duration.ofMinutes(retentionMinutes));
+        tickets.values().removeIf(ticket -> {
+            ClaimIntakeDto dto = ticket.outcome.getNow(null);
+            return dto != null && dto.getCompletedAt().isBefore(cutoff);
+        });
+    }
+
+    private void work() {
+        List<Ticket> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                batch.add(queue.take());
+                queue.drainTo(batch, batchSize - 1);
+                process(batch);
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Claim intake worker failed on a batch of {}", batch.size(), e);
+                batch.forEach(ticket -> finish(ticket, ClaimIntakeStatus.FAILED, e.getMessage()));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void process(List<Ticket> batch) {
+        batchSizes.record(batch.size());
+        if (shardRouter.shardCount() == 1) {
+            processOnShard(batch);
+            return;
+        }
+        batch.stream()
+                .collect(Collectors.groupingBy(ticket -> shardRouter.shardOfBucket(bucketOf(ticket))))
+                .values()
+                .forEach(this::processOnShard);
+    }
+
+    private void processOnShard(List<Ticket> batch) {
+        Set<Integer> buckets = batch.stream().map(ClaimIntakeService::bucketOf).collect(Collectors.toSet());
+        List<Claim> claims = batch.stream().map(ticket -> ticket.claim).collect(Collectors.toList());
+        List<String> errors;
+        try {
+            errors = shardRouter.call(buckets, true, () -> transactionTemplate.execute(status -> claimService.createClaims(claims)));
+        } catch (RuntimeException e) {
+            logger.warn("Claim intake batch of {} failed, retrying one claim per transaction: {}", batch.size(), e.getMessage());
+            batch.forEach(this::processOne);
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            finish(batch.get(i), errors.get(i));
+        }
+    }
+
+    private void processOne(Ticket ticket) {
+        // Undo what the rolled-back batch assigned, so the claim is inserted afresh
+        ticket.claim.setId(null);
+        ticket.claim.setVersion(null);
+        try {
+            finish(ticket, shardRouter.call(bucketOf(ticket), true,
+                    () -> transactionTemplate.execute(status -> claimService.createClaims(List.of(ticket.claim)))).get(0));
+        } catch (RuntimeException e) {
+            logger.warn("Claim intake {} failed: {}", ticket.trackingId, e.getMessage());
+            finish(ticket, ClaimIntakeStatus.FAILED, e.getMessage());
+        }
+    }
+
+    private static int bucketOf(Ticket ticket) {
+        return ShardIds.bucketOfId(ticket.claim.getPolicyId());
+    }
+
+    private void finish(Ticket ticket, String error) {
+        if (error == null) {
+            complete(ticket, new ClaimIntakeDto(ticket.trackingId, ClaimIntakeStatus.CREATED, ticket.claim.getId(), null,
+                    ticket.submittedAt, Instant.now()));
+        } else {
+            finish(ticket, ClaimIntakeStatus.REJECTED, error);
+        }
+    }
+
+    private void finish(Ticket ticket, ClaimIntakeStatus status, String error) {
+        complete(ticket, new ClaimIntakeDto(ticket.trackingId, status, null, error, ticket.submittedAt, Instant.now()));
+    }
+
+    private void complete(Ticket ticket, ClaimIntakeDto dto) {
+        if (ticket.outcome.complete(dto)) {
+            latency.record(System.nanoTime() - ticket.submittedNanos, TimeUnit.NANOSECONDS);
+            meterRegistry.counter("claims.intake.items", "result", dto.getStatus().name().toLowerCase()).increment();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        running = false;
+        workers.shutdownNow();
+        List<Ticket> abandoned = new ArrayList<>();
+        queue.drainTo(abandoned);
+        abandoned.forEach(ticket -> finish(ticket, ClaimIntakeStatus.FAILED, "Shutting down"));
+        if (!abandoned.isEmpty()) {
+            logger.warn("Abandoned {} queued claims on shutdown", abandoned.size());
+        }
+    }
+}
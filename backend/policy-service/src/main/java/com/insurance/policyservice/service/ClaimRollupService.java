@@ -0,0 +1,298 @@
+package com.insurance.policyservice.service;
+
+import com.insurance.policyservice.dto.ClaimRollupDto;
+import com.insurance.policyservice.model.Claim;
+import com.insurance.policyservice.model.ClaimRollup;
+import com.insurance.policyservice.model.ClaimStatus;
+import com.insurance.policyservice.model.PolicyType;
+import com.insurance.policyservice.repository.ClaimRepository;
+import com.insurance.policyservice.repository.ClaimRollupRepository;
+import com.insurance.policyservice.shard.ShardRouter;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps {@code claim_rollups} in step with claim writes. Every change is
+ * applied as a delta (remove the claim's old contribution, add the new one)
+ * inside the writer's transaction, so the rollups commit or roll back with
+ * the claim itself. With sharding each shard holds the rollups of its own
+ * claims and reads add them up.
+ */
+@Service
+public class ClaimRollupService {
+    private static final Logger logger = LoggerFactory.getLogger(ClaimRollupService.class);
+
+    private static final String MERGE_DELTA_ACTIONS = "ON r.rollup_month = d.rollup_month AND r.status = d.status "
+            + "AND r.policy_type = d.policy_type "
+            + "WHEN MATCHED THEN UPDATE SET claim_count = r.claim_count + d.claim_count, "
+            + "claimed_total = r.claimed_total + d.claimed_total, settled_total = r.settled_total + d.settled_total "
+            + "WHEN NOT MATCHED THEN INSERT (rollup_month, status, policy_type, claim_count, claimed_total, settled_total) "
+            + "VALUES (d.rollup_month, d.status, d.policy_type, d.claim_count, d.claimed_total, d.settled_total)";
+
+    private static final String APPLY_DELTA_SQL = "MERGE INTO claim_rollups r USING (VALUES "
+            + "(CAST(? AS DATE), CAST(? AS VARCHAR(20)), CAST(? AS VARCHAR(20)), CAST(? AS BIGINT), "
+            + "CAST(? AS NUMERIC(19, 2)), CAST(? AS NUMERIC(19, 2)))) "
+            + "d(rollup_month, status, policy_type, claim_count, claimed_total, settled_total) "
+            + MERGE_DELTA_ACTIONS;
+
+    // One claim set's totals, grouped by month and policy type, added to (sign 1) or removed from (-1) a status
+    private static final String APPLY_SET_DELTA_SQL = "MERGE INTO claim_rollups r USING ("
+            + "SELECT CAST(DATE_TRUNC('MONTH', c.date) AS DATE) rollup_month, CAST(:status AS VARCHAR(20)) status, "
+            + "p.type policy_type, CAST(:sign AS BIGINT) * COUNT(*) claim_count, "
+            + "CAST(:sign AS BIGINT) * COALESCE(SUM(c.claimed_amount), 0) claimed_total, "
+            + "CAST(:sign AS BIGINT) * COALESCE(SUM(c.settled_amount), 0) settled_total "
+            + "FROM claims c JOIN policies p ON p.id = c.policy_id WHERE c.id IN (:ids) "
+            + "GROUP BY CAST(DATE_TRUNC('MONTH', c.date) AS DATE), p.type) d "
+            + MERGE_DELTA_ACTIONS;
+
+    private static final String REBUILD_MONTH_SQL = "INSERT INTO claim_rollups "
+            + "(rollup_month, status, policy_type, claim_count, claimed_total, settled_total) "
+            + "SELECT CAST(? AS DATE), c.status, p.type, COUNT(*), "
+            + "COALESCE(SUM(c.claimed_amount), 0), COALESCE(SUM(c.settled_amount), 0) "
+            + "FROM claims c JOIN policies p ON p.id = c.policy_id "
+            + "WHERE c.date >= ? AND c.date < ? GROUP BY c.status, p.type";
+
+    /** One claim's share of a rollup row. */
+    public record Contribution(LocalDate month, ClaimStatus status, PolicyType policyType,
+                               BigDecimal claimed, BigDecimal settled) {
+    }
+
+    @Autowired
+    private ClaimRollupRepository claimRollupRepository;
+
+    @Autowired
+    private ClaimRepository claimRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Value("${insurance.claim-rollups.backfill-parallelism:4}")
+    private int backfillParallelism;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public static Contribution contribution(Claim claim, PolicyType policyType) {
+        return new Contribution(claim.getDate().withDayOfMonth(1), claim.getStatus(), policyType,
+                zeroIfNull(claim.getClaimedAmount()), zeroIfNull(claim.getSettledAmount()));
+    }
+
+    /**
+     * Moves a claim's contribution from {@code before} to {@code after};
+     * either may be null for inserts and deletes.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void replace(Contribution before, Contribution after) {
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        if (before != null) {
+            apply(before, -1);
+        }
+        if (after != null) {
+            apply(after, 1);
+        }
+    }
+
+    /**
+     * Moves a set of claims from one status to another with two set-based
+     * statements, whatever the number of claims; amounts and dates are read
+     * from {@code claims}, which the caller must not change in between.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void statusMoved(Collection<Long> claimIds, ClaimStatus from, ClaimStatus to) {
+        if (claimIds.isEmpty() || from == to) {
+            return;
+        }
+        merge(() -> namedParameterJdbcTemplate.update(APPLY_SET_DELTA_SQL, new MapSqlParameterSource()
+                .addValue("ids", claimIds).addValue("status", from.name()).addValue("sign", -1)));
+        merge(() -> namedParameterJdbcTemplate.update(APPLY_SET_DELTA_SQL, new MapSqlParameterSource()
+                .addValue("ids", claimIds).addValue("status", to.name()).addValue("sign", 1)));
+    }
+
+    /** Re-files every claim of a policy whose type changed. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void policyTypeChanged(Long policyId, PolicyType oldType, PolicyType newType) {
+        for (Claim claim : claimRepository.findByPolicyId(policyId)) {
+            replace(contribution(claim, oldType), contribution(claim, newType));
+        }
+    }
+
+    /**
+     * Takes the claims of a deleted policy out of the rollups; they are left
+     * in {@code claims}, but the rebuild only counts claims with a policy.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void policyDeleted(List<Claim> claims, PolicyType type) {
+        for (Claim claim : claims) {
+            replace(contribution(claim, type), null);
+        }
+    }
+
+    public List<ClaimRollupDto> getMonthlyRollups(YearMonth from, YearMonth to) {
+        LocalDate start = from == null ? LocalDate.of(1900, 1, 1) : from.atDay(1);
+        LocalDate end = to == null ? LocalDate.of(9999, 12, 1) : to.atDay(1);
+        List<ClaimRollupDto> rollups = shardRouter.gather(shard -> claimRollupRepository.findByMonthBetween(start, end).stream()
+                .map(ClaimRollupService::toDto)
+                .collect(Collectors.toList()));
+        return shardRouter.shardCount() == 1 ? rollups : sumAcrossShards(rollups);
+    }
+
+    /**
+     * Rebuilds the rollups from {@code claims}, one transaction per month with
+     * months processed in parallel. A live claim write racing a month's rebuild
+     * waits on that month's rollup row locks, so its delta lands on top of the
+     * rebuilt totals rather than being lost.
+     *
+     * @return claims counted per rebuilt month
+     */
+    public Map<YearMonth, Long> rebuild() {
+        long start = System.nanoTime();
+        Map<YearMonth, Long> counted = new TreeMap<>();
+        shardRouter.forEachShard(shard -> rebuildShard(shard)
+                .forEach((month, claims) -> counted.merge(month, claims, Long::sum)));
+        logger.info("Rebuilt claim rollups for {} months ({} claims) in {} ms", counted.size(),
+                counted.values().stream().mapToLong(Long::longValue).sum(), (System.nanoTime() - start) / 1_000_000);
+        return counted;
+    }
+
+    private Map<YearMonth, Long> rebuildShard(int shard) {
+        LocalDate[] range = jdbcTemplate.queryForObject("SELECT MIN(date), MAX(date) FROM claims",
+                (rs, row) -> new LocalDate[]{rs.getObject(1, LocalDate.class), rs.getObject(2, LocalDate.class)});
+        if (range == null || range[0] == null) {
+            jdbcTemplate.update("DELETE FROM claim_rollups");
+            return Map.of();
+        }
+        YearMonth first = YearMonth.from(range[0]);
+        YearMonth last = YearMonth.from(range[1]);
+        jdbcTemplate.update("DELETE FROM claim_rollups WHERE rollup_month < ? OR rollup_month > ?",
+                Date.valueOf(first.atDay(1)), Date.valueOf(last.atDay(1)));
+
+        List<YearMonth> months = new ArrayList<>();
+        for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+            months.add(month);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(backfillParallelism, months.size())));
+        try {
+            List<Future<Long>> results = new ArrayList<>(months.size());
+            for (YearMonth month : months) {
+                results.add(executor.submit(() -> shardRouter.callOnShard(shard, () -> rebuildMonth(month))));
+            }
+            Map<YearMonth, Long> counted = new TreeMap<>();
+            for (int i = 0; i < months.size(); i++) {
+                counted.put(months.get(i), results.get(i).get());
+            }
+            return counted;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while rebuilding claim rollups", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Claim rollup rebuild failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private long rebuildMonth(YearMonth month) {
+        Date monthStart = Date.valueOf(month.atDay(1));
+        Date nextMonthStart = Date.valueOf(month.plusMonths(1).atDay(1));
+        return transactionTemplate.execute(status -> {
+            jdbcTemplate.update("DELETE FROM claim_rollups WHERE rollup_month = ?", monthStart);
+            jdbcTemplate.update(REBUILD_MONTH_SQL, monthStart, monthStart, nextMonthStart);
+            Long claims = jdbcTemplate.queryForObject(
+                    "SELECT COALESCE(SUM(claim_count), 0) FROM claim_rollups WHERE rollup_month = ?",
+                    Long.class, monthStart);
+            return claims == null ? 0L : claims;
+        });
+    }
+
+    private void apply(Contribution contribution, int sign) {
+        BigDecimal factor = BigDecimal.valueOf(sign);
+        merge(() -> jdbcTemplate.update(APPLY_DELTA_SQL,
+                Date.valueOf(contribution.month()),
+                contribution.status().name(),
+                contribution.policyType().name(),
+                (long) sign,
+                contribution.claimed().multiply(factor),
+                contribution.settled().multiply(factor)));
+    }
+
+    // A concurrent writer can insert a missing row between the MERGE's match and its insert; it matches on a rerun
+    private static void merge(Runnable delta) {
+        try {
+            delta.run();
+        } catch (DuplicateKeyException e) {
+            delta.run();
+        }
+    }
+
+    private static List<ClaimRollupDto> sumAcrossShards(List<ClaimRollupDto> rollups) {
+        Map<List<Object>, ClaimRollupDto> sums = new LinkedHashMap<>();
+        for (ClaimRollupDto rollup : rollups) {
+            sums.merge(List.of(rollup.getMonth(), rollup.getStatus(), rollup.getPolicyType()), rollup, (sum, more) ->
+                    new ClaimRollupDto(sum.getMonth(), sum.getStatus(), sum.getPolicyType(),
+                            sum.getClaimCount() + more.getClaimCount(),
+                            sum.getClaimedTotal().add(more.getClaimedTotal()),
+                            sum.getSettledTotal().add(more.getSettledTotal())));
+        }
+        List<ClaimRollupDto> summed = new ArrayList<>(sums.values());
+        summed.sort(Comparator.comparing(ClaimRollupDto::getMonth)
+                .thenComparing(ClaimRollupDto::getPolicyType)
+                .thenComparing(ClaimRollupDto::getStatus));
+        return summed;
+    }
+
+    private static ClaimRollupDto toDto(ClaimRollup rollup) {
+        return new ClaimRollupDto(YearMonth.from(rollup.getId().getMonth()), rollup.getId().getStatus(),
+                rollup.getId().getPolicyType(), rollup.getClaimCount(), rollup.getClaimedTotal(),
+                rollup.getSettledTotal());
+    }
+
+    private static BigDecimal zeroIfNull(BigDecimal value) {
+        return value == null ? BigDecimal.ZERO : value;
+    }
+}
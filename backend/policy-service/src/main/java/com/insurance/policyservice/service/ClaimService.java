@@ -1,16 +1,33 @@
 package com.insurance.policyservice.service;
 
+import com.insurance.policyservice.dto.ClaimStatusChangeDto;
 import com.insurance.policyservice.model.Claim;
 import com.insurance.policyservice.model.ClaimStatus;
 import com.insurance.policyservice.model.Policy;
+import com.insurance.policyservice.model.PolicyType;
 import com.insurance.policyservice.repository.ClaimRepository;
 import com.insurance.policyservice.repository.PolicyRepository;
+import com.insurance.policyservice.shard.ShardIds;
+import com.insurance.policyservice.shard.ShardRouter;
+import com.insurance.support.repository.PatchRepository;
+import com.insurance.support.repository.SparseFieldsRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class ClaimService {
@@ -20,58 +37,232 @@ public class ClaimService {
     @Autowired
     private PolicyRepository policyRepository;
 
+    @Autowired
+    private SparseFieldsRepository sparseFieldsRepository;
+
+    @Autowired
+    private PatchRepository patchRepository;
+
+    @Autowired
+    private ClaimRollupService claimRollupService;
+
+    @Autowired
+    private FraudScoringService fraudScoringService;
+
+    @Autowired
+    private ClaimAuditService claimAuditService;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Transactional(readOnly = true)
     public List<Claim> getAllClaims() {
-        return claimRepository.findAll();
+        return shardRouter.gather(shard -> claimRepository.findAll(), Claim::getId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllClaims(List<String> fields) {
+        return shardRouter.gather(shard -> sparseFieldsRepository.findAll(Claim.class, fields, null),
+                row -> (Long) row.get("id"));
+    }
+
+    /** The first {@code limit} claims with ids above {@code afterId}, in id order across all shards. */
+    @Transactional(readOnly = true)
+    public List<Claim> getClaimPage(long afterId, int limit) {
+        return shardRouter.gatherPage(afterId, limit,
+                after -> claimRepository.findByIdGreaterThanOrderByIdAsc(after, PageRequest.of(0, limit)), Claim::getId);
     }
 
+    @Transactional(readOnly = true)
     public Optional<Claim> getClaimById(Long id) {
+        shardRouter.bind(ShardIds.bucketOfId(id), false);
         return claimRepository.findById(id);
     }
 
+    @Transactional
     public Claim createClaim(Claim claim) {
-        // Verify that the policy exists
-        Policy policy = policyRepository.findById(claim.getPolicyId())
-                .orElseThrow(() -> new RuntimeException("Policy not found with id: " + claim.getPolicyId()));
+        shardRouter.bind(ShardIds.bucketOfId(claim.getPolicyId()), true);
+        // Verify that the policy exists and covers the claim date; the row lock keeps
+        // a concurrent policy update from moving the period until this claim commits
+        Policy policy = policyRepository.findCoveringForUpdate(claim.getPolicyId(), claim.getDate())
+                .orElseThrow(() -> policyRepository.existsById(claim.getPolicyId())
+                        ? new RuntimeException("Policy " + claim.getPolicyId() + " does not cover claim date " + claim.getDate())
+                        : new RuntimeException("Policy not found with id: " + claim.getPolicyId()));
+
+        return insert(claim, policy);
+    }
+
+    /**
+     * Creates a group of claims in the caller's transaction, locking each
+     * distinct policy once. Claims whose policy is missing or does not cover
+     * the claim date are skipped: the result holds, per claim, null when it
+     * was created or the reason it was not. With sharding the claims'
+     * policies must all be on one shard.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<String> createClaims(List<Claim> claims) {
+        shardRouter.bind(claims.stream().map(claim -> ShardIds.bucketOfId(claim.getPolicyId())).collect(Collectors.toSet()),
+                true);
+        Map<Long, Policy> policies = policyRepository.findAllByIdForUpdate(
+                        claims.stream().map(Claim::getPolicyId).collect(Collectors.toCollection(TreeSet::new)))
+                .stream()
+                .collect(Collectors.toMap(Policy::getId, Function.identity()));
+        List<String> errors = new ArrayList<>(claims.size());
+        for (Claim claim : claims) {
+            Policy policy = policies.get(claim.getPolicyId());
+            if (policy == null) {
+                errors.add("Policy not found with id: " + claim.getPolicyId());
+            } else if (claim.getDate().isBefore(policy.getStartDate()) || claim.getDate().isAfter(policy.getEndDate())) {
+                errors.add("Policy " + claim.getPolicyId() + " does not cover claim date " + claim.getDate());
+            } else {
+                insert(claim, policy);
+                errors.add(null);
+            }
+        }
+        return errors;
+    }
 
+    // The policy must be locked by the caller's transaction
+    private Claim insert(Claim claim, Policy policy) {
         // Set initial status
         claim.setStatus(ClaimStatus.PENDING);
+        fraudScoringService.score(claim, policy);
 
-        return claimRepository.save(claim);
+        Claim saved = claimRepository.save(claim);
+        claimRollupService.replace(null, ClaimRollupService.contribution(saved, policy.getType()));
+        claimAuditService.statusChanged(saved, null);
+        return saved;
     }
 
+    @Transactional
     public Claim updateClaim(Long id, Claim claimDetails) {
+        shardRouter.bind(ShardIds.bucketOfId(id), true);
         Claim claim = claimRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Claim not found with id: " + id));
+        PolicyType policyType = policyType(claim);
+        ClaimRollupService.Contribution before = contribution(claim, policyType);
+        ClaimStatus previousStatus = claim.getStatus();
+        // The date was checked against the policy period and placed in the fraud windows when the claim was filed
+        if (!claim.getDate().equals(claimDetails.getDate())) {
+            throw new IllegalArgumentException("Claim date cannot be changed");
+        }
 
-        claim.setDate(claimDetails.getDate());
         claim.setDescription(claimDetails.getDescription());
         claim.setClaimedAmount(claimDetails.getClaimedAmount());
         claim.setSettledAmount(claimDetails.getSettledAmount());
+        checkTransition(claim, claimDetails.getStatus());
         claim.setStatus(claimDetails.getStatus());
 
-        return claimRepository.save(claim);
+        Claim saved = claimRepository.save(claim);
+        claimRollupService.replace(before, contribution(saved, policyType));
+        claimAuditService.statusChanged(saved, previousStatus);
+        return saved;
+    }
+
+    /**
+     * Applies only the given fields with one UPDATE that also returns the
+     * previous row. A status change the state machine refuses is detected
+     * from that row and rolls the update back. The policy type is only
+     * looked up when the claim's rollup contribution moved.
+     */
+    @Transactional
+    public Claim patchClaim(Long id, Long expectedVersion, Map<String, Object> changes) {
+        shardRouter.bind(ShardIds.bucketOfId(id), true);
+        PatchRepository.Patched<Claim> patched = patchRepository.patch(Claim.class, id, expectedVersion, changes,
+                        Set.of("policyId", "date", "fraudScore", "flaggedForReview"))
+                .orElseThrow(() -> new RuntimeException("Claim not found with id: " + id));
+        Claim before = patched.before();
+        Claim after = patched.after();
+        checkTransition(before, after.getStatus());
+
+        if (!Objects.equals(ClaimRollupService.contribution(before, null), ClaimRollupService.contribution(after, null))) {
+            PolicyType policyType = policyType(after);
+            claimRollupService.replace(contribution(before, policyType), contribution(after, policyType));
+        }
+        claimAuditService.statusChanged(after, before.getStatus());
+        return after;
     }
 
+    @Transactional
     public Claim processClaimStatus(Long id, ClaimStatus status, Double settledAmount) {
+        shardRouter.bind(ShardIds.bucketOfId(id), true);
         Claim claim = claimRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Claim not found with id: " + id));
+        PolicyType policyType = policyType(claim);
+        ClaimRollupService.Contribution before = contribution(claim, policyType);
+        ClaimStatus previousStatus = claim.getStatus();
 
+        checkTransition(claim, status);
         claim.setStatus(status);
         if (settledAmount != null) {
             claim.setSettledAmount(BigDecimal.valueOf(settledAmount)); 
         }
 
-        return claimRepository.save(claim);
+        Claim saved = claimRepository.save(claim);
+        claimRollupService.replace(before, contribution(saved, policyType));
+        claimAuditService.statusChanged(saved, previousStatus);
+        return saved;
     }
 
+    @Transactional
     public void deleteClaim(Long id) {
+        shardRouter.bind(ShardIds.bucketOfId(id), true);
         Claim claim = claimRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Claim not found with id: " + id));
 
+        Optional<Policy> policy = policyRepository.findById(claim.getPolicyId());
+
         claimRepository.delete(claim);
+        claimRollupService.replace(contribution(claim, policy.map(Policy::getType).orElse(null)), null);
+        // A claim whose policy is gone already left the windows with it
+        policy.ifPresent(covering -> fraudScoringService.claimDeleted(claim, covering.getCustomerId()));
+    }
+
+    public List<ClaimStatusChangeDto> getClaimHistory(Long id) {
+        return shardRouter.call(ShardIds.bucketOfId(id), false, () -> {
+            if (!claimRepository.existsById(id)) {
+                throw new RuntimeException("Claim not found with id: " + id);
+            }
+            return claimAuditService.getHistory(id);
+        });
     }
 
+    @Transactional(readOnly = true)
+    public List<Claim> getFlaggedClaims() {
+        List<Claim> flagged = shardRouter.gather(shard -> claimRepository.findByFlaggedForReviewTrueOrderByIdDesc(),
+                Claim::getId);
+        if (shardRouter.shardCount() > 1) {
+            flagged.sort(Comparator.comparing(Claim::getId).reversed());
+        }
+        return flagged;
+    }
+
+    @Transactional(readOnly = true)
     public List<Claim> getClaimsByPolicyId(Long policyId) {
+        shardRouter.bind(ShardIds.bucketOfId(policyId), false);
         return claimRepository.findByPolicyId(policyId);
     }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getClaimsByPolicyId(Long policyId, List<String> fields) {
+        shardRouter.bind(ShardIds.bucketOfId(policyId), false);
+        return sparseFieldsRepository.findAll(Claim.class, fields,
+                (root, query, cb) -> cb.equal(root.get("policyId"), policyId));
+    }
+
+    // Re-applying the current status is allowed, e.g. to correct the settled amount
+    private static void checkTransition(Claim claim, ClaimStatus target) {
+        if (target != claim.getStatus() && (target == null || !claim.getStatus().canTransitionTo(target))) {
+            throw new IllegalStateException("Claim " + claim.getId() + " cannot move from " + claim.getStatus() + " to " + target);
+        }
+    }
+
+    private PolicyType policyType(Claim claim) {
+        return policyRepository.findById(claim.getPolicyId()).map(Policy::getType).orElse(null);
+    }
+
+    // Claims whose policy no longer exists are left out of the rollups, as in the rebuild join
+    private static ClaimRollupService.Contribution contribution(Claim claim, PolicyType policyType) {
+        return policyType == null ? null : ClaimRollupService.contribution(claim, policyType);
+    }
 }
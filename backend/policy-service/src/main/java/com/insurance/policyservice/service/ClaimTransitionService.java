@@ -0,0 +1,188 @@
+package com.insurance.policyservice.service;
+
+import com.insurance.policyservice.dto.BulkClaimTransitionRequest;
+import com.insurance.policyservice.dto.BulkClaimTransitionResult;
+import com.insurance.policyservice.model.ClaimStatus;
+import com.insurance.policyservice.repository.ClaimRepository;
+import com.insurance.policyservice.shard.ShardIds;
+import com.insurance.policyservice.shard.ShardRouter;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Set-based claim status transitions. Each batch is one transaction: a
+ * single SELECT ... FOR UPDATE locks the eligible claims, a single guarded
+ * UPDATE ... WHERE status IN (...) moves them, and the rollups and audit log
+ * are updated for the whole batch at once. No claim entity is loaded.
+ * With sharding, listed claims are batched per shard.
+ */
+@Service
+public class ClaimTransitionService {
+    private static final Logger logger = LoggerFactory.getLogger(ClaimTransitionService.class);
+
+    private static final String LOCK_BY_IDS_SQL = "SELECT id, status, settled_amount FROM claims "
+            + "WHERE id IN (:ids) AND status IN (:sources) ORDER BY id FOR UPDATE";
+
+    private static final String LOCK_BY_POLICY_SQL = "SELECT id, status, settled_amount FROM claims "
+            + "WHERE policy_id = :policyId AND status IN (:sources) ORDER BY id LIMIT :limit FOR UPDATE";
+
+    private record LockedClaim(long id, ClaimStatus status, long settledCents) {
+    }
+
+    @Autowired
+    private ClaimRepository claimRepository;
+
+    @Autowired
+    private ClaimRollupService claimRollupService;
+
+    @Autowired
+    private ClaimAuditService claimAuditService;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Value("${insurance.claims.bulk.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${insurance.claims.bulk.max-ids:50000}")
+    private int maxIds;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public BulkClaimTransitionResult transition(BulkClaimTransitionRequest request) {
+        ClaimStatus target = request.getTargetStatus();
+        boolean byIds = request.getClaimIds() != null && !request.getClaimIds().isEmpty();
+        if (target == null || byIds == (request.getPolicyId() != null)) {
+            throw new IllegalArgumentException("Give a target status and either claim ids or a policy id");
+        }
+        if (request.getFromStatus() != null && !request.getFromStatus().canTransitionTo(target)) {
+            throw new IllegalArgumentException(request.getFromStatus() + " claims cannot move to " + target);
+        }
+        List<ClaimStatus> sources = request.getFromStatus() == null
+                ? ClaimStatus.sourcesOf(target)
+                : List.of(request.getFromStatus());
+        if (sources.isEmpty()) {
+            throw new IllegalArgumentException("No claim status can move to " + target);
+        }
+        long start = System.nanoTime();
+        BulkClaimTransitionResult result = byIds
+                ? transitionIds(request.getClaimIds(), sources, target)
+                : transitionPolicy(request.getPolicyId(), sources, target);
+        logger.info("Moved {} claims to {} in {} batches ({} refused) in {} ms", result.getUpdated(), target,
+                result.getBatches(), result.getRefusedIds().size(), (System.nanoTime() - start) / 1_000_000);
+        return result;
+    }
+
+    private BulkClaimTransitionResult transitionIds(List<Long> claimIds, List<ClaimStatus> sources, ClaimStatus target) {
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(claimIds));
+        if (ids.size() > maxIds) {
+            throw new IllegalArgumentException("At most " + maxIds + " claim ids per request");
+        }
+        int updated = 0;
+        int batches = 0;
+        List<Long> refused = new ArrayList<>();
+        Map<Integer, List<Long>> byShard = ids.stream().collect(Collectors.groupingBy(
+                id -> shardRouter.shardOfBucket(ShardIds.bucketOfId(id)), TreeMap::new, Collectors.toList()));
+        for (List<Long> shardIds : byShard.values()) {
+            for (int from = 0; from < shardIds.size(); from += batchSize) {
+                List<Long> batch = shardIds.subList(from, Math.min(shardIds.size(), from + batchSize));
+                Set<Integer> buckets = batch.stream().map(ShardIds::bucketOfId).collect(Collectors.toSet());
+                Set<Long> moved = shardRouter.call(buckets, true, () -> transactionTemplate.execute(status -> {
+                    shardRouter.bind(buckets, true);
+                    return applyBatch(namedParameterJdbcTemplate.query(LOCK_BY_IDS_SQL, new MapSqlParameterSource()
+                            .addValue("ids", batch)
+                            .addValue("sources", names(sources)), ClaimTransitionService::mapLocked), sources, target);
+                }));
+                updated += moved.size();
+                batches++;
+                batch.stream().filter(id -> !moved.contains(id)).forEach(refused::add);
+            }
+        }
+        return new BulkClaimTransitionResult(target, updated, batches, refused);
+    }
+
+    // Moved claims leave the source statuses, so each batch picks up where the last one stopped
+    private BulkClaimTransitionResult transitionPolicy(Long policyId, List<ClaimStatus> sources, ClaimStatus target) {
+        int updated = 0;
+        int batches = 0;
+        while (true) {
+            Set<Long> moved = shardRouter.call(ShardIds.bucketOfId(policyId), true, () -> transactionTemplate.execute(status -> {
+                shardRouter.bind(ShardIds.bucketOfId(policyId), true);
+                return applyBatch(namedParameterJdbcTemplate.query(LOCK_BY_POLICY_SQL, new MapSqlParameterSource()
+                        .addValue("policyId", policyId)
+                        .addValue("sources", names(sources))
+                        .addValue("limit", batchSize), ClaimTransitionService::mapLocked), sources, target);
+            }));
+            updated += moved.size();
+            batches++;
+            if (moved.size() < batchSize) {
+                return new BulkClaimTransitionResult(target, updated, batches, List.of());
+            }
+        }
+    }
+
+    // Runs inside the batch transaction, with the claims already locked
+    private Set<Long> applyBatch(List<LockedClaim> locked, List<ClaimStatus> sources, ClaimStatus target) {
+        if (locked.isEmpty()) {
+            return Set.of();
+        }
+        Set<Long> ids = locked.stream().map(LockedClaim::id).collect(Collectors.toCollection(LinkedHashSet::new));
+        int updated = claimRepository.transitionAll(ids, sources, target);
+        if (updated != ids.size()) {
+            throw new IllegalStateException("Locked " + ids.size() + " claims but moved " + updated);
+        }
+
+        Map<ClaimStatus, List<Long>> byPreviousStatus = locked.stream().collect(Collectors.groupingBy(
+                LockedClaim::status, TreeMap::new, Collectors.mapping(LockedClaim::id, Collectors.toList())));
+        byPreviousStatus.forEach((previous, claimIds) -> claimRollupService.statusMoved(claimIds, previous, target));
+
+        long[] claimIds = new long[locked.size()];
+        ClaimStatus[] previous = new ClaimStatus[locked.size()];
+        long[] settledCents = new long[locked.size()];
+        for (int i = 0; i < locked.size(); i++) {
+            claimIds[i] = locked.get(i).id();
+            previous[i] = locked.get(i).status();
+            settledCents[i] = locked.get(i).settledCents();
+        }
+        claimAuditService.statusesChanged(claimIds, previous, target, settledCents);
+        return ids;
+    }
+
+    private static LockedClaim mapLocked(ResultSet rs, int row) throws SQLException {
+        return new LockedClaim(rs.getLong("id"), ClaimStatus.valueOf(rs.getString("status")),
+                ClaimAuditService.toCents(rs.getBigDecimal("settled_amount")));
+    }
+
+    private static List<String> names(List<ClaimStatus> statuses) {
+        return statuses.stream().map(Enum::name).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,216 @@
+package com.insurance.policyservice.service;
+
+import com.insurance.policyservice.client.CustomerClient;
+import com.insurance.policyservice.dto.CustomerChangeDto;
+import com.insurance.policyservice.dto.CustomerChangeFeedDto;
+import com.insurance.policyservice.dto.CustomerDto;
+import com.insurance.policyservice.model.CustomerProjection;
+import com.insurance.policyservice.model.ProjectionCheckpoint;
+import com.insurance.policyservice.repository.CustomerProjectionRepository;
+import com.insurance.policyservice.repository.ProjectionCheckpointRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the local customer projection. The first sync (or a reset
+ * signalled by the feed) loads a full snapshot anchored at the feed head;
+ * after that, changes are applied page by page, each page committed
+ * together with the checkpoint.
+ */
+@Service
+public class CustomerProjectionService {
+    private static final Logger logger = LoggerFactory.getLogger(CustomerProjectionService.class);
+
+    static final String CHECKPOINT_NAME = "customer-projection";
+
+    private static final String UPSERT_SQL = "MERGE INTO customer_projection "
+            + "(id, first_name, last_name, email, address, phone, last_seq) KEY (id) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private CustomerClient customerClient;
+
+    @Autowired
+    private CustomerProjectionRepository projectionRepository;
+
+    @Autowired
+    private ProjectionCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${insurance.customer-projection.enabled:true}")
+    private boolean enabled;
+
+    @Value("${insurance.customer-projection.page-size:500}")
+    private int pageSize;
+
+    @Value("${insurance.customer-projection.wait-ms:5000}")
+    private long waitMs;
+
+    @Value("${insurance.customer-projection.max-staleness-seconds:30}")
+    private long maxStalenessSeconds;
+
+    private TransactionTemplate transactionTemplate;
+
+    private volatile long checkpointSeq = -1;
+    private volatile long headSeq;
+    private volatile Instant caughtUpAt;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        checkpointRepository.findById(CHECKPOINT_NAME).ifPresent(checkpoint -> {
+            checkpointSeq = checkpoint.getLastSeq();
+            caughtUpAt = checkpoint.getCaughtUpAt();
+        });
+
+        Gauge.builder("customer.projection.staleness", this, service -> service.stalenessSeconds())
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("customer.projection.lag.events", this,
+                        service -> Math.max(0, service.headSeq - service.checkpointSeq))
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the projected customer only when the projection is within the
+     * staleness budget; callers fall back to customer-service otherwise.
+     */
+    public Optional<CustomerDto> findFresh(Long customerId) {
+        if (!isFresh()) {
+            return Optional.empty();
+        }
+        return projectionRepository.findById(customerId).map(CustomerProjectionService::toDto);
+    }
+
+    /** Projected customers by id, whatever their staleness; callers check {@link #isFresh} first. */
+    public Map<Long, CustomerProjection> findAll(Collection<Long> customerIds) {
+        return projectionRepository.findAllById(customerIds).stream()
+                .collect(Collectors.toMap(CustomerProjection::getId, Function.identity()));
+    }
+
+    public boolean isFresh() {
+        return enabled && checkpointSeq >= 0 && stalenessSeconds() <= maxStalenessSeconds;
+    }
+
+    public static CustomerDto toDto(CustomerProjection projection) {
+        return new CustomerDto(projection.getId(), projection.getFirstName(), projection.getLastName(),
+                projection.getEmail(), projection.getAddress(), projection.getPhone());
+    }
+
+    @Scheduled(fixedDelayString = "${insurance.customer-projection.poll-interval-ms:1000}")
+    public void sync() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            if (checkpointSeq < 0) {
+                loadSnapshot();
+            }
+            pollChanges();
+        } catch (RuntimeException e) {
+            logger.warn("Customer projection sync failed: {}", e.getMessage());
+        }
+    }
+
+    private void pollChanges() {
+        long wait = waitMs;
+        while (true) {
+            CustomerChangeFeedDto page = customerClient.getCustomerChanges(checkpointSeq, pageSize, wait);
+            headSeq = page.getHeadSeq() == null ? headSeq : page.getHeadSeq();
+            if (page.isResetRequired()) {
+                logger.info("Customer change feed purged past checkpoint {}; reloading snapshot", checkpointSeq);
+                loadSnapshot();
+                continue;
+            }
+
+            List<CustomerChangeDto> changes = page.getChanges();
+            boolean caughtUp = changes.size() < pageSize;
+            Instant now = Instant.now();
+            transactionTemplate.executeWithoutResult(status -> {
+                for (CustomerChangeDto change : changes) {
+                    apply(change);
+                }
+                saveCheckpoint(page.getLastSeq(), caughtUp ? now : caughtUpAt);
+            });
+            checkpointSeq = page.getLastSeq();
+            if (caughtUp) {
+                caughtUpAt = now;
+                return;
+            }
+            wait = 0;
+        }
+    }
+
+    private void loadSnapshot() {
+        long start = System.nanoTime();
+        long anchor = customerClient.getCustomerChanges(0, 1, 0).getHeadSeq();
+        List<CustomerDto> customers = customerClient.getAllCustomers();
+        Instant now = Instant.now();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM customer_projection");
+            jdbcTemplate.batchUpdate(UPSERT_SQL, customers, pageSize, (statement, customer) -> {
+                statement.setLong(1, customer.getId());
+                statement.setString(2, customer.getFirstName());
+                statement.setString(3, customer.getLastName());
+                statement.setString(4, customer.getEmail());
+                statement.setString(5, customer.getAddress());
+                statement.setString(6, customer.getPhone());
+                statement.setLong(7, anchor);
+            });
+            saveCheckpoint(anchor, now);
+        });
+        checkpointSeq = anchor;
+        headSeq = anchor;
+        caughtUpAt = now;
+        logger.info("Loaded customer projection snapshot of {} customers at seq {} in {} ms",
+                customers.size(), anchor, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void apply(CustomerChangeDto change) {
+        if ("DELETED".equals(change.getOperation())) {
+            jdbcTemplate.update("DELETE FROM customer_projection WHERE id = ?", change.getCustomerId());
+        } else {
+            jdbcTemplate.update(UPSERT_SQL, change.getCustomerId(), change.getFirstName(), change.getLastName(),
+                    change.getEmail(), change.getAddress(), change.getPhone(), change.getSeq());
+        }
+    }
+
+    private void saveCheckpoint(long seq, Instant caughtUp) {
+        checkpointRepository.save(new ProjectionCheckpoint(CHECKPOINT_NAME, seq, caughtUp));
+    }
+
+    private double stalenessSeconds() {
+        Instant caughtUp = caughtUpAt;
+        if (caughtUp == null) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return Duration.between(caughtUp, Instant.now()).toMillis() / 1000.0;
+    }
+}
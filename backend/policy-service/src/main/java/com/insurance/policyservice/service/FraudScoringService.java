@@ -0,0 +1,222 @@
+package com.insurance.policyservice.service;
+
+import com.insurance.policyservice.model.Claim;
+import com.insurance.policyservice.model.Policy;
+import com.insurance.policyservice.shard.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scores new claims inline with a {@link ClaimFraudScorer} and flags high
+ * scores for review. The scorer's windows live in memory only; on startup
+ * they are warmed from the claims already in the window. Claims scored live
+ * before the warm-up scan reaches them are recorded by id and skipped by the
+ * scan, so each claim counts once whatever its id. A claim counts as
+ * soon as it is scored, so claims racing it on the same policy see it, and
+ * is taken back out if its transaction rolls back or it is later deleted.
+ */
+@Service
+public class FraudScoringService {
+    private static final Logger logger = LoggerFactory.getLogger(FraudScoringService.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${insurance.fraud.enabled:true}")
+    private boolean enabled;
+
+    @Value("${insurance.fraud.bucket-days:5}")
+    private int bucketDays;
+
+    @Value("${insurance.fraud.buckets:6}")
+    private int buckets;
+
+    @Value("${insurance.fraud.stripes:64}")
+    private int stripes;
+
+    @Value("${insurance.fraud.expected-keys:100000}")
+    private int expectedKeys;
+
+    @Value("${insurance.fraud.review-threshold:60}")
+    private int reviewThreshold;
+
+    private volatile ClaimFraudScorer scorer;
+    // Ids of claims scored live since the windows were created; null once the warm-up is done
+    private volatile Set<Long> scoredLive;
+    private Timer scoringTimer;
+    private Counter flagged;
+
+    @PostConstruct
+    void init() {
+        scoredLive = ConcurrentHashMap.newKeySet();
+        scorer = new ClaimFraudScorer(bucketDays, buckets, stripes, expectedKeys);
+        scoringTimer = meterRegistry.timer("claims.fraud.scoring");
+        flagged = meterRegistry.counter("claims.fraud.flagged");
+        Gauge.builder("claims.fraud.keys", this, service -> service.scorer.keys()).register(meterRegistry);
+        Gauge.builder("claims.fraud.memory", this, service -> service.scorer.memoryBytes())
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) {
+            return;
+        }
+        ClaimFraudScorer target = scorer;
+        Set<Long> skip = scoredLive;
+        Thread loader = new Thread(() -> {
+            try {
+                long start = System.nanoTime();
+                long loaded = load(target, skip == null ? Set.of() : skip);
+                logger.info("Warmed fraud scoring windows from {} claims in {} ms", loaded,
+                        (System.nanoTime() - start) / 1_000_000);
+            } catch (RuntimeException e) {
+                logger.error("Fraud scoring warm-up failed; scoring continues on live claims only", e);
+            } finally {
+                synchronized (this) {
+                    if (scoredLive == skip) {
+                        scoredLive = null;
+                    }
+                }
+            }
+        }, "fraud-warmup");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /** Starts over with empty windows warmed from the claims table, e.g. after a bulk load. */
+    public synchronized void reload() {
+        if (!enabled) {
+            return;
+        }
+        scoredLive = ConcurrentHashMap.newKeySet();
+        scorer = new ClaimFraudScorer(bucketDays, buckets, stripes, expectedKeys);
+        warmUp();
+    }
+
+    // Records every claim in the window except those already scored live; returns how many it recorded
+    long load(ClaimFraudScorer target, Set<Long> skip) {
+        LocalDate since = LocalDate.now().minusDays((long) bucketDays * buckets);
+        long[] loaded = new long[1];
+        shardRouter.forEachShard(shard -> jdbcTemplate.query(
+                "SELECT c.id, c.policy_id, p.customer_id, c.date, c.claimed_amount FROM claims c "
+                        + "JOIN policies p ON p.id = c.policy_id WHERE c.date >= ?",
+                rs -> {
+                    if (!skip.contains(rs.getLong(1))) {
+                        target.record(rs.getLong(2), rs.getLong(3),
+                                epochDay(rs.getObject(4, LocalDate.class)), toCents(rs.getBigDecimal(5)));
+                        loaded[0]++;
+                    }
+                },
+                Date.valueOf(since)));
+        return loaded[0];
+    }
+
+    /** Sets the claim's fraud score and review flag; call once per new claim, before it is saved. */
+    public void score(Claim claim, Policy policy) {
+        if (!enabled) {
+            return;
+        }
+        ClaimFraudScorer target = scorer;
+        Set<Long> live = scoredLive;
+        long policyId = policy.getId();
+        long customerId = policy.getCustomerId();
+        long day = epochDay(claim.getDate());
+        long claimed = toCents(claim.getClaimedAmount());
+        long start = System.nanoTime();
+        int score = target.score(policyId, customerId, day, claimed, toCents(policy.getCoverageAmount()));
+        scoringTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        afterCompletion(false, () -> target.forget(policyId, customerId, day, claimed));
+        if (live != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Saved by commit time; listed before the row becomes visible to the warm-up scan
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    live.add(claim.getId());
+                }
+            });
+        }
+
+        claim.setFraudScore(score);
+        claim.setFlaggedForReview(score >= reviewThreshold);
+        if (score >= reviewThreshold) {
+            flagged.increment();
+            logger.info("Claim on policy {} flagged for review with fraud score {}", policy.getId(), score);
+        }
+    }
+
+    /** Takes a deleted claim out of the windows once the delete commits. */
+    public void claimDeleted(Claim claim, long customerId) {
+        if (!enabled) {
+            return;
+        }
+        ClaimFraudScorer target = scorer;
+        long day = epochDay(claim.getDate());
+        long claimed = toCents(claim.getClaimedAmount());
+        afterCompletion(true, () -> target.forget(claim.getPolicyId(), customerId, day, claimed));
+    }
+
+    @Scheduled(fixedDelayString = "${insurance.fraud.expire-interval-ms:3600000}")
+    public void expire() {
+        int removed = scorer.expire(LocalDate.now().toEpochDay());
+        if (removed > 0) {
+            logger.debug("Expired {} idle fraud scoring keys", removed);
+        }
+    }
+
+    // Runs the change when the current transaction commits (or rolls back), or now without one
+    private static void afterCompletion(boolean onCommit, Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            if (onCommit) {
+                change.run();
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if ((status == STATUS_COMMITTED) == onCommit) {
+                    change.run();
+                }
+            }
+        });
+    }
+
+    // Future-dated claims count as today, so they cannot push the window ahead of the clock
+    private static long epochDay(LocalDate date) {
+        return Math.min(date.toEpochDay(), LocalDate.now().toEpochDay());
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount == null ? 0 : amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+}
@@ -1,15 +1,42 @@
 package com.insurance.policyservice.service;
 
-import com.insurance.policyservice.client.CustomerClient;
+import com.insurance.policyservice.client.HedgedCustomerClient;
 import com.insurance.policyservice.dto.CustomerDto;
 import com.insurance.policyservice.dto.PolicyWithCustomerDto;
+import com.insurance.policyservice.model.Claim;
+import com.insurance.policyservice.model.CustomerProjection;
 import com.insurance.policyservice.model.Policy;
+import com.insurance.policyservice.model.PolicyTermBound;
+import com.insurance.policyservice.repository.ClaimRepository;
 import com.insurance.policyservice.repository.PolicyRepository;
+import com.insurance.policyservice.repository.PolicyTermBoundRepository;
+import com.insurance.policyservice.shard.ShardIds;
+import com.insurance.policyservice.shard.ShardRouter;
+import com.insurance.support.repository.PatchRepository;
+import com.insurance.support.repository.SparseFieldsRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -18,61 +45,286 @@ public class PolicyService {
     private PolicyRepository policyRepository;
 
     @Autowired
-    private CustomerClient customerClient;
+    private ClaimRepository claimRepository;
 
+    @Autowired
+    private SparseFieldsRepository sparseFieldsRepository;
+
+    @Autowired
+    private PatchRepository patchRepository;
+
+    @Autowired
+    private ClaimRollupService claimRollupService;
+
+    @Autowired
+    private PortfolioService portfolioService;
+
+    @Autowired
+    private FraudScoringService fraudScoringService;
+
+    @Autowired
+    private HedgedCustomerClient customerClient;
+
+    @Autowired
+    private CustomerProjectionService customerProjectionService;
+
+    @Autowired
+    private PolicyTermBoundRepository policyTermBoundRepository;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${insurance.policies.min-term-window-days:366}")
+    private long minTermWindowDays;
+
+    private Counter projectionFallbacks;
+
+    @PostConstruct
+    void init() {
+        projectionFallbacks = meterRegistry.counter("customer.projection.fallbacks");
+    }
+
+    /** Widens each shard's stored term bound to cover rows written around the service. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void refreshMaxPolicyTerm() {
+        shardRouter.forEachShard(shard -> {
+            Long days = policyRepository.findMaxTermDays();
+            policyTermBoundRepository.widen(Math.max(minTermWindowDays, days == null ? 0L : days));
+        });
+    }
+
+    @Transactional(readOnly = true)
     public List<Policy> getAllPolicies() {
-        return policyRepository.findAll();
+        return shardRouter.gather(shard -> policyRepository.findAll(), Policy::getId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllPolicies(List<String> fields) {
+        return shardRouter.gather(shard -> sparseFieldsRepository.findAll(Policy.class, fields, null),
+                row -> (Long) row.get("id"));
     }
 
+    /** The first {@code limit} policies with ids above {@code afterId}, in id order across all shards. */
+    @Transactional(readOnly = true)
+    public List<Policy> getPolicyPage(long afterId, int limit) {
+        return shardRouter.gatherPage(afterId, limit,
+                after -> policyRepository.findByIdGreaterThanOrderByIdAsc(after, PageRequest.of(0, limit)), Policy::getId);
+    }
+
+    @Transactional(readOnly = true)
     public Optional<Policy> getPolicyById(Long id) {
+        shardRouter.bind(ShardIds.bucketOfId(id), false);
         return policyRepository.findById(id);
     }
 
+    @Transactional
     public Policy createPolicy(Policy policy) {
-        return policyRepository.save(policy);
+        shardRouter.bind(ShardIds.bucketOfCustomer(policy.getCustomerId()), true);
+        widenMaxTerm(policy);
+        Policy saved = policyRepository.save(policy);
+        portfolioService.policySaved(saved);
+        return saved;
     }
 
+    @Transactional
     public Policy updatePolicy(Long id, Policy policyDetails) {
+        shardRouter.bind(ShardIds.bucketOfId(id), true);
         Policy policy = policyRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Policy not found with id: " + id));
+        if (policy.getType() != policyDetails.getType()) {
+            claimRollupService.policyTypeChanged(id, policy.getType(), policyDetails.getType());
+        }
         
         policy.setType(policyDetails.getType());
         policy.setStartDate(policyDetails.getStartDate());
         policy.setEndDate(policyDetails.getEndDate());
         policy.setCoverageAmount(policyDetails.getCoverageAmount());
+        widenMaxTerm(policy);
         
-        return policyRepository.save(policy);
+        Policy saved = policyRepository.save(policy);
+        portfolioService.policySaved(saved);
+        return saved;
     }
 
+    /**
+     * Applies only the given fields with one UPDATE that also returns the
+     * previous row, so claim rollups and the portfolio are kept in step
+     * without loading the policy. Throws OptimisticLockingFailureException
+     * when {@code expectedVersion} is given and no longer current.
+     */
+    @Transactional
+    public Policy patchPolicy(Long id, Long expectedVersion, Map<String, Object> changes) {
+        shardRouter.bind(ShardIds.bucketOfId(id), true);
+        PatchRepository.Patched<Policy> patched = patchRepository.patch(Policy.class, id, expectedVersion, changes,
+                        Set.of("customerId", "renewedFromId"))
+                .orElseThrow(() -> new RuntimeException("Policy not found with id: " + id));
+        Policy before = patched.before();
+        Policy after = patched.after();
+        if (before.getType() != after.getType()) {
+            claimRollupService.policyTypeChanged(id, before.getType(), after.getType());
+        }
+        // The new period is only visible to other transactions once this one commits
+        widenMaxTerm(after);
+        portfolioService.policySaved(after);
+        return after;
+    }
+
+    /**
+     * Issues the successor of {@code expiring}: same customer, type and cover,
+     * starting the day after it ends and running for the same term.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Policy renewPolicy(Policy expiring) {
+        Policy renewal = new Policy();
+        renewal.setCustomerId(expiring.getCustomerId());
+        renewal.setType(expiring.getType());
+        renewal.setCoverageAmount(expiring.getCoverageAmount());
+        renewal.setStartDate(expiring.getEndDate().plusDays(1));
+        renewal.setEndDate(renewal.getStartDate().plusDays(
+                ChronoUnit.DAYS.between(expiring.getStartDate(), expiring.getEndDate())));
+        renewal.setRenewedFromId(expiring.getId());
+        widenMaxTerm(renewal);
+
+        Policy saved = policyRepository.save(renewal);
+        portfolioService.policySaved(saved);
+        return saved;
+    }
+
+    @Transactional
     public void deletePolicy(Long id) {
+        shardRouter.bind(ShardIds.bucketOfId(id), true);
         Policy policy = policyRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Policy not found with id: " + id));
-        
+
+        List<Claim> claims = claimRepository.findByPolicyId(id);
+        claimRollupService.policyDeleted(claims, policy.getType());
+        claims.forEach(claim -> fraudScoringService.claimDeleted(claim, policy.getCustomerId()));
         policyRepository.delete(policy);
+        portfolioService.policyDeleted(id);
     }
 
+    @Transactional(readOnly = true)
     public List<Policy> getPoliciesByCustomerId(Long customerId) {
+        shardRouter.bind(ShardIds.bucketOfCustomer(customerId), false);
         return policyRepository.findByCustomerId(customerId);
     }
 
+    @Transactional(readOnly = true)
+    public List<Policy> getActivePolicies(LocalDate date) {
+        List<Policy> active = shardRouter.gather(shard ->
+                policyRepository.findActiveOn(date, date.minusDays(maxTermDays())), Policy::getId);
+        if (shardRouter.shardCount() > 1) {
+            active.sort(Comparator.comparing(Policy::getId));
+        }
+        return active;
+    }
+
+    @Transactional(readOnly = true)
+    public List<Policy> getActivePoliciesByCustomerId(Long customerId, LocalDate date) {
+        shardRouter.bind(ShardIds.bucketOfCustomer(customerId), false);
+        return policyRepository.findActiveByCustomerId(customerId, date);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getPoliciesByCustomerId(Long customerId, List<String> fields) {
+        shardRouter.bind(ShardIds.bucketOfCustomer(customerId), false);
+        return sparseFieldsRepository.findAll(Policy.class, fields,
+                (root, query, cb) -> cb.equal(root.get("customerId"), customerId));
+    }
+
     public PolicyWithCustomerDto getPolicyWithCustomer(Long id) {
-        Policy policy = policyRepository.findById(id)
+        Policy policy = shardRouter.call(ShardIds.bucketOfId(id), false, () -> policyRepository.findById(id))
                 .orElseThrow(() -> new RuntimeException("Policy not found with id: " + id));
         
-        CustomerDto customer = customerClient.getCustomerById(policy.getCustomerId());
+        CustomerDto customer = customerProjectionService.findFresh(policy.getCustomerId())
+                .orElseGet(() -> {
+                    projectionFallbacks.increment();
+                    return customerClient.getCustomerById(policy.getCustomerId());
+                });
         
         return new PolicyWithCustomerDto(policy, customer);
     }
 
     public List<PolicyWithCustomerDto> getAllPoliciesWithCustomers() {
-        List<Policy> policies = policyRepository.findAll();
-        
+        if (customerProjectionService.isFresh()) {
+            return getAllPoliciesWithProjectedCustomers();
+        }
+        projectionFallbacks.increment();
+
+        List<Policy> policies = shardRouter.gather(shard -> policyRepository.findAll(), Policy::getId);
+
+        List<Long> customerIds = policies.stream()
+                .map(Policy::getCustomerId)
+                .distinct()
+                .collect(Collectors.toList());
+        Map<Long, CustomerDto> customers = customerClient.getCustomersByIds(customerIds).stream()
+                .collect(Collectors.toMap(CustomerDto::getId, Function.identity()));
+
         return policies.stream()
-                .map(policy -> {
-                    CustomerDto customer = customerClient.getCustomerById(policy.getCustomerId());
-                    return new PolicyWithCustomerDto(policy, customer);
-                })
+                .map(policy -> new PolicyWithCustomerDto(policy, customers.get(policy.getCustomerId())))
                 .collect(Collectors.toList());
     }
-}
 
+    private List<PolicyWithCustomerDto> getAllPoliciesWithProjectedCustomers() {
+        List<Object[]> rows = shardRouter.isEnabled() ? joinCustomerProjectionAcrossShards()
+                : policyRepository.findAllWithCustomerProjection();
+
+        List<PolicyWithCustomerDto> result = new ArrayList<>(rows.size());
+        Set<Long> missingIds = new LinkedHashSet<>();
+        for (Object[] row : rows) {
+            Policy policy = (Policy) row[0];
+            CustomerProjection projection = (CustomerProjection) row[1];
+            CustomerDto customer = projection == null ? null : CustomerProjectionService.toDto(projection);
+            if (customer == null) {
+                missingIds.add(policy.getCustomerId());
+            }
+            result.add(new PolicyWithCustomerDto(policy, customer));
+        }
+        if (missingIds.isEmpty()) {
+            return result;
+        }
+
+        // Customers created after the last poll are fetched remotely
+        projectionFallbacks.increment();
+        Map<Long, CustomerDto> remote = new HashMap<>();
+        customerClient.getCustomersByIds(new ArrayList<>(missingIds)).forEach(customer -> remote.put(customer.getId(), customer));
+        for (PolicyWithCustomerDto dto : result) {
+            if (dto.getCustomer() == null) {
+                dto.setCustomer(remote.get(dto.getPolicy().getCustomerId()));
+            }
+        }
+        return result;
+    }
+
+    // The projection is kept on shard 0 only, so the join is done here instead
+    private List<Object[]> joinCustomerProjectionAcrossShards() {
+        List<Policy> policies = shardRouter.gather(shard -> policyRepository.findAll(), Policy::getId);
+        Map<Long, CustomerProjection> projections = customerProjectionService.findAll(policies.stream()
+                .map(Policy::getCustomerId)
+                .collect(Collectors.toSet()));
+        return policies.stream()
+                .map(policy -> new Object[]{policy, projections.get(policy.getCustomerId())})
+                .collect(Collectors.toList());
+    }
+
+    // The current shard's bound; the scan is only needed until the row is first written
+    private long maxTermDays() {
+        Long days = policyTermBoundRepository.findById(PolicyTermBound.ID)
+                .map(PolicyTermBound::getMaxTermDays)
+                .orElseGet(policyRepository::findMaxTermDays);
+        return Math.max(minTermWindowDays, days == null ? 0L : days);
+    }
+
+    // Terms within the minimum window are already covered, so the common case writes nothing
+    private void widenMaxTerm(Policy policy) {
+        if (policy.getStartDate() != null && policy.getEndDate() != null) {
+            long term = ChronoUnit.DAYS.between(policy.getStartDate(), policy.getEndDate());
+            if (term > minTermWindowDays) {
+                policyTermBoundRepository.widen(term);
+            }
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package com.insurance.policyservice.service;
+
+import com.insurance.policyservice.model.PolicyType;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Column-per-field copy of the policy book: ids, type ordinals, epoch-day
+ * start and end dates and coverage in cents, all primitive arrays. Ids are
+ * sorted except for a tail of up to {@value #MAX_UNSORTED} rows inserted out
+ * of order (sharded ids are not monotonic), which is merged in whenever it
+ * fills. Deleted rows are tombstoned (type -1) and squeezed out once they
+ * make up a quarter of the arrays.
+ *
+ * Not thread-safe; {@link PortfolioService} guards it with a read/write lock.
+ */
+public class PortfolioColumns {
+    public static final int DELETED = -1;
+    public static final long ANY_DAY = Long.MIN_VALUE;
+
+    private static final int LEAF_SIZE = 1 << 16;
+    static final int MAX_UNSORTED = 1 << 12;
+
+    public enum GroupBy {
+        NONE, TYPE, START_MONTH, END_MONTH
+    }
+
+    /**
+     * Filters plus grouping for one aggregation.
+     *
+     * @param typeOrdinal {@code PolicyType} ordinal, or -1 for every type
+     * @param activeOnDay epoch day the policy must cover, or {@link #ANY_DAY}
+     */
+    public record Query(int typeOrdinal, long activeOnDay, GroupBy groupBy) {
+    }
+
+    /**
+     * Totals per bucket; bucket {@code i} has key {@code firstKey + i}, a type
+     * ordinal or a month counted from January 1970.
+     */
+    public record Result(int firstKey, long[] policies, long[] coverageCents) {
+    }
+
+    private long[] ids;
+    private byte[] types;
+    private int[] startDays;
+    private int[] endDays;
+    private long[] coverageCents;
+    private int size;
+    private int sorted;
+    private int deleted;
+    private int minStartDay = Integer.MAX_VALUE;
+    private int maxStartDay = Integer.MIN_VALUE;
+    private int minEndDay = Integer.MAX_VALUE;
+    private int maxEndDay = Integer.MIN_VALUE;
+
+    public PortfolioColumns(int capacity) {
+        capacity = Math.max(16, capacity);
+        ids = new long[capacity];
+        types = new byte[capacity];
+        startDays = new int[capacity];
+        endDays = new int[capacity];
+        coverageCents = new long[capacity];
+    }
+
+    public int size() {
+        return size - deleted;
+    }
+
+    /**
+     * Inserts or overwrites the row for {@code id}. Appending ascending ids is
+     * O(1); other new ids go to the unsorted tail, and each merge of a full
+     * tail costs one pass over the arrays.
+     */
+    public void put(long id, int typeOrdinal, int startDay, int endDay, long coverage) {
+        int index = indexOf(id);
+        if (index < 0) {
+            index = size;
+            ensureCapacity(size + 1);
+            if (sorted == size && (size == 0 || id > ids[size - 1])) {
+                sorted++;
+            }
+            size++;
+        } else if (types[index] == DELETED) {
+            deleted--;
+        }
+        ids[index] = id;
+        types[index] = (byte) typeOrdinal;
+        startDays[index] = startDay;
+        endDays[index] = endDay;
+        coverageCents[index] = coverage;
+        minStartDay = Math.min(minStartDay, startDay);
+        maxStartDay = Math.max(maxStartDay, startDay);
+        minEndDay = Math.min(minEndDay, endDay);
+        maxEndDay = Math.max(maxEndDay, endDay);
+        if (size - sorted >= MAX_UNSORTED) {
+            mergeUnsorted();
+        }
+    }
+
+    public boolean remove(long id) {
+        int index = indexOf(id);
+        if (index < 0 || types[index] == DELETED) {
+            return false;
+        }
+        types[index] = DELETED;
+        deleted++;
+        if (deleted > size / 4) {
+            compact();
+        }
+        return true;
+    }
+
+    public Result aggregate(Query query, ForkJoinPool pool) {
+        int firstKey;
+        int buckets;
+        switch (query.groupBy()) {
+            case TYPE -> {
+                firstKey = 0;
+                buckets = PolicyType.values().length;
+            }
+            case START_MONTH -> {
+                firstKey = size == 0 ? 0 : epochMonth(minStartDay);
+                buckets = size == 0 ? 1 : epochMonth(maxStartDay) - firstKey + 1;
+            }
+            case END_MONTH -> {
+                firstKey = size == 0 ? 0 : epochMonth(minEndDay);
+                buckets = size == 0 ? 1 : epochMonth(maxEndDay) - firstKey + 1;
+            }
+            default -> {
+                firstKey = 0;
+                buckets = 1;
+            }
+        }
+        long[] totals = pool.invoke(new AggregateTask(query, firstKey, buckets, 0, size));
+        return new Result(firstKey, Arrays.copyOfRange(totals, 0, buckets), Arrays.copyOfRange(totals, buckets, 2 * buckets));
+    }
+
+    /** Months since January 1970 for an epoch day, without allocating a LocalDate. */
+    public static int epochMonth(long epochDay) {
+        // Civil-from-days conversion (proleptic Gregorian calendar)
+        long z = epochDay + 719_468;
+        long era = Math.floorDiv(z, 146_097);
+        long dayOfEra = z - era * 146_097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1_460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long shiftedMonth = (5 * dayOfYear + 2) / 153;
+        long month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        return (int) ((year - 1970) * 12 + month - 1);
+    }
+
+    private final class AggregateTask extends RecursiveTask<long[]> {
+        private final Query query;
+        private final int firstKey;
+        private final int buckets;
+        private final int from;
+        private final int to;
+
+        AggregateTask(Query query, int firstKey, int buckets, int from, int to) {
+            this.query = query;
+            this.firstKey = firstKey;
+            this.buckets = buckets;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (to - from <= LEAF_SIZE) {
+                return scan();
+            }
+            int middle = (from + to) >>> 1;
+            AggregateTask left = new AggregateTask(query, firstKey, buckets, from, middle);
+            left.fork();
+            long[] right = new AggregateTask(query, firstKey, buckets, middle, to).compute();
+            long[] merged = left.join();
+            for (int i = 0; i < merged.length; i++) {
+                merged[i] += right[i];
+            }
+            return merged;
+        }
+
+        // Counts in [0, buckets), coverage sums in [buckets, 2 * buckets)
+        private long[] scan() {
+            long[] totals = new long[2 * buckets];
+            int typeFilter = query.typeOrdinal();
+            long activeOn = query.activeOnDay();
+            GroupBy groupBy = query.groupBy();
+            for (int i = from; i < to; i++) {
+                int type = types[i];
+                if (type == DELETED || (typeFilter >= 0 && type != typeFilter)) {
+                    continue;
+                }
+                if (activeOn != ANY_DAY && (startDays[i] > activeOn || endDays[i] < activeOn)) {
+                    continue;
+                }
+                int bucket = switch (groupBy) {
+                    case TYPE -> type;
+                    case START_MONTH -> epochMonth(startDays[i]) - firstKey;
+                    case END_MONTH -> epochMonth(endDays[i]) - firstKey;
+                    case NONE -> 0;
+                };
+                totals[bucket]++;
+                totals[buckets + bucket] += coverageCents[i];
+            }
+            return totals;
+        }
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= ids.length) {
+            return;
+        }
+        int capacity = Math.max(required, ids.length + (ids.length >> 1));
+        ids = Arrays.copyOf(ids, capacity);
+        types = Arrays.copyOf(types, capacity);
+        startDays = Arrays.copyOf(startDays, capacity);
+        endDays = Arrays.copyOf(endDays, capacity);
+        coverageCents = Arrays.copyOf(coverageCents, capacity);
+    }
+
+    private int indexOf(long id) {
+        int index = Arrays.binarySearch(ids, 0, sorted, id);
+        if (index >= 0) {
+            return index;
+        }
+        for (int i = sorted; i < size; i++) {
+            if (ids[i] == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Sorts the tail aside, then merges it in from the back so each row moves at most once
+    private void mergeUnsorted() {
+        int tail = size - sorted;
+        long[] tailIds = Arrays.copyOfRange(ids, sorted, size);
+        Arrays.sort(tailIds);
+        byte[] tailTypes = new byte[tail];
+        int[] tailStartDays = new int[tail];
+        int[] tailEndDays = new int[tail];
+        long[] tailCoverage = new long[tail];
+        for (int i = sorted; i < size; i++) {
+            int slot = Arrays.binarySearch(tailIds, ids[i]);
+            tailTypes[slot] = types[i];
+            tailStartDays[slot] = startDays[i];
+            tailEndDays[slot] = endDays[i];
+            tailCoverage[slot] = coverageCents[i];
+        }
+        int from = sorted - 1;
+        int next = tail - 1;
+        for (int to = size - 1; next >= 0; to--) {
+            if (from >= 0 && ids[from] > tailIds[next]) {
+                ids[to] = ids[from];
+                types[to] = types[from];
+                startDays[to] = startDays[from];
+                endDays[to] = endDays[from];
+                coverageCents[to] = coverageCents[from];
+                from--;
+            } else {
+                ids[to] = tailIds[next];
+                types[to] = tailTypes[next];
+                startDays[to] = tailStartDays[next];
+                endDays[to] = tailEndDays[next];
+                coverageCents[to] = tailCoverage[next];
+                next--;
+            }
+        }
+        sorted = size;
+    }
+
+    // Keeps the order, so the sorted rows stay ahead of the tail
+    private void compact() {
+        int target = 0;
+        int sortedKept = 0;
+        for (int i = 0; i < size; i++) {
+            if (types[i] == DELETED) {
+                continue;
+            }
+            if (i < sorted) {
+                sortedKept++;
+            }
+            if (target != i) {
+                ids[target] = ids[i];
+                types[target] = types[i];
+                startDays[target] = startDays[i];
+                endDays[target] = endDays[i];
+                coverageCents[target] = coverageCents[i];
+            }
+            target++;
+        }
+        size = target;
+        sorted = sortedKept;
+        deleted = 0;
+    }
+}
@@ -0,0 +1,229 @@
+package com.insurance.policyservice.service;
+
+import com.insurance.policyservice.dto.ExposureBucketDto;
+import com.insurance.policyservice.model.Policy;
+import com.insurance.policyservice.model.PolicyType;
+import com.insurance.policyservice.repository.PolicyRepository;
+import com.insurance.policyservice.shard.ShardRouter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Serves exposure aggregations from a {@link PortfolioColumns} snapshot of
+ * the policy book. The snapshot is loaded in keyset pages at startup and
+ * patched after each committed policy write; writes that land while a
+ * (re)build is running are replayed onto the new snapshot before it is
+ * published.
+ */
+@Service
+public class PortfolioService {
+    private static final Logger logger = LoggerFactory.getLogger(PortfolioService.class);
+
+    private static final YearMonth EPOCH_MONTH = YearMonth.of(1970, 1);
+
+    @Autowired
+    private PolicyRepository policyRepository;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${insurance.portfolio.enabled:true}")
+    private boolean enabled;
+
+    @Value("${insurance.portfolio.load-page-size:10000}")
+    private int loadPageSize;
+
+    @Value("${insurance.portfolio.parallelism:0}")
+    private int parallelism;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private PortfolioColumns columns;
+    private List<Consumer<PortfolioColumns>> pendingDuringBuild;
+    private ForkJoinPool pool;
+
+    @PostConstruct
+    void init() {
+        pool = parallelism > 0 ? new ForkJoinPool(parallelism) : ForkJoinPool.commonPool();
+        Gauge.builder("policy.portfolio.size", this, PortfolioService::size).register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (pool != ForkJoinPool.commonPool()) {
+            pool.shutdownNow();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        Thread loader = new Thread(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                logger.error("Policy portfolio snapshot failed to load", e);
+            }
+        }, "portfolio-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /** Reloads the snapshot from the database; queries keep using the old one until it is swapped in. */
+    public synchronized int rebuild() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            pendingDuringBuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long policies = shardRouter.gather(shard -> List.of(policyRepository.count())).stream()
+                .mapToLong(Long::longValue).sum();
+        PortfolioColumns loaded = new PortfolioColumns((int) Math.min(Integer.MAX_VALUE - 8, policies));
+        long afterId = 0;
+        while (true) {
+            List<Object[]> page = shardRouter.gatherPage(afterId, loadPageSize,
+                    after -> policyRepository.findColumnsAfter(after, PageRequest.of(0, loadPageSize)),
+                    row -> (Long) row[0]);
+            for (Object[] row : page) {
+                loaded.put((Long) row[0], ((PolicyType) row[1]).ordinal(), (int) ((LocalDate) row[2]).toEpochDay(),
+                        (int) ((LocalDate) row[3]).toEpochDay(), toCents((BigDecimal) row[4]));
+            }
+            if (page.size() < loadPageSize) {
+                break;
+            }
+            afterId = (Long) page.get(page.size() - 1)[0];
+        }
+
+        lock.writeLock().lock();
+        try {
+            pendingDuringBuild.forEach(change -> change.accept(loaded));
+            pendingDuringBuild = null;
+            columns = loaded;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Loaded policy portfolio snapshot of {} policies in {} ms", loaded.size(),
+                (System.nanoTime() - start) / 1_000_000);
+        return loaded.size();
+    }
+
+    public void policySaved(Policy policy) {
+        long id = policy.getId();
+        int type = policy.getType().ordinal();
+        int startDay = (int) policy.getStartDate().toEpochDay();
+        int endDay = (int) policy.getEndDate().toEpochDay();
+        long coverage = toCents(policy.getCoverageAmount());
+        afterCommit(target -> target.put(id, type, startDay, endDay, coverage));
+    }
+
+    public void policyDeleted(Long id) {
+        afterCommit(target -> target.remove(id));
+    }
+
+    /**
+     * @param type     only policies of this type, or null for all
+     * @param activeOn only policies in force on this date, or null for all
+     */
+    public List<ExposureBucketDto> aggregate(PolicyType type, LocalDate activeOn, PortfolioColumns.GroupBy groupBy) {
+        PortfolioColumns.Query query = new PortfolioColumns.Query(
+                type == null ? -1 : type.ordinal(),
+                activeOn == null ? PortfolioColumns.ANY_DAY : activeOn.toEpochDay(),
+                groupBy);
+
+        PortfolioColumns.Result result;
+        lock.readLock().lock();
+        try {
+            if (columns == null) {
+                throw new IllegalStateException("Policy portfolio snapshot is still loading");
+            }
+            result = columns.aggregate(query, pool);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<ExposureBucketDto> buckets = new ArrayList<>();
+        for (int i = 0; i < result.policies().length; i++) {
+            if (result.policies()[i] == 0) {
+                continue;
+            }
+            int key = result.firstKey() + i;
+            String label = switch (groupBy) {
+                case TYPE -> PolicyType.values()[key].name();
+                case START_MONTH, END_MONTH -> EPOCH_MONTH.plusMonths(key).toString();
+                case NONE -> "ALL";
+            };
+            buckets.add(new ExposureBucketDto(label, result.policies()[i],
+                    BigDecimal.valueOf(result.coverageCents()[i], 2)));
+        }
+        return buckets;
+    }
+
+    private void afterCommit(Consumer<PortfolioColumns> change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(change);
+                }
+            });
+        } else {
+            apply(change);
+        }
+    }
+
+    private void apply(Consumer<PortfolioColumns> change) {
+        lock.writeLock().lock();
+        try {
+            if (columns != null) {
+                change.accept(columns);
+            }
+            if (pendingDuringBuild != null) {
+                pendingDuringBuild.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int size() {
+        lock.readLock().lock();
+        try {
+            return columns == null ? 0 : columns.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+}
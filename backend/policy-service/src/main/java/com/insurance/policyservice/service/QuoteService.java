@@ -0,0 +1,132 @@
+package com.insurance.policyservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insurance.policyservice.dto.QuoteDto;
+import com.insurance.policyservice.dto.QuoteRequest;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Prices policies from the rating rules at {@code insurance.quoting.rules-location}.
+ * The rules are compiled into a {@link RatingTable} and published through an
+ * atomic reference, so a reload swaps every quoting thread to the new rules
+ * at once and a batch is always priced against a single version.
+ */
+@Service
+public class QuoteService {
+    private static final Logger logger = LoggerFactory.getLogger(QuoteService.class);
+
+    @Autowired
+    private ResourceLoader resourceLoader;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${insurance.quoting.rules-location:classpath:rating-rules.json}")
+    private String rulesLocation;
+
+    @Value("${insurance.quoting.max-batch-size:1000}")
+    private int maxBatchSize;
+
+    private final AtomicReference<RatingTable> table = new AtomicReference<>();
+    private volatile long rulesLastModified;
+
+    @PostConstruct
+    void init() {
+        reload();
+    }
+
+    /** Recompiles the rules; on any error the current table stays in place. */
+    public synchronized String reload() {
+        Resource resource = resourceLoader.getResource(rulesLocation);
+        long lastModified = lastModified(resource);
+        RatingTable compiled;
+        try (InputStream in = resource.getInputStream()) {
+            compiled = RatingTable.compile(objectMapper.readValue(in, RatingRules.class));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Could not read rating rules from " + rulesLocation + ": " + e.getMessage(), e);
+        }
+        RatingTable previous = table.getAndSet(compiled);
+        rulesLastModified = lastModified;
+        logger.info("Loaded rating rules version {} (was {})", compiled.version(),
+                previous == null ? "none" : previous.version());
+        return compiled.version();
+    }
+
+    // Picks up edits to a rules file on disk; resources without a timestamp are only reloaded on request
+    @Scheduled(fixedDelayString = "${insurance.quoting.reload-interval-ms:10000}")
+    public void reloadIfChanged() {
+        long lastModified = lastModified(resourceLoader.getResource(rulesLocation));
+        if (lastModified <= 0 || lastModified == rulesLastModified) {
+            return;
+        }
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            rulesLastModified = lastModified;
+            logger.error("Rejected changed rating rules at {}; still quoting with version {}", rulesLocation,
+                    table.get().version(), e);
+        }
+    }
+
+    public QuoteDto quote(QuoteRequest request) {
+        return quote(table.get(), request);
+    }
+
+    public List<QuoteDto> quoteAll(List<QuoteRequest> requests) {
+        if (requests.size() > maxBatchSize) {
+            throw new IllegalArgumentException("At most " + maxBatchSize + " quotes per batch");
+        }
+        RatingTable rates = table.get();
+        List<QuoteDto> quotes = new ArrayList<>(requests.size());
+        for (QuoteRequest request : requests) {
+            quotes.add(quote(rates, request));
+        }
+        return quotes;
+    }
+
+    private static QuoteDto quote(RatingTable rates, QuoteRequest request) {
+        if (request == null || request.getType() == null || request.getCoverageAmount() == null
+                || request.getStartDate() == null || request.getEndDate() == null) {
+            throw new IllegalArgumentException("Quote needs type, coverageAmount, startDate and endDate");
+        }
+        if (request.getCoverageAmount().signum() <= 0) {
+            throw new IllegalArgumentException("Coverage amount must be positive");
+        }
+        if (request.getEndDate().isBefore(request.getStartDate())) {
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
+        if (!rates.supports(request.getType())) {
+            throw new IllegalArgumentException("No rating rules for policy type " + request.getType());
+        }
+        // End dates are inclusive, so a same-day policy is one day of cover
+        int termDays = Math.toIntExact(ChronoUnit.DAYS.between(request.getStartDate(), request.getEndDate()) + 1);
+        long premium = rates.quoteCents(request.getType().ordinal(),
+                RatingTable.toCents(request.getCoverageAmount()), termDays);
+        return new QuoteDto(request.getType(), request.getCoverageAmount(), request.getStartDate(),
+                request.getEndDate(), termDays, BigDecimal.valueOf(premium, 2), rates.version());
+    }
+
+    private static long lastModified(Resource resource) {
+        try {
+            return resource.isFile() ? resource.lastModified() : 0;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
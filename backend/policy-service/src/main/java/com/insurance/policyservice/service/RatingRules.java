@@ -0,0 +1,33 @@
+package com.insurance.policyservice.service;
+
+import com.insurance.policyservice.model.PolicyType;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rating rules as written in {@code rating-rules.json}; compiled into a
+ * {@link RatingTable} before use.
+ *
+ * @param types       rules per policy type; types without rules cannot be quoted
+ * @param termFactors loadings by policy length, ascending, the last one open-ended
+ */
+public record RatingRules(String version, Map<PolicyType, TypeRules> types, List<TermBand> termFactors) {
+
+    /**
+     * @param baseRatePerMille annual premium per 1000 of coverage before band factors
+     * @param minimumPremium   floor applied after term proration
+     * @param coverageBands    marginal bands, ascending, the last one open-ended
+     */
+    public record TypeRules(BigDecimal baseRatePerMille, BigDecimal minimumPremium, List<CoverageBand> coverageBands) {
+    }
+
+    /** Coverage up to {@code upTo} (null for no limit) is rated at base rate times {@code factor}. */
+    public record CoverageBand(BigDecimal upTo, double factor) {
+    }
+
+    /** Policies of at most {@code upToDays} days (null for no limit) are loaded by {@code factor}. */
+    public record TermBand(Integer upToDays, double factor) {
+    }
+}
@@ -0,0 +1,138 @@
+package com.insurance.policyservice.service;
+
+import com.insurance.policyservice.model.PolicyType;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+/**
+ * {@link RatingRules} compiled to primitive arrays indexed by policy type
+ * ordinal. Immutable once built, so it is shared by every quoting thread
+ * without locking and replaced wholesale when the rules change; pricing a
+ * quote allocates nothing.
+ *
+ * Annual premium is the sum over coverage bands of the coverage falling in
+ * the band times the band's rate. The premium for each full band below is
+ * precomputed, so a quote costs one band scan plus one term-band scan.
+ */
+public final class RatingTable {
+    private static final int DAYS_PER_YEAR = 365;
+
+    private final String version;
+    // Per type ordinal; null rows for types without rules
+    private final long[][] bandUpperCents;
+    private final double[][] bandRates;
+    private final double[][] bandBaseCents;
+    private final long[] minimumCents;
+    private final int[] termUpperDays;
+    private final double[] termFactors;
+
+    private RatingTable(String version, long[][] bandUpperCents, double[][] bandRates, double[][] bandBaseCents,
+                        long[] minimumCents, int[] termUpperDays, double[] termFactors) {
+        this.version = version;
+        this.bandUpperCents = bandUpperCents;
+        this.bandRates = bandRates;
+        this.bandBaseCents = bandBaseCents;
+        this.minimumCents = minimumCents;
+        this.termUpperDays = termUpperDays;
+        this.termFactors = termFactors;
+    }
+
+    public static RatingTable compile(RatingRules rules) {
+        if (rules.types() == null || rules.types().isEmpty()) {
+            throw new IllegalArgumentException("Rating rules define no policy types");
+        }
+        int types = PolicyType.values().length;
+        long[][] upper = new long[types][];
+        double[][] rates = new double[types][];
+        double[][] base = new double[types][];
+        long[] minimum = new long[types];
+
+        rules.types().forEach((type, typeRules) -> {
+            List<RatingRules.CoverageBand> bands = typeRules.coverageBands();
+            if (typeRules.baseRatePerMille() == null || bands == null || bands.isEmpty()) {
+                throw new IllegalArgumentException("Rating rules for " + type + " need a base rate and coverage bands");
+            }
+            double ratePerCent = typeRules.baseRatePerMille().doubleValue() / 1000;
+            int t = type.ordinal();
+            upper[t] = new long[bands.size()];
+            rates[t] = new double[bands.size()];
+            base[t] = new double[bands.size()];
+            long lower = 0;
+            double accumulated = 0;
+            for (int i = 0; i < bands.size(); i++) {
+                RatingRules.CoverageBand band = bands.get(i);
+                boolean lastBand = i == bands.size() - 1;
+                if ((band.upTo() == null) != lastBand) {
+                    throw new IllegalArgumentException("Only the last coverage band for " + type + " may be open-ended, and it must be");
+                }
+                long bandUpper = lastBand ? Long.MAX_VALUE : toCents(band.upTo());
+                if (bandUpper <= lower) {
+                    throw new IllegalArgumentException("Coverage bands for " + type + " must be ascending");
+                }
+                upper[t][i] = bandUpper;
+                rates[t][i] = ratePerCent * band.factor();
+                base[t][i] = accumulated;
+                if (!lastBand) {
+                    accumulated += (bandUpper - lower) * rates[t][i];
+                }
+                lower = bandUpper;
+            }
+            minimum[t] = typeRules.minimumPremium() == null ? 0 : toCents(typeRules.minimumPremium());
+        });
+
+        List<RatingRules.TermBand> terms = rules.termFactors();
+        if (terms == null || terms.isEmpty()) {
+            throw new IllegalArgumentException("Rating rules define no term factors");
+        }
+        int[] termUpper = new int[terms.size()];
+        double[] termFactor = new double[terms.size()];
+        for (int i = 0; i < terms.size(); i++) {
+            RatingRules.TermBand band = terms.get(i);
+            boolean lastBand = i == terms.size() - 1;
+            if ((band.upToDays() == null) != lastBand) {
+                throw new IllegalArgumentException("Only the last term band may be open-ended, and it must be");
+            }
+            termUpper[i] = lastBand ? Integer.MAX_VALUE : band.upToDays();
+            if (i > 0 && termUpper[i] <= termUpper[i - 1]) {
+                throw new IllegalArgumentException("Term bands must be ascending");
+            }
+            termFactor[i] = band.factor();
+        }
+        return new RatingTable(rules.version(), upper, rates, base, minimum, termUpper, termFactor);
+    }
+
+    public String version() {
+        return version;
+    }
+
+    public boolean supports(PolicyType type) {
+        return bandUpperCents[type.ordinal()] != null;
+    }
+
+    /**
+     * Premium in cents for {@code coverageCents} of cover over {@code termDays}
+     * days. The caller checks {@link #supports}, a positive coverage and a positive term.
+     */
+    public long quoteCents(int typeOrdinal, long coverageCents, int termDays) {
+        long[] upper = bandUpperCents[typeOrdinal];
+        int band = 0;
+        while (coverageCents > upper[band]) {
+            band++;
+        }
+        long lower = band == 0 ? 0 : upper[band - 1];
+        double annual = bandBaseCents[typeOrdinal][band] + (coverageCents - lower) * bandRates[typeOrdinal][band];
+
+        int term = 0;
+        while (termDays > termUpperDays[term]) {
+            term++;
+        }
+        long premium = Math.round(annual * termDays / DAYS_PER_YEAR * termFactors[term]);
+        return Math.max(premium, minimumCents[typeOrdinal]);
+    }
+
+    static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+}
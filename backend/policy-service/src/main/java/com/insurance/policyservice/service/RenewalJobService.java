@@ -0,0 +1,336 @@
+package com.insurance.policyservice.service;
+
+import com.insurance.policyservice.dto.RenewalChunkDto;
+import com.insurance.policyservice.dto.RenewalJobReport;
+import com.insurance.policyservice.model.Policy;
+import com.insurance.policyservice.model.RenewalCheckpoint;
+import com.insurance.policyservice.model.RenewalJob;
+import com.insurance.policyservice.model.RenewalJobStatus;
+import com.insurance.policyservice.repository.PolicyRepository;
+import com.insurance.policyservice.repository.RenewalCheckpointRepository;
+import com.insurance.policyservice.repository.RenewalJobRepository;
+import com.insurance.policyservice.shard.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Renews the policies expiring in a date window. The window is split into
+ * {@code partitions} by policy id, partitions run in parallel on a fixed
+ * worker pool, and each partition walks its policies in id order one chunk
+ * per transaction. The chunk's renewals and the partition's checkpoint
+ * commit together, so a job interrupted by a crash or shutdown is resumed
+ * from its checkpoints without renewing anything twice.
+ *
+ * A chunk that fails is retried one policy per transaction; policies that
+ * still fail are counted, logged and skipped.
+ *
+ * A chunk and its checkpoint must commit together, so jobs are refused
+ * while policies are sharded.
+ */
+@Service
+public class RenewalJobService {
+    private static final Logger logger = LoggerFactory.getLogger(RenewalJobService.class);
+
+    private static final int RECENT_CHUNKS = 100;
+
+    @Autowired
+    private RenewalJobRepository renewalJobRepository;
+
+    @Autowired
+    private RenewalCheckpointRepository renewalCheckpointRepository;
+
+    @Autowired
+    private PolicyRepository policyRepository;
+
+    @Autowired
+    private PolicyService policyService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${insurance.renewals.chunk-size:500}")
+    private int defaultChunkSize;
+
+    @Value("${insurance.renewals.partitions:4}")
+    private int defaultPartitions;
+
+    @Value("${insurance.renewals.worker-threads:4}")
+    private int workerThreads;
+
+    private TransactionTemplate transactionTemplate;
+    private ExecutorService workers;
+    private Counter renewedItems;
+    private Counter failedItems;
+    private Timer chunkTimer;
+
+    private final Set<Long> runningJobs = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Deque<RenewalChunkDto>> recentChunks = new ConcurrentHashMap<>();
+    private volatile boolean shuttingDown;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        AtomicInteger threads = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(Math.max(1, workerThreads), runnable -> {
+            Thread thread = new Thread(runnable, "renewal-worker-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        renewedItems = meterRegistry.counter("policy.renewal.items", "result", "renewed");
+        failedItems = meterRegistry.counter("policy.renewal.items", "result", "failed");
+        chunkTimer = meterRegistry.timer("policy.renewal.chunk");
+    }
+
+    @PreDestroy
+    void shutdown() {
+        shuttingDown = true;
+        workers.shutdownNow();
+    }
+
+    // Jobs still RUNNING in the database were cut off by a shutdown or crash; pick them up where they stopped
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedJobs() {
+        for (RenewalJob job : renewalJobRepository.findByStatus(RenewalJobStatus.RUNNING)) {
+            logger.info("Resuming renewal job {} interrupted before completion", job.getId());
+            launch(job);
+        }
+    }
+
+    public RenewalJob startJob(LocalDate from, LocalDate to, Integer chunkSize, Integer partitions) {
+        int size = chunkSize == null ? defaultChunkSize : chunkSize;
+        int parts = partitions == null ? defaultPartitions : partitions;
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new IllegalArgumentException("Renewal window must have from <= to");
+        }
+        if (size <= 0 || parts <= 0) {
+            throw new IllegalArgumentException("Chunk size and partitions must be positive");
+        }
+        if (shardRouter.isEnabled()) {
+            throw new IllegalStateException("Renewal jobs are not available while policies are sharded");
+        }
+
+        RenewalJob job = transactionTemplate.execute(status -> {
+            RenewalJob created = renewalJobRepository.save(new RenewalJob(null, from, to, policyRepository.findMaxId(),
+                    size, parts, RenewalJobStatus.RUNNING, Instant.now(), null));
+            for (int partition = 0; partition < parts; partition++) {
+                renewalCheckpointRepository.save(new RenewalCheckpoint(null, created.getId(), partition, 0L, 0L, 0L,
+                        false, Instant.now()));
+            }
+            return created;
+        });
+        logger.info("Started renewal job {} for policies ending {} to {} ({} partitions, chunks of {})",
+                job.getId(), from, to, parts, size);
+        launch(job);
+        return job;
+    }
+
+    public RenewalJob resumeJob(Long id) {
+        RenewalJob job = renewalJobRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Renewal job not found with id: " + id));
+        if (job.getStatus() == RenewalJobStatus.COMPLETED || runningJobs.contains(id)) {
+            return job;
+        }
+        job.setStatus(RenewalJobStatus.RUNNING);
+        job.setFinishedAt(null);
+        RenewalJob saved = renewalJobRepository.save(job);
+        launch(saved);
+        return saved;
+    }
+
+    public RenewalJobReport getReport(Long id) {
+        RenewalJob job = renewalJobRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Renewal job not found with id: " + id));
+        List<RenewalCheckpoint> partitions = renewalCheckpointRepository.findByJobIdOrderByPartitionIndex(id);
+        Deque<RenewalChunkDto> chunks = recentChunks.get(id);
+        List<RenewalChunkDto> recent;
+        if (chunks == null) {
+            recent = List.of();
+        } else {
+            synchronized (chunks) {
+                recent = new ArrayList<>(chunks);
+            }
+        }
+        return new RenewalJobReport(job,
+                partitions.stream().mapToLong(RenewalCheckpoint::getRenewed).sum(),
+                partitions.stream().mapToLong(RenewalCheckpoint::getFailed).sum(),
+                partitions, recent);
+    }
+
+    private void launch(RenewalJob job) {
+        if (!runningJobs.add(job.getId())) {
+            return;
+        }
+        List<CompletableFuture<Void>> tasks = renewalCheckpointRepository.findByJobIdOrderByPartitionIndex(job.getId())
+                .stream()
+                .filter(checkpoint -> !checkpoint.isCompleted())
+                .map(checkpoint -> CompletableFuture.runAsync(() -> runPartition(job, checkpoint.getId()), workers))
+                .collect(Collectors.toList());
+        CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0]))
+                .whenComplete((ignored, failure) -> finish(job.getId(), failure));
+    }
+
+    private void finish(Long jobId, Throwable failure) {
+        runningJobs.remove(jobId);
+        if (shuttingDown) {
+            return;
+        }
+        RenewalJob job = renewalJobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return;
+        }
+        job.setStatus(failure == null ? RenewalJobStatus.COMPLETED : RenewalJobStatus.FAILED);
+        job.setFinishedAt(Instant.now());
+        renewalJobRepository.save(job);
+        if (failure == null) {
+            logger.info("Renewal job {} completed", jobId);
+        } else {
+            logger.error("Renewal job {} failed; resume it to continue from its checkpoints", jobId, failure);
+        }
+    }
+
+    private void runPartition(RenewalJob job, Long checkpointId) {
+        while (!shuttingDown) {
+            long start = System.nanoTime();
+            RenewalChunkDto chunk;
+            try {
+                chunk = transactionTemplate.execute(status -> renewChunk(job, checkpointId));
+            } catch (RuntimeException e) {
+                logger.warn("Renewal job {} chunk failed, retrying its policies one at a time: {}",
+                        job.getId(), e.getMessage());
+                chunk = renewChunkItemByItem(job, checkpointId);
+            }
+            if (chunk == null) {
+                return;
+            }
+            long nanos = System.nanoTime() - start;
+            chunkTimer.record(nanos, TimeUnit.NANOSECONDS);
+            report(job.getId(), chunk, nanos);
+        }
+    }
+
+    // Runs inside one transaction: the renewals and the advanced checkpoint commit or roll back together
+    private RenewalChunkDto renewChunk(RenewalJob job, Long checkpointId) {
+        RenewalCheckpoint checkpoint = renewalCheckpointRepository.findById(checkpointId).orElseThrow();
+        if (checkpoint.isCompleted()) {
+            return null;
+        }
+        List<Policy> expiring = nextChunk(job, checkpoint);
+        for (Policy policy : expiring) {
+            policyService.renewPolicy(policy);
+        }
+        advance(checkpoint, expiring.isEmpty() ? null : expiring.get(expiring.size() - 1).getId(),
+                expiring.size(), 0, expiring.size() < job.getChunkSize());
+        return expiring.isEmpty() ? null : new RenewalChunkDto(checkpoint.getPartitionIndex(),
+                expiring.get(0).getId(), checkpoint.getLastPolicyId(), expiring.size(), 0, List.of(), null, null, null);
+    }
+
+    private RenewalChunkDto renewChunkItemByItem(RenewalJob job, Long checkpointId) {
+        RenewalCheckpoint checkpoint = renewalCheckpointRepository.findById(checkpointId).orElseThrow();
+        if (checkpoint.isCompleted()) {
+            return null;
+        }
+        List<Long> ids = transactionTemplate.execute(status -> nextChunk(job, checkpoint).stream()
+                .map(Policy::getId)
+                .collect(Collectors.toList()));
+        int renewed = 0;
+        List<Long> failedIds = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            Long policyId = ids.get(i);
+            boolean last = i == ids.size() - 1 && ids.size() < job.getChunkSize();
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    Policy policy = policyRepository.findById(policyId)
+                            .orElseThrow(() -> new RuntimeException("Policy not found with id: " + policyId));
+                    policyService.renewPolicy(policy);
+                    advance(renewalCheckpointRepository.findById(checkpointId).orElseThrow(), policyId, 1, 0, last);
+                });
+                renewed++;
+            } catch (RuntimeException e) {
+                logger.warn("Renewal job {} could not renew policy {}: {}", job.getId(), policyId, e.getMessage());
+                transactionTemplate.executeWithoutResult(status ->
+                        advance(renewalCheckpointRepository.findById(checkpointId).orElseThrow(), policyId, 0, 1, last));
+                failedIds.add(policyId);
+            }
+        }
+        if (ids.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status ->
+                    advance(renewalCheckpointRepository.findById(checkpointId).orElseThrow(), null, 0, 0, true));
+            return null;
+        }
+        return new RenewalChunkDto(checkpoint.getPartitionIndex(), ids.get(0), ids.get(ids.size() - 1),
+                renewed, failedIds.size(), failedIds, null, null, null);
+    }
+
+    private List<Policy> nextChunk(RenewalJob job, RenewalCheckpoint checkpoint) {
+        return policyRepository.findExpiringChunk(job.getWindowStart(), job.getWindowEnd(), job.getPartitions(),
+                checkpoint.getPartitionIndex(), checkpoint.getLastPolicyId(), job.getMaxPolicyId(),
+                PageRequest.of(0, job.getChunkSize()));
+    }
+
+    private void advance(RenewalCheckpoint checkpoint, Long lastPolicyId, int renewed, int failed, boolean completed) {
+        if (lastPolicyId != null) {
+            checkpoint.setLastPolicyId(lastPolicyId);
+        }
+        checkpoint.setRenewed(checkpoint.getRenewed() + renewed);
+        checkpoint.setFailed(checkpoint.getFailed() + failed);
+        checkpoint.setCompleted(completed);
+        checkpoint.setUpdatedAt(Instant.now());
+        renewalCheckpointRepository.save(checkpoint);
+    }
+
+    private void report(Long jobId, RenewalChunkDto chunk, long nanos) {
+        int items = chunk.getRenewed() + chunk.getFailed();
+        chunk.setDurationMs(nanos / 1_000_000);
+        chunk.setItemsPerSecond(nanos == 0 ? 0.0 : items * 1_000_000_000.0 / nanos);
+        chunk.setFinishedAt(Instant.now());
+        renewedItems.increment(chunk.getRenewed());
+        failedItems.increment(chunk.getFailed());
+
+        logger.info("Renewal job {} partition {}: policies {}..{} renewed {}, failed {} in {} ms ({} items/s)",
+                jobId, chunk.getPartition(), chunk.getFirstPolicyId(), chunk.getLastPolicyId(), chunk.getRenewed(),
+                chunk.getFailed(), chunk.getDurationMs(), Math.round(chunk.getItemsPerSecond()));
+
+        Deque<RenewalChunkDto> chunks = recentChunks.computeIfAbsent(jobId, id -> new ArrayDeque<>());
+        synchronized (chunks) {
+            chunks.addLast(chunk);
+            if (chunks.size() > RECENT_CHUNKS) {
+                chunks.removeFirst();
+            }
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.insurance.policyservice.service;
+
+import java.util.Arrays;
+
+/**
+ * Per-key event count and amount over the last {@code buckets} time buckets,
+ * for millions of keys without an object per key. Keys are spread over
+ * independently locked stripes; each stripe is an open-addressing table of
+ * primitive arrays holding, per key, its newest bucket and a ring of bucket
+ * totals. Ring slots older than the window are zeroed as a key moves
+ * forward, and keys with nothing left in the window are dropped whenever a
+ * stripe is rehashed or swept.
+ *
+ * Keys must be non-zero. Bucket numbers are whatever the caller counts in
+ * (e.g. days since the epoch divided by the bucket width).
+ */
+public class SlidingWindowCounters {
+    private static final long EMPTY = 0;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private final int buckets;
+    private final Stripe[] stripes;
+    private final int stripeShift;
+
+    public SlidingWindowCounters(int buckets, int stripes, int initialKeysPerStripe) {
+        if (buckets <= 0 || Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("buckets must be positive and stripes a power of two");
+        }
+        this.buckets = buckets;
+        this.stripes = new Stripe[stripes];
+        this.stripeShift = 64 - Integer.numberOfTrailingZeros(stripes);
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (initialKeysPerStripe / LOAD_FACTOR)) * 2 - 1);
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new Stripe(capacity);
+        }
+    }
+
+    /**
+     * Adds one event of {@code amount} to {@code key} in {@code bucket} and
+     * writes the key's totals over the window ending at {@code bucket} into
+     * {@code totals[0]} (events) and {@code totals[1]} (amount). Events older
+     * than the key's window are not counted.
+     */
+    public void addAndSum(long key, int bucket, long amount, long[] totals) {
+        long hash = mix(key);
+        Stripe stripe = stripes[stripeShift == 64 ? 0 : (int) (hash >>> stripeShift)];
+        synchronized (stripe) {
+            int index = stripe.findOrInsert(key, hash, bucket);
+            stripe.add(index, bucket, amount);
+            stripe.sum(index, bucket, totals);
+        }
+    }
+
+    /** Totals for {@code key} over the window ending at {@code bucket}, without recording anything. */
+    public void sum(long key, int bucket, long[] totals) {
+        long hash = mix(key);
+        Stripe stripe = stripes[stripeShift == 64 ? 0 : (int) (hash >>> stripeShift)];
+        synchronized (stripe) {
+            int index = stripe.find(key, hash);
+            if (index < 0) {
+                totals[0] = 0;
+                totals[1] = 0;
+            } else {
+                stripe.sum(index, bucket, totals);
+            }
+        }
+    }
+
+    /**
+     * Takes back one event of {@code amount} added to {@code key} in
+     * {@code bucket}; does nothing if that bucket has already left the key's
+     * window.
+     */
+    public void remove(long key, int bucket, long amount) {
+        long hash = mix(key);
+        Stripe stripe = stripes[stripeShift == 64 ? 0 : (int) (hash >>> stripeShift)];
+        synchronized (stripe) {
+            int index = stripe.find(key, hash);
+            if (index >= 0) {
+                stripe.remove(index, bucket, amount);
+            }
+        }
+    }
+
+    /** Drops keys with no events in the window ending at {@code currentBucket}; returns how many. */
+    public int sweep(int currentBucket) {
+        int removed = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                int before = stripe.size;
+                stripe.rehash(stripe.keys.length, currentBucket);
+                removed += before - stripe.size;
+            }
+        }
+        return removed;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size;
+            }
+        }
+        return size;
+    }
+
+    /** Bytes held by the stripes' arrays. */
+    public long memoryBytes() {
+        long bytes = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                bytes += stripe.keys.length * (8L + 4L + buckets * (4L + 8L));
+            }
+        }
+        return bytes;
+    }
+
+    private final class Stripe {
+        long[] keys;
+        int[] newestBuckets;
+        // Ring of per-bucket totals, buckets entries per key: slot for bucket b is b % buckets
+        int[] counts;
+        long[] amounts;
+        int size;
+        int newestSeen = Integer.MIN_VALUE;
+
+        Stripe(int capacity) {
+            allocate(capacity);
+        }
+
+        int find(long key, long hash) {
+            int mask = keys.length - 1;
+            for (int index = (int) hash & mask; ; index = (index + 1) & mask) {
+                if (keys[index] == key) {
+                    return index;
+                }
+                if (keys[index] == EMPTY) {
+                    return -1;
+                }
+            }
+        }
+
+        int findOrInsert(long key, long hash, int bucket) {
+            newestSeen = Math.max(newestSeen, bucket);
+            int mask = keys.length - 1;
+            int index = (int) hash & mask;
+            while (keys[index] != EMPTY) {
+                if (keys[index] == key) {
+                    return index;
+                }
+                index = (index + 1) & mask;
+            }
+            if (size + 1 > keys.length * LOAD_FACTOR) {
+                // Expired keys are dropped first; only grow if the live keys still don't fit
+                rehash(keys.length, newestSeen);
+                if (size + 1 > keys.length * LOAD_FACTOR / 2) {
+                    rehash(keys.length * 2, newestSeen);
+                }
+                return findOrInsert(key, hash, bucket);
+            }
+            keys[index] = key;
+            newestBuckets[index] = bucket;
+            size++;
+            return index;
+        }
+
+        void add(int index, int bucket, long amount) {
+            int newest = newestBuckets[index];
+            if (bucket <= newest - buckets) {
+                return;
+            }
+            if (bucket > newest) {
+                // Zero the slots the window slides past
+                int base = index * buckets;
+                for (long b = Math.max((long) newest + 1, (long) bucket - buckets + 1); b <= bucket; b++) {
+                    int slot = base + Math.floorMod((int) b, buckets);
+                    counts[slot] = 0;
+                    amounts[slot] = 0;
+                }
+                newestBuckets[index] = bucket;
+            }
+            int slot = index * buckets + Math.floorMod(bucket, buckets);
+            counts[slot]++;
+            amounts[slot] += amount;
+        }
+
+        void remove(int index, int bucket, long amount) {
+            int newest = newestBuckets[index];
+            if (bucket <= newest - buckets || bucket > newest) {
+                return;
+            }
+            int slot = index * buckets + Math.floorMod(bucket, buckets);
+            if (counts[slot] > 0) {
+                counts[slot]--;
+                amounts[slot] -= amount;
+            }
+        }
+
+        void sum(int index, int bucket, long[] totals) {
+            int newest = newestBuckets[index];
+            long from = Math.max((long) bucket - buckets + 1, (long) newest - buckets + 1);
+            long to = Math.min(bucket, newest);
+            long count = 0;
+            long amount = 0;
+            int base = index * buckets;
+            for (long b = from; b <= to; b++) {
+                int slot = base + Math.floorMod((int) b, buckets);
+                count += counts[slot];
+                amount += amounts[slot];
+            }
+            totals[0] = count;
+            totals[1] = amount;
+        }
+
+        void rehash(int capacity, int currentBucket) {
+            long[] oldKeys = keys;
+            int[] oldNewest = newestBuckets;
+            int[] oldCounts = counts;
+            long[] oldAmounts = amounts;
+            allocate(capacity);
+            size = 0;
+            int mask = capacity - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] == EMPTY || oldNewest[i] <= (long) currentBucket - buckets) {
+                    continue;
+                }
+                int index = (int) mix(oldKeys[i]) & mask;
+                while (keys[index] != EMPTY) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[i];
+                newestBuckets[index] = oldNewest[i];
+                System.arraycopy(oldCounts, i * buckets, counts, index * buckets, buckets);
+                System.arraycopy(oldAmounts, i * buckets, amounts, index * buckets, buckets);
+                size++;
+            }
+        }
+
+        private void allocate(int capacity) {
+            keys = new long[capacity];
+            newestBuckets = new int[capacity];
+            counts = new int[capacity * buckets];
+            amounts = new long[capacity * buckets];
+            Arrays.fill(newestBuckets, Integer.MIN_VALUE);
+        }
+    }
+
+    // MurmurHash3 finalizer: stripe from the high bits, slot from the low bits
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb93e45d3b98dL;
+        key ^= key >>> 33;
+        return key;
+    }
+}
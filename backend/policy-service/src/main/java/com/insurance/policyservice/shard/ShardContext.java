@@ -0,0 +1,24 @@
+package com.insurance.policyservice.shard;
+
+/**
+ * The shard the current thread's connections come from; unbound means
+ * shard 0, which also holds the tables that are not sharded.
+ */
+final class ShardContext {
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    static Integer current() {
+        return CURRENT.get();
+    }
+
+    static void set(Integer shard) {
+        if (shard == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(shard);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.insurance.policyservice.shard;
+
+/**
+ * Layout of shard-aware ids: {@code sequence | origin shard | bucket}, low
+ * bits last. The bucket is a hash of the owning customer, so a policy and
+ * its claims share one, and an id alone says which shard holds the row.
+ * The origin shard only keeps ids from different shards' sequences apart;
+ * rows keep their ids when their bucket moves.
+ */
+public final class ShardIds {
+    public static final int BUCKET_BITS = 10;
+    public static final int BUCKETS = 1 << BUCKET_BITS;
+    public static final int SHARD_BITS = 6;
+    public static final int MAX_SHARDS = 1 << SHARD_BITS;
+
+    // Ids stay below 2^53 so JavaScript clients read them exactly
+    static final long MAX_SEQUENCE = (1L << (53 - BUCKET_BITS - SHARD_BITS)) - 1;
+
+    private ShardIds() {
+    }
+
+    public static int bucketOfId(long id) {
+        return (int) (id & (BUCKETS - 1));
+    }
+
+    public static int bucketOfCustomer(long customerId) {
+        return (int) (mix(customerId) & (BUCKETS - 1));
+    }
+
+    static long compose(long sequence, int shard, int bucket) {
+        if (sequence > MAX_SEQUENCE) {
+            throw new IllegalStateException("Shard " + shard + " has run out of ids");
+        }
+        return (((sequence << SHARD_BITS) | shard) << BUCKET_BITS) | bucket;
+    }
+
+    // MurmurHash3 finalizer: customer ids are sequential, buckets must not be
+    static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
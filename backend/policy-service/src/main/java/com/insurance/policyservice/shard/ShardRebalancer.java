@@ -0,0 +1,202 @@
+package com.insurance.policyservice.shard;
+
+import com.insurance.policyservice.dto.ShardMoveResult;
+import com.insurance.policyservice.service.ClaimRollupService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.StringJoiner;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Online bucket moves. Each bucket is moved on its own: it is flagged as
+ * moving on its source shard, which waits for in-flight writes on every
+ * instance and turns later ones away; its policies and claims are copied to
+ * the target shard in one transaction that also hands the target the
+ * bucket; the assignment is switched, and only then are the source rows
+ * deleted. Reads keep going throughout and see the rows on one shard or the
+ * other. A move interrupted before the switch leaves the bucket's writes
+ * turned away, and one interrupted after it leaves rows behind on the
+ * source; running it again finishes either.
+ */
+@Service
+public class ShardRebalancer {
+    private static final Logger logger = LoggerFactory.getLogger(ShardRebalancer.class);
+
+    private static final String BUCKET_CLAUSE = " WHERE MOD(id, " + ShardIds.BUCKETS + ") = ?";
+    private static final int COPY_BATCH = 500;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private ClaimRollupService claimRollupService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${insurance.shards.rebalance.lock-wait-ms:30000}")
+    private long lockWaitMs;
+
+    // Picks up moves made by other instances
+    @Scheduled(fixedDelayString = "${insurance.shards.refresh-interval-ms:5000}")
+    public void refreshAssignments() {
+        shardRouter.refresh();
+    }
+
+    public synchronized ShardMoveResult move(int fromBucket, int toBucket, int targetShard) {
+        if (!shardRouter.isEnabled()) {
+            throw new IllegalStateException("Sharding is not enabled");
+        }
+        if (fromBucket < 0 || toBucket >= ShardIds.BUCKETS || fromBucket > toBucket) {
+            throw new IllegalArgumentException("Buckets must satisfy 0 <= from <= to < " + ShardIds.BUCKETS);
+        }
+        if (targetShard < 0 || targetShard >= shardRouter.shardCount()) {
+            throw new IllegalArgumentException("No shard " + targetShard);
+        }
+        long start = System.nanoTime();
+        int moved = 0;
+        long[] copied = new long[2];
+        for (int bucket = fromBucket; bucket <= toBucket; bucket++) {
+            if (moveBucket(bucket, targetShard, copied)) {
+                moved++;
+            }
+        }
+        if (moved > 0) {
+            // Each shard's rollups only cover its own claims
+            claimRollupService.rebuild();
+        }
+        meterRegistry.counter("shards.moves").increment(moved);
+        logger.info("Moved {} of buckets {}-{} to shard {} ({} policies, {} claims) in {} ms", moved, fromBucket,
+                toBucket, targetShard, copied[0], copied[1], (System.nanoTime() - start) / 1_000_000);
+        return new ShardMoveResult(targetShard, moved, copied[0], copied[1]);
+    }
+
+    private boolean moveBucket(int bucket, int targetShard, long[] copied) {
+        Lock lock = shardRouter.lockForMove(bucket, lockWaitMs);
+        try {
+            int sourceShard = shardRouter.shardOfBucket(bucket);
+            boolean moving = sourceShard != targetShard;
+            if (moving) {
+                flagMoving(bucket, sourceShard, true);
+                try {
+                    copy(bucket, sourceShard, targetShard, copied);
+                } catch (RuntimeException e) {
+                    flagMoving(bucket, sourceShard, false);
+                    throw e;
+                }
+                shardRouter.assign(bucket, targetShard);
+            }
+            for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+                if (shard != targetShard) {
+                    purge(bucket, shard);
+                }
+            }
+            return moving;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flagMoving(int bucket, int shard, boolean moving) {
+        new JdbcTemplate(shardRouter.dataSource(shard)).update(
+                "UPDATE shard_assignments SET moving = ? WHERE bucket = ?", moving, bucket);
+    }
+
+    // Replaces whatever an earlier, failed copy left on the target
+    private void copy(int bucket, int sourceShard, int targetShard, long[] copied) {
+        try (Connection source = shardRouter.dataSource(sourceShard).getConnection();
+             Connection target = shardRouter.dataSource(targetShard).getConnection()) {
+            target.setAutoCommit(false);
+            try {
+                delete(target, "claims", bucket);
+                delete(target, "policies", bucket);
+                copied[0] += copyTable(source, target, "policies", bucket);
+                copied[1] += copyTable(source, target, "claims", bucket);
+                handOver(target, bucket, targetShard);
+                target.commit();
+            } catch (SQLException | RuntimeException e) {
+                target.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Copying bucket " + bucket + " to shard " + targetShard + " failed: "
+                    + e.getMessage(), e);
+        }
+    }
+
+    // Also points the shard's own assignment row at the bucket's new owner
+    private void purge(int bucket, int shard) {
+        try (Connection connection = shardRouter.dataSource(shard).getConnection()) {
+            connection.setAutoCommit(false);
+            handOver(connection, bucket, shardRouter.shardOfBucket(bucket));
+            int claims = delete(connection, "claims", bucket);
+            int policies = delete(connection, "policies", bucket);
+            connection.commit();
+            if (claims + policies > 0) {
+                logger.info("Removed {} policies and {} claims of bucket {} from shard {}", policies, claims, bucket, shard);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Removing bucket " + bucket + " from shard " + shard + " failed: "
+                    + e.getMessage(), e);
+        }
+    }
+
+    private static void handOver(Connection connection, int bucket, int shard) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(ShardRouter.ASSIGN_SQL)) {
+            statement.setInt(1, bucket);
+            statement.setInt(2, shard);
+            statement.executeUpdate();
+        }
+    }
+
+    private static int delete(Connection connection, String table, int bucket) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("DELETE FROM " + table + BUCKET_CLAUSE)) {
+            statement.setInt(1, bucket);
+            return statement.executeUpdate();
+        }
+    }
+
+    // Copies every column, so the rows keep their ids and versions
+    private static long copyTable(Connection source, Connection target, String table, int bucket) throws SQLException {
+        try (PreparedStatement select = source.prepareStatement("SELECT * FROM " + table + BUCKET_CLAUSE)) {
+            select.setInt(1, bucket);
+            try (ResultSet rs = select.executeQuery()) {
+                ResultSetMetaData meta = rs.getMetaData();
+                int columns = meta.getColumnCount();
+                StringJoiner names = new StringJoiner(", ");
+                StringJoiner values = new StringJoiner(", ");
+                for (int i = 1; i <= columns; i++) {
+                    names.add(meta.getColumnName(i));
+                    values.add("?");
+                }
+                try (PreparedStatement insert = target.prepareStatement(
+                        "INSERT INTO " + table + " (" + names + ") VALUES (" + values + ")")) {
+                    long rows = 0;
+                    while (rs.next()) {
+                        for (int i = 1; i <= columns; i++) {
+                            insert.setObject(i, rs.getObject(i));
+                        }
+                        insert.addBatch();
+                        if (++rows % COPY_BATCH == 0) {
+                            insert.executeBatch();
+                        }
+                    }
+                    insert.executeBatch();
+                    return rows;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.insurance.policyservice.shard;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Consistent-hash placement of buckets: every shard owns {@code virtualNodes}
+ * points on a ring and a bucket belongs to the first point at or after its
+ * own hash. Adding a shard takes over roughly 1/N of the buckets and leaves
+ * the rest where they are.
+ */
+final class ShardRing {
+    private ShardRing() {
+    }
+
+    static int[] assign(int shards, int virtualNodes) {
+        TreeMap<Long, Integer> ring = new TreeMap<>();
+        for (int shard = 0; shard < shards; shard++) {
+            for (int node = 0; node < virtualNodes; node++) {
+                ring.put(ShardIds.mix(((long) shard << 32) | node), shard);
+            }
+        }
+        int[] assignment = new int[ShardIds.BUCKETS];
+        for (int bucket = 0; bucket < assignment.length; bucket++) {
+            // Salted so bucket points do not coincide with shard 0's node points
+            Map.Entry<Long, Integer> owner = ring.ceilingEntry(ShardIds.mix(bucket ^ 0x5bd1e995L));
+            assignment[bucket] = (owner == null ? ring.firstEntry() : owner).getValue();
+        }
+        return assignment;
+    }
+}
@@ -0,0 +1,477 @@
+package com.insurance.policyservice.shard;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Places policies and claims on shards by bucket and runs work against the
+ * right one. Buckets start where the consistent-hash ring puts them; moves
+ * made by the {@link ShardRebalancer} are recorded in
+ * {@code shard_assignments} on shard 0 and override the ring.
+ *
+ * Every shard also keeps a {@code shard_assignments} row per bucket saying
+ * which shard owns it and whether it is being moved. A write transaction
+ * locks its buckets' rows on its own shard and fails if the bucket is moving
+ * or owned elsewhere; a move flags the bucket on its source shard, which
+ * waits for those locks, so no write on any instance is lost while the
+ * bucket is copied or lands on the old shard afterwards. Writes to one
+ * bucket queue on its row. Writers here also hold the bucket's read lock,
+ * so they wait out a move made by this instance instead of failing.
+ *
+ * Gathered rows are filtered by the same ownership, so copies a move has
+ * not purged yet are not read twice.
+ *
+ * The single-shard router used when sharding is off binds nothing and runs
+ * every gather as one plain call, so the services behave as before.
+ */
+public class ShardRouter {
+    private static final Logger logger = LoggerFactory.getLogger(ShardRouter.class);
+
+    static final String ID_SEQUENCE = "shard_id_seq";
+    static final int ID_BLOCK_SIZE = 100;
+
+    static final String ASSIGN_SQL = "MERGE INTO shard_assignments a USING (VALUES "
+            + "(CAST(? AS INT), CAST(? AS INT))) v(bucket, shard) ON a.bucket = v.bucket "
+            + "WHEN MATCHED THEN UPDATE SET shard = v.shard, moving = FALSE "
+            + "WHEN NOT MATCHED THEN INSERT (bucket, shard) VALUES (v.bucket, v.shard)";
+    private static final String SEED_SQL = "MERGE INTO shard_assignments a USING (VALUES "
+            + "(CAST(? AS INT), CAST(? AS INT))) v(bucket, shard) ON a.bucket = v.bucket "
+            + "WHEN NOT MATCHED THEN INSERT (bucket, shard) VALUES (v.bucket, v.shard)";
+    private static final String FENCE_SQL = "SELECT bucket, shard, moving FROM shard_assignments "
+            + "WHERE bucket IN (:buckets) ORDER BY bucket FOR UPDATE";
+
+    private final boolean enabled;
+    private final List<HikariDataSource> shards;
+    private final DataSource routingDataSource;
+    private final NamedParameterJdbcTemplate fenceTemplate;
+    private final int[] ringAssignment;
+    private volatile int[] assignment;
+    private final ReentrantReadWriteLock[] bucketLocks;
+    private final long writeWaitMs;
+    private final ExecutorService gatherExecutor;
+
+    private ShardRouter() {
+        enabled = false;
+        shards = List.of();
+        routingDataSource = null;
+        fenceTemplate = null;
+        ringAssignment = new int[ShardIds.BUCKETS];
+        assignment = ringAssignment;
+        bucketLocks = null;
+        writeWaitMs = 0;
+        gatherExecutor = null;
+    }
+
+    public static ShardRouter single() {
+        return new ShardRouter();
+    }
+
+    /**
+     * @param shards       one pool per shard, shard 0 first
+     * @param virtualNodes ring points per shard
+     * @param writeWaitMs  how long a write waits for a move of its bucket to finish
+     */
+    public ShardRouter(List<HikariDataSource> shards, int virtualNodes, long writeWaitMs, int gatherThreads,
+                       MeterRegistry meterRegistry) {
+        if (shards.isEmpty() || shards.size() > ShardIds.MAX_SHARDS) {
+            throw new IllegalArgumentException("Between 1 and " + ShardIds.MAX_SHARDS + " shards are supported");
+        }
+        this.enabled = true;
+        this.shards = List.copyOf(shards);
+        this.routingDataSource = new LazyConnectionDataSourceProxy(new ShardRoutingDataSource(this.shards));
+        this.fenceTemplate = new NamedParameterJdbcTemplate(routingDataSource);
+        this.ringAssignment = ShardRing.assign(shards.size(), virtualNodes);
+        this.assignment = ringAssignment;
+        this.bucketLocks = new ReentrantReadWriteLock[ShardIds.BUCKETS];
+        for (int bucket = 0; bucket < bucketLocks.length; bucket++) {
+            bucketLocks[bucket] = new ReentrantReadWriteLock();
+        }
+        this.writeWaitMs = writeWaitMs;
+        AtomicInteger threads = new AtomicInteger();
+        this.gatherExecutor = Executors.newFixedThreadPool(gatherThreads, runnable -> {
+            Thread thread = new Thread(runnable, "shard-gather-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        for (DataSource shard : this.shards) {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(shard);
+            jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + ID_SEQUENCE
+                    + " START WITH 1 INCREMENT BY " + ID_BLOCK_SIZE);
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS shard_assignments (bucket INT PRIMARY KEY, "
+                    + "shard INT NOT NULL, moving BOOLEAN DEFAULT FALSE NOT NULL)");
+            jdbcTemplate.execute("ALTER TABLE shard_assignments ADD COLUMN IF NOT EXISTS "
+                    + "moving BOOLEAN DEFAULT FALSE NOT NULL");
+        }
+        refresh();
+        seedAssignments();
+
+        for (int shard = 0; shard < this.shards.size(); shard++) {
+            int index = shard;
+            Gauge.builder("shards.buckets", this, router -> router.bucketsOn(index))
+                    .tag("shard", Integer.toString(shard))
+                    .register(meterRegistry);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int shardCount() {
+        return enabled ? shards.size() : 1;
+    }
+
+    public int shardOfBucket(int bucket) {
+        return enabled ? assignment[bucket] : 0;
+    }
+
+    /** Buckets held by each shard. */
+    public Map<Integer, Integer> bucketCounts() {
+        Map<Integer, Integer> counts = new TreeMap<>();
+        for (int shard = 0; shard < shardCount(); shard++) {
+            counts.put(shard, bucketsOn(shard));
+        }
+        return counts;
+    }
+
+    /**
+     * Binds the current transaction to the shard holding {@code bucket}; call
+     * it before the transaction's first statement. With {@code write} the
+     * bucket cannot move until the transaction ends, and the bind fails if
+     * it is being moved or another instance has moved it.
+     */
+    public void bind(int bucket, boolean write) {
+        bind(List.of(bucket), write);
+    }
+
+    /** As {@link #bind(int, boolean)}; the buckets must all be on one shard. */
+    public void bind(Collection<Integer> buckets, boolean write) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Binding a shard needs an active transaction");
+        }
+        Integer previous = ShardContext.current();
+        List<Lock> locks = write ? lock(buckets) : List.of();
+        try {
+            int shard = shardOf(buckets);
+            if (previous != null && previous != shard) {
+                throw new IllegalStateException("Transaction is on shard " + previous + ", not shard " + shard);
+            }
+            ShardContext.set(shard);
+        } catch (RuntimeException e) {
+            unlock(locks);
+            throw e;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                ShardContext.set(previous);
+                unlock(locks);
+            }
+        });
+        if (write) {
+            fence(buckets, ShardContext.current());
+        }
+    }
+
+    /**
+     * Runs {@code work}, which may start its own transactions, on the shard
+     * holding {@code bucket}. With {@code write} the bucket cannot move on
+     * this instance until {@code work} returns; its transactions must still
+     * bind the bucket for write to be fenced against moves by others.
+     */
+    public <T> T call(int bucket, boolean write, Supplier<T> work) {
+        return call(List.of(bucket), write, work);
+    }
+
+    public <T> T call(Collection<Integer> buckets, boolean write, Supplier<T> work) {
+        if (!enabled) {
+            return work.get();
+        }
+        List<Lock> locks = write ? lock(buckets) : List.of();
+        try {
+            return callOnShard(shardOf(buckets), work);
+        } finally {
+            unlock(locks);
+        }
+    }
+
+    public <T> T callOnShard(int shard, Supplier<T> work) {
+        if (!enabled) {
+            return work.get();
+        }
+        Integer previous = ShardContext.current();
+        if (previous != null && previous != shard && TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Transaction is on shard " + previous + ", not shard " + shard);
+        }
+        ShardContext.set(shard);
+        try {
+            return work.get();
+        } finally {
+            ShardContext.set(previous);
+        }
+    }
+
+    /** Runs {@code work} on every shard in turn. */
+    public void forEachShard(IntConsumer work) {
+        for (int shard = 0; shard < shardCount(); shard++) {
+            int index = shard;
+            callOnShard(index, () -> {
+                work.accept(index);
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Runs {@code query} on all shards in parallel and concatenates the
+     * results. For aggregates; rows go through the overload taking their id.
+     */
+    public <T> List<T> gather(IntFunction<List<T>> query) {
+        if (shardCount() == 1) {
+            return query.apply(0);
+        }
+        List<Future<List<T>>> parts = new ArrayList<>(shards.size());
+        for (int shard = 0; shard < shards.size(); shard++) {
+            int index = shard;
+            parts.add(gatherExecutor.submit(() -> callOnShard(index, () -> query.apply(index))));
+        }
+        List<T> merged = new ArrayList<>();
+        try {
+            for (Future<List<T>> part : parts) {
+                merged.addAll(part.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while querying shards", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException("Shard query failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            parts.forEach(part -> part.cancel(true));
+        }
+        return merged;
+    }
+
+    /** As {@link #gather(IntFunction)}, keeping only rows of buckets the queried shard owns. */
+    public <T> List<T> gather(IntFunction<List<T>> query, ToLongFunction<? super T> idOf) {
+        if (shardCount() == 1) {
+            return query.apply(0);
+        }
+        return gather(shard -> owned(shard, query.apply(shard), idOf, new ArrayList<>()));
+    }
+
+    /**
+     * One page in id order across all shards: {@code page} must return the
+     * current shard's first {@code limit} rows with ids above the one given,
+     * in id order. A shard whose page loses rows it does not own is read on,
+     * so the merged result is still the first {@code limit} rows overall.
+     */
+    public <T> List<T> gatherPage(long afterId, int limit, LongFunction<List<T>> page, ToLongFunction<? super T> idOf) {
+        if (shardCount() == 1) {
+            return page.apply(afterId);
+        }
+        List<T> merged = gather(shard -> {
+            List<T> owned = new ArrayList<>();
+            long after = afterId;
+            while (true) {
+                List<T> rows = page.apply(after);
+                owned(shard, rows, idOf, owned);
+                if (rows.size() < limit || owned.size() >= limit) {
+                    return owned;
+                }
+                after = idOf.applyAsLong(rows.get(rows.size() - 1));
+            }
+        });
+        merged.sort(Comparator.comparingLong(idOf));
+        return new ArrayList<>(merged.subList(0, Math.min(limit, merged.size())));
+    }
+
+    /** Reloads moved buckets from {@code shard_assignments}. */
+    public synchronized void refresh() {
+        if (!enabled) {
+            return;
+        }
+        int[] refreshed = ringAssignment.clone();
+        new JdbcTemplate(shards.get(0)).query("SELECT bucket, shard FROM shard_assignments", rs -> {
+            int bucket = rs.getInt(1);
+            int shard = rs.getInt(2);
+            if (bucket >= 0 && bucket < refreshed.length && shard < shards.size()) {
+                refreshed[bucket] = shard;
+            } else {
+                logger.warn("Ignoring assignment of bucket {} to unknown shard {}", bucket, shard);
+            }
+        });
+        assignment = refreshed;
+    }
+
+    // Callers hold the bucket's move lock
+    synchronized void assign(int bucket, int shard) {
+        new JdbcTemplate(shards.get(0)).update(ASSIGN_SQL, bucket, shard);
+        int[] updated = assignment.clone();
+        updated[bucket] = shard;
+        assignment = updated;
+    }
+
+    // The shard a new row of the bucket goes to, which must be the one the session is on
+    int shardForInsert(int bucket) {
+        int shard = shardOfBucket(bucket);
+        Integer bound = ShardContext.current();
+        if ((bound == null ? 0 : bound) != shard) {
+            throw new IllegalStateException("Bucket " + bucket + " is on shard " + shard
+                    + " but the session is on shard " + (bound == null ? 0 : bound));
+        }
+        return shard;
+    }
+
+    // Waits for the bucket's in-flight writes to finish and holds off new ones
+    Lock lockForMove(int bucket, long waitMs) {
+        Lock lock = bucketLocks[bucket].writeLock();
+        if (!tryLock(lock, waitMs)) {
+            throw new IllegalStateException("Timed out waiting for writes to bucket " + bucket + " to finish");
+        }
+        return lock;
+    }
+
+    DataSource dataSource(int shard) {
+        return shards.get(shard);
+    }
+
+    // The data source the entity manager uses, so the fence query joins its transactions
+    DataSource routingDataSource() {
+        return routingDataSource;
+    }
+
+    public void close() {
+        if (!enabled) {
+            return;
+        }
+        gatherExecutor.shutdownNow();
+        shards.forEach(HikariDataSource::close);
+    }
+
+    // Rows stay locked until the transaction ends; a move flagging the bucket waits for them
+    private void fence(Collection<Integer> buckets, int shard) {
+        List<Integer> sorted = new ArrayList<>(new TreeSet<>(buckets));
+        List<int[]> rows = fenceTemplate.query(FENCE_SQL, Map.of("buckets", sorted),
+                (rs, rowNum) -> new int[]{rs.getInt(1), rs.getInt(2), rs.getBoolean(3) ? 1 : 0});
+        if (rows.size() != sorted.size()) {
+            throw new IllegalStateException("Shard " + shard + " has no assignment for some of buckets " + sorted);
+        }
+        for (int[] row : rows) {
+            if (row[2] == 1) {
+                throw new IllegalStateException("Bucket " + row[0] + " is being moved to another shard");
+            }
+            if (row[1] != shard) {
+                refresh();
+                throw new IllegalStateException("Bucket " + row[0] + " has moved to shard " + row[1]);
+            }
+        }
+    }
+
+    // Only adds missing rows, so moves recorded on a shard are kept
+    private void seedAssignments() {
+        int[] current = assignment;
+        for (DataSource shard : shards) {
+            List<Object[]> rows = new ArrayList<>(current.length);
+            for (int bucket = 0; bucket < current.length; bucket++) {
+                rows.add(new Object[]{bucket, current[bucket]});
+            }
+            new JdbcTemplate(shard).batchUpdate(SEED_SQL, rows);
+        }
+    }
+
+    private <T> List<T> owned(int shard, List<T> rows, ToLongFunction<? super T> idOf, List<T> into) {
+        for (T row : rows) {
+            if (shardOfBucket(ShardIds.bucketOfId(idOf.applyAsLong(row))) == shard) {
+                into.add(row);
+            }
+        }
+        return into;
+    }
+
+    private int bucketsOn(int shard) {
+        int count = 0;
+        for (int owner : assignment) {
+            if (owner == shard) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private int shardOf(Collection<Integer> buckets) {
+        int[] current = assignment;
+        int shard = -1;
+        for (int bucket : buckets) {
+            if (shard == -1) {
+                shard = current[bucket];
+            } else if (current[bucket] != shard) {
+                throw new IllegalArgumentException("Buckets " + buckets + " span more than one shard");
+            }
+        }
+        return Math.max(shard, 0);
+    }
+
+    // In bucket order, so two writers locking overlapping sets cannot deadlock
+    private List<Lock> lock(Collection<Integer> buckets) {
+        List<Lock> locks = new ArrayList<>(buckets.size());
+        for (int bucket : new TreeSet<>(buckets)) {
+            Lock lock = bucketLocks[bucket].readLock();
+            if (!tryLock(lock, writeWaitMs)) {
+                unlock(locks);
+                throw new IllegalStateException("Bucket " + bucket + " is being moved to another shard");
+            }
+            locks.add(lock);
+        }
+        return locks;
+    }
+
+    private static boolean tryLock(Lock lock, long waitMs) {
+        try {
+            return lock.tryLock(waitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void unlock(List<Lock> locks) {
+        locks.forEach(Lock::unlock);
+    }
+}
@@ -0,0 +1,61 @@
+package com.insurance.policyservice.shard;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.hibernate.tool.schema.TargetType;
+import org.hibernate.tool.schema.internal.ExceptionHandlerLoggedImpl;
+import org.hibernate.tool.schema.spi.ContributableMatcher;
+import org.hibernate.tool.schema.spi.ExecutionOptions;
+import org.hibernate.tool.schema.spi.SchemaManagementTool;
+import org.hibernate.tool.schema.spi.SchemaManagementToolCoordinator;
+import org.hibernate.tool.schema.spi.ScriptTargetOutput;
+import org.hibernate.tool.schema.spi.TargetDescriptor;
+
+import java.util.EnumSet;
+import java.util.Map;
+
+/**
+ * Brings the schema of shards 1..N up to date with the mapping, as
+ * {@code ddl-auto=update} does for shard 0. Every shard gets every table;
+ * the unsharded ones simply stay empty outside shard 0.
+ */
+class ShardSchemaIntegrator implements Integrator {
+    private final ShardRouter router;
+
+    ShardSchemaIntegrator(ShardRouter router) {
+        this.router = router;
+    }
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+        Map<String, Object> settings = sessionFactory.getServiceRegistry().requireService(ConfigurationService.class).getSettings();
+        SchemaManagementTool tool = sessionFactory.getServiceRegistry().requireService(SchemaManagementTool.class);
+        ExecutionOptions options = SchemaManagementToolCoordinator.buildExecutionOptions(settings,
+                ExceptionHandlerLoggedImpl.INSTANCE);
+        TargetDescriptor database = new TargetDescriptor() {
+            @Override
+            public EnumSet<TargetType> getTargetTypes() {
+                return EnumSet.of(TargetType.DATABASE);
+            }
+
+            @Override
+            public ScriptTargetOutput getScriptTargetOutput() {
+                return null;
+            }
+        };
+        for (int shard = 1; shard < router.shardCount(); shard++) {
+            router.callOnShard(shard, () -> {
+                tool.getSchemaMigrator(settings).doMigration(metadata, options, ContributableMatcher.ALL, database);
+                return null;
+            });
+        }
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    }
+}
@@ -0,0 +1,102 @@
+package com.insurance.policyservice.shard;
+
+import com.insurance.policyservice.model.Claim;
+import com.insurance.policyservice.model.Policy;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.jdbc.spi.JdbcCoordinator;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+import org.hibernate.id.IdentityGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.EnumSet;
+import java.util.Properties;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Id generator for policies and claims. With sharding off it is the plain
+ * identity column. With sharding on the id is assigned before the insert
+ * ({@link ShardIds}): the bucket comes from the policy's customer, or from
+ * the claim's policy id, and the sequence from blocks of the target shard's
+ * {@code shard_id_seq}, fetched on the session's own connection.
+ */
+public class ShardedIdGenerator extends IdentityGenerator implements BeforeExecutionGenerator {
+    public static final String ROUTER_SETTING = "insurance.shards.router";
+
+    private ShardRouter router;
+    private boolean sharded;
+
+    // Per shard {next, end} of the current sequence block
+    private final long[][] blocks = new long[ShardIds.MAX_SHARDS][2];
+    private final ReentrantLock blockLock = new ReentrantLock();
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) {
+        super.configure(type, parameters, serviceRegistry);
+        router = (ShardRouter) serviceRegistry.requireService(ConfigurationService.class).getSettings().get(ROUTER_SETTING);
+        sharded = router != null && router.isEnabled();
+    }
+
+    @Override
+    public boolean generatedOnExecution() {
+        return !sharded;
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+        int bucket;
+        if (owner instanceof Policy policy) {
+            bucket = ShardIds.bucketOfCustomer(policy.getCustomerId());
+        } else if (owner instanceof Claim claim) {
+            bucket = ShardIds.bucketOfId(claim.getPolicyId());
+        } else {
+            throw new IllegalArgumentException("No shard key for " + owner.getClass().getSimpleName());
+        }
+        int shard = router.shardForInsert(bucket);
+        return ShardIds.compose(nextSequence(session, shard), shard, bucket);
+    }
+
+    private long nextSequence(SharedSessionContractImplementor session, int shard) {
+        blockLock.lock();
+        try {
+            long[] block = blocks[shard];
+            if (block[0] >= block[1]) {
+                block[0] = fetchBlockStart(session);
+                block[1] = block[0] + ShardRouter.ID_BLOCK_SIZE;
+            }
+            return block[0]++;
+        } finally {
+            blockLock.unlock();
+        }
+    }
+
+    private static long fetchBlockStart(SharedSessionContractImplementor session) {
+        String sql = session.getJdbcServices().getDialect().getSequenceSupport()
+                .getSequenceNextValString(ShardRouter.ID_SEQUENCE);
+        JdbcCoordinator jdbc = session.getJdbcCoordinator();
+        PreparedStatement statement = jdbc.getStatementPreparer().prepareStatement(sql);
+        try {
+            ResultSet rs = jdbc.getResultSetReturn().extract(statement, sql);
+            if (!rs.next()) {
+                throw new IllegalStateException("No value from " + ShardRouter.ID_SEQUENCE);
+            }
+            return rs.getLong(1);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not read " + ShardRouter.ID_SEQUENCE, e);
+        } finally {
+            jdbc.getLogicalConnection().getResourceRegistry().release(statement);
+            jdbc.afterStatementExecution();
+        }
+    }
+}
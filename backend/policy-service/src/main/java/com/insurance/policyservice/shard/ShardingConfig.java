@@ -0,0 +1,98 @@
+package com.insurance.policyservice.shard;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * With {@code insurance.shards.enabled}, shard 0 keeps the
+ * {@code spring.datasource.*} settings and {@code insurance.shards.urls}
+ * adds shards 1..N, all behind a {@link ShardRoutingDataSource}. Otherwise
+ * a single-shard router leaves the auto-configured pool alone.
+ */
+@Configuration
+public class ShardingConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "insurance.shards.enabled", havingValue = "false", matchIfMissing = true)
+    public ShardRouter singleShardRouter() {
+        return ShardRouter.single();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "insurance.shards.enabled", havingValue = "true")
+    public ShardRouter shardRouter(DataSourceProperties properties, Environment environment, MeterRegistry meterRegistry,
+                                   @Value("${insurance.shards.urls:}") List<String> urls,
+                                   @Value("${insurance.shards.username:${spring.datasource.username:}}") String username,
+                                   @Value("${insurance.shards.password:${spring.datasource.password:}}") String password,
+                                   @Value("${insurance.shards.pool-size:10}") int poolSize,
+                                   @Value("${insurance.shards.virtual-nodes:64}") int virtualNodes,
+                                   @Value("${insurance.shards.write-wait-ms:10000}") long writeWaitMs,
+                                   @Value("${insurance.shards.gather-threads:8}") int gatherThreads,
+                                   @Value("${insurance.replicas.enabled:false}") boolean replicas) {
+        if (replicas) {
+            throw new IllegalStateException("insurance.shards and insurance.replicas cannot both be enabled");
+        }
+        MicrometerMetricsTrackerFactory metrics = new MicrometerMetricsTrackerFactory(meterRegistry);
+
+        List<HikariDataSource> shards = new ArrayList<>();
+        HikariDataSource first = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(first));
+        shards.add(first);
+        for (String url : urls) {
+            HikariDataSource shard = new HikariDataSource();
+            shard.setJdbcUrl(url.trim());
+            shard.setUsername(username);
+            shard.setPassword(password);
+            shard.setMaximumPoolSize(poolSize);
+            shards.add(shard);
+        }
+        for (int i = 0; i < shards.size(); i++) {
+            shards.get(i).setPoolName("shard-" + i);
+            shards.get(i).setMetricsTrackerFactory(metrics);
+        }
+        return new ShardRouter(shards, virtualNodes, writeWaitMs, gatherThreads, meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "insurance.shards.enabled", havingValue = "true")
+    public DataSource dataSource(ShardRouter shardRouter) {
+        return shardRouter.routingDataSource();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer shardingHibernateProperties(ShardRouter shardRouter,
+                                                                     @Value("${insurance.shards.schema-update:true}") boolean schemaUpdate) {
+        return properties -> {
+            properties.put(ShardedIdGenerator.ROUTER_SETTING, shardRouter);
+            if (!shardRouter.isEnabled()) {
+                return;
+            }
+            // Cached query results are not keyed by shard
+            properties.put(AvailableSettings.USE_QUERY_CACHE, false);
+            // A session holding on to one shard's connection would carry it into the next shard's transaction
+            properties.put(AvailableSettings.CONNECTION_HANDLING,
+                    PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+            if (schemaUpdate) {
+                properties.put("hibernate.integrator_provider",
+                        (IntegratorProvider) () -> List.of(new ShardSchemaIntegrator(shardRouter)));
+            }
+        };
+    }
+}
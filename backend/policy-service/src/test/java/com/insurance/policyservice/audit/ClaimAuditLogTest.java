@@ -0,0 +1,33 @@
+package com.insurance.policyservice.audit;
+
+import com.insurance.policyservice.model.ClaimStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ClaimAuditLogTest {
+    private static final int SEGMENT_BYTES = 1 << 16;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void openLogLocksItsDirectory() {
+        assertThat(ClaimAuditLog.inUse(directory)).isFalse();
+        try (ClaimAuditLog log = new ClaimAuditLog(directory, SEGMENT_BYTES, FsyncPolicy.NEVER, 0)) {
+            log.append(1, null, ClaimStatus.PENDING, 0);
+            assertThat(ClaimAuditLog.inUse(directory)).isTrue();
+            assertThatThrownBy(() -> new ClaimAuditLog(directory, SEGMENT_BYTES, FsyncPolicy.NEVER, 0))
+                    .isInstanceOf(IllegalStateException.class);
+        }
+        assertThat(ClaimAuditLog.inUse(directory)).isFalse();
+
+        try (ClaimAuditLog reopened = new ClaimAuditLog(directory, SEGMENT_BYTES, FsyncPolicy.NEVER, 0)) {
+            assertThat(reopened.replay(1L)).hasSize(1);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.insurance.policyservice.client;
+
+import com.insurance.policyservice.dto.CustomerDto;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import feign.FeignException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class HedgedCustomerClientTest {
+    private static final String CUSTOMER_JSON = "{\"id\":7,\"firstName\":\"Ada\",\"lastName\":\"Lovelace\","
+            + "\"email\":\"ada@example.com\",\"address\":\"London\",\"phone\":\"1\"}";
+
+    private final List<HttpServer> servers = new ArrayList<>();
+    private final CustomerClient customerClient = mock(CustomerClient.class);
+    private final DiscoveryClient discoveryClient = mock(DiscoveryClient.class);
+    private HedgedCustomerClient client;
+
+    @AfterEach
+    void stop() {
+        servers.forEach(server -> server.stop(0));
+        if (client != null) {
+            client.shutdown();
+        }
+    }
+
+    @Test
+    void slowInstanceIsHedgedToTheOther() throws IOException {
+        client = client(List.of(instance(300, 200, CUSTOMER_JSON), instance(0, 200, CUSTOMER_JSON)), 32);
+
+        for (int i = 0; i < 5; i++) {
+            long start = System.nanoTime();
+            CustomerDto customer = client.getCustomerById(7L);
+            assertThat(customer.getLastName()).isEqualTo("Lovelace");
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(250);
+        }
+        verifyNoInteractions(customerClient);
+    }
+
+    @Test
+    void errorResponsesAreRaisedAsFeignExceptions() throws IOException {
+        client = client(List.of(instance(0, 404, "{}")), 32);
+
+        assertThrows(FeignException.NotFound.class, () -> client.getCustomerById(7L));
+    }
+
+    @Test
+    void busyPoolFallsBackToTheFeignClient() throws Exception {
+        CountDownLatch received = new CountDownLatch(1);
+        HttpServer slow = server(exchange -> {
+            received.countDown();
+            sleep(500);
+            respond(exchange, 200, CUSTOMER_JSON);
+        });
+        client = client(List.of(uri(slow)), 1);
+        CustomerDto fallback = new CustomerDto(7L, "Ada", "Fallback", null, null, null);
+        when(customerClient.getCustomerById(7L)).thenReturn(fallback);
+
+        CompletableFuture<CustomerDto> first = CompletableFuture.supplyAsync(() -> client.getCustomerById(7L));
+        assertThat(received.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(client.getCustomerById(7L)).isSameAs(fallback);
+        verify(customerClient).getCustomerById(7L);
+        assertThat(first.get(5, TimeUnit.SECONDS).getLastName()).isEqualTo("Lovelace");
+    }
+
+    private HedgedCustomerClient client(List<ServiceInstance> instances, int maxThreads) {
+        when(discoveryClient.getInstances("customer-service")).thenReturn(instances);
+        HedgedCustomerClient hedged = new HedgedCustomerClient();
+        ReflectionTestUtils.setField(hedged, "customerClient", customerClient);
+        ReflectionTestUtils.setField(hedged, "discoveryClient", discoveryClient);
+        ReflectionTestUtils.setField(hedged, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(hedged, "hedgingEnabled", true);
+        ReflectionTestUtils.setField(hedged, "percentile", 0.95);
+        ReflectionTestUtils.setField(hedged, "minDelayMs", 5L);
+        ReflectionTestUtils.setField(hedged, "initialDelayMs", 50L);
+        ReflectionTestUtils.setField(hedged, "windowSize", 100);
+        ReflectionTestUtils.setField(hedged, "budgetPercent", 100);
+        ReflectionTestUtils.setField(hedged, "budgetBurst", 10);
+        ReflectionTestUtils.setField(hedged, "maxThreads", maxThreads);
+        hedged.init();
+        return hedged;
+    }
+
+    private ServiceInstance instance(long delayMs, int status, String body) throws IOException {
+        return uri(server(exchange -> {
+            sleep(delayMs);
+            respond(exchange, status, body);
+        }));
+    }
+
+    private HttpServer server(HttpHandler handler) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/customers/", handler);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        servers.add(server);
+        return server;
+    }
+
+    private static ServiceInstance uri(HttpServer server) {
+        return new DefaultServiceInstance("customer-" + server.getAddress().getPort(), "customer-service",
+                "127.0.0.1", server.getAddress().getPort(), false);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
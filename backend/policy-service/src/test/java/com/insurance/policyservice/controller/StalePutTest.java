@@ -0,0 +1,44 @@
+package com.insurance.policyservice.controller;
+
+import com.insurance.policyservice.model.Claim;
+import com.insurance.policyservice.model.Policy;
+import com.insurance.policyservice.service.ClaimService;
+import com.insurance.policyservice.service.PolicyService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A PUT that loses the version check to a concurrent update is a conflict,
+ * not a missing row.
+ */
+class StalePutTest {
+    @Test
+    void stalePolicyPutIsAConflict() {
+        PolicyController controller = new PolicyController();
+        ReflectionTestUtils.setField(controller, "policyService", new PolicyService() {
+            @Override
+            public Policy updatePolicy(Long id, Policy policyDetails) {
+                throw new ObjectOptimisticLockingFailureException(Policy.class, id);
+            }
+        });
+
+        assertThat(controller.updatePolicy(1L, new Policy()).getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+    }
+
+    @Test
+    void staleClaimPutIsAConflict() {
+        ClaimController controller = new ClaimController();
+        ReflectionTestUtils.setField(controller, "claimService", new ClaimService() {
+            @Override
+            public Claim updateClaim(Long id, Claim claimDetails) {
+                throw new ObjectOptimisticLockingFailureException(Claim.class, id);
+            }
+        });
+
+        assertThat(controller.updateClaim(1L, new Claim()).getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+    }
+}
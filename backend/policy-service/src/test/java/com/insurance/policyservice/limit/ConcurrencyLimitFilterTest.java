@@ -0,0 +1,77 @@
+package com.insurance.policyservice.limit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.SocketTimeoutException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Load shedding and upstream errors must not shrink the limit; timeouts do.
+ */
+class ConcurrencyLimitFilterTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new ConcurrencyLimitFilter();
+        ReflectionTestUtils.setField(filter, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "paths", List.of("/api/claims"));
+        ReflectionTestUtils.setField(filter, "fanOutPaths", List.of("/api/policies/all-with-customers"));
+        ReflectionTestUtils.setField(filter, "backoffRatio", 0.9);
+        ReflectionTestUtils.setField(filter, "retryAfterSeconds", 1);
+        ReflectionTestUtils.setField(filter, "defaultInitial", 50);
+        ReflectionTestUtils.setField(filter, "defaultMin", 10);
+        ReflectionTestUtils.setField(filter, "defaultMax", 500);
+        ReflectionTestUtils.setField(filter, "defaultTargetMs", 10_000L);
+        ReflectionTestUtils.setField(filter, "fanOutInitial", 8);
+        ReflectionTestUtils.setField(filter, "fanOutMin", 2);
+        ReflectionTestUtils.setField(filter, "fanOutMax", 64);
+        ReflectionTestUtils.setField(filter, "fanOutTargetMs", 10_000L);
+        filter.init();
+    }
+
+    @Test
+    void shedAndFailedResponsesKeepTheLimit() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            filter.doFilter(request(), new MockHttpServletResponse(), (request, response) ->
+                    ((MockHttpServletResponse) response).setStatus(503));
+            filter.doFilter(request(), new MockHttpServletResponse(), (request, response) ->
+                    ((MockHttpServletResponse) response).setStatus(502));
+        }
+
+        assertThat(limit()).isEqualTo(50);
+    }
+
+    @Test
+    void timeoutCutsTheLimit() {
+        FilterChain timingOut = (request, response) -> {
+            throw new IllegalStateException("customer-service call failed", new SocketTimeoutException("Read timed out"));
+        };
+
+        assertThatThrownBy(() -> filter.doFilter(request(), new MockHttpServletResponse(), timingOut))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(limit()).isEqualTo(45);
+    }
+
+    private static MockHttpServletRequest request() {
+        return new MockHttpServletRequest("POST", "/api/claims");
+    }
+
+    private double limit() {
+        return meterRegistry.get("http.server.concurrency.limit")
+                .tag("group", ConcurrencyLimitFilter.DEFAULT_GROUP)
+                .gauge()
+                .value();
+    }
+}
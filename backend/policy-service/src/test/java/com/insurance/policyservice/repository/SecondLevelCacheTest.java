@@ -0,0 +1,206 @@
+package com.insurance.policyservice.repository;
+
+import com.insurance.policyservice.model.Claim;
+import com.insurance.policyservice.model.ClaimStatus;
+import com.insurance.policyservice.model.Policy;
+import com.insurance.policyservice.model.PolicyType;
+import com.insurance.policyservice.service.BulkLoadService;
+import com.insurance.support.repository.PatchRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Every way policy-service writes policies and claims must leave the
+ * second-level and query caches serving the new state.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.cloud.config.enabled=false",
+        "eureka.client.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:cachetest;DB_CLOSE_DELAY=-1",
+        "insurance.customer-projection.enabled=false",
+        "insurance.audit.directory=target/cachetest-audit"
+})
+class SecondLevelCacheTest {
+    private static final AtomicLong customers = new AtomicLong(1_000);
+
+    @Autowired
+    private PolicyRepository policyRepository;
+
+    @Autowired
+    private ClaimRepository claimRepository;
+
+    @Autowired
+    private PatchRepository patchRepository;
+
+    @Autowired
+    private BulkLoadService bulkLoadService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void entityUpdateReplacesTheCachedPolicy() {
+        Policy policy = policyRepository.save(policy(customers.incrementAndGet()));
+        loadPolicy(policy.getId());
+        long hits = statistics.getSecondLevelCacheHitCount();
+        loadPolicy(policy.getId());
+        assertThat(statistics.getSecondLevelCacheHitCount()).isGreaterThan(hits);
+
+        Policy loaded = loadPolicy(policy.getId());
+        loaded.setCoverageAmount(new BigDecimal("75000.00"));
+        policyRepository.save(loaded);
+
+        assertThat(loadPolicy(policy.getId()).getCoverageAmount()).isEqualByComparingTo("75000.00");
+    }
+
+    @Test
+    void newPolicyInvalidatesTheCachedCustomerQuery() {
+        long customerId = customers.incrementAndGet();
+        policyRepository.save(policy(customerId));
+        assertThat(policyRepository.findByCustomerId(customerId)).hasSize(1);
+        long hits = statistics.getQueryCacheHitCount();
+        assertThat(policyRepository.findByCustomerId(customerId)).hasSize(1);
+        assertThat(statistics.getQueryCacheHitCount()).isGreaterThan(hits);
+
+        policyRepository.save(policy(customerId));
+
+        assertThat(policyRepository.findByCustomerId(customerId)).hasSize(2);
+    }
+
+    @Test
+    void bulkTransitionInvalidatesCachedClaims() {
+        Policy policy = policyRepository.save(policy(customers.incrementAndGet()));
+        Claim claim = claimRepository.save(claim(policy.getId()));
+        assertThat(claimRepository.findByPolicyId(policy.getId())).hasSize(1);
+        loadClaim(claim.getId());
+
+        transactionTemplate.executeWithoutResult(status -> claimRepository.transitionAll(List.of(claim.getId()),
+                ClaimStatus.sourcesOf(ClaimStatus.APPROVED), ClaimStatus.APPROVED));
+
+        assertThat(loadClaim(claim.getId()).getStatus()).isEqualTo(ClaimStatus.APPROVED);
+        assertThat(claimRepository.findByPolicyId(policy.getId()))
+                .extracting(Claim::getStatus).containsExactly(ClaimStatus.APPROVED);
+    }
+
+    @Test
+    void patchEvictsTheCachedRow() {
+        long customerId = customers.incrementAndGet();
+        Policy policy = policyRepository.save(policy(customerId));
+        loadPolicy(policy.getId());
+        assertThat(policyRepository.findByCustomerId(customerId)).hasSize(1);
+
+        transactionTemplate.executeWithoutResult(status -> patchRepository.patch(Policy.class, policy.getId(), null,
+                Map.of("coverageAmount", 80000), Set.of("customerId")));
+
+        assertThat(loadPolicy(policy.getId()).getCoverageAmount()).isEqualByComparingTo("80000");
+        assertThat(policyRepository.findByCustomerId(customerId))
+                .extracting(Policy::getCoverageAmount).allMatch(amount -> amount.compareTo(new BigDecimal(80000)) == 0);
+    }
+
+    @Test
+    void rowLoadedDuringAPatchIsNotCachedOverIt() throws Exception {
+        Policy policy = policyRepository.save(policy(customers.incrementAndGet()));
+        loadPolicy(policy.getId());
+        CountDownLatch patched = new CountDownLatch(1);
+        CountDownLatch loaded = new CountDownLatch(1);
+
+        CompletableFuture<Void> patch = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            patchRepository.patch(Policy.class, policy.getId(), null, Map.of("coverageAmount", 90000), Set.of());
+            patched.countDown();
+            await(loaded);
+        }));
+        await(patched);
+        assertThat(loadPolicy(policy.getId()).getCoverageAmount()).isEqualByComparingTo("50000.00");
+        loaded.countDown();
+        patch.get(10, TimeUnit.SECONDS);
+
+        assertThat(loadPolicy(policy.getId()).getCoverageAmount()).isEqualByComparingTo("90000");
+    }
+
+    @Test
+    void bulkLoadRefreshDropsStaleQueryResults() {
+        long customerId = customers.incrementAndGet();
+        policyRepository.save(policy(customerId));
+        assertThat(policyRepository.findByCustomerId(customerId)).hasSize(1);
+
+        // Written the way datagen writes, around Hibernate
+        jdbcTemplate.update("INSERT INTO policies (id, type, start_date, end_date, coverage_amount, customer_id, version) "
+                + "VALUES (?, 'HOME', ?, ?, 100000, ?, 0)", 900_000_000L + customerId, LocalDate.now(),
+                LocalDate.now().plusYears(1), customerId);
+        assertThat(policyRepository.findByCustomerId(customerId)).hasSize(1);
+
+        bulkLoadService.refreshAfterBulkLoad();
+
+        assertThat(policyRepository.findByCustomerId(customerId)).hasSize(2);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Policy loadPolicy(long id) {
+        return transactionTemplate.execute(status -> policyRepository.findById(id).orElseThrow());
+    }
+
+    private Claim loadClaim(long id) {
+        return transactionTemplate.execute(status -> claimRepository.findById(id).orElseThrow());
+    }
+
+    private static Policy policy(long customerId) {
+        Policy policy = new Policy();
+        policy.setType(PolicyType.AUTO);
+        policy.setStartDate(LocalDate.now().minusMonths(1));
+        policy.setEndDate(LocalDate.now().plusMonths(11));
+        policy.setCoverageAmount(new BigDecimal("50000.00"));
+        policy.setCustomerId(customerId);
+        return policy;
+    }
+
+    private static Claim claim(long policyId) {
+        Claim claim = new Claim();
+        claim.setDate(LocalDate.now());
+        claim.setDescription("Windshield cracked by debris");
+        claim.setClaimedAmount(new BigDecimal("800.00"));
+        claim.setPolicyId(policyId);
+        return claim;
+    }
+}
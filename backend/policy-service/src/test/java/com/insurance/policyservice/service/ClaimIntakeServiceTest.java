@@ -0,0 +1,104 @@
+package com.insurance.policyservice.service;
+
+import com.insurance.policyservice.dto.ClaimIntakeDto;
+import com.insurance.policyservice.model.Claim;
+import com.insurance.policyservice.model.ClaimIntakeStatus;
+import com.insurance.policyservice.model.Policy;
+import com.insurance.policyservice.model.PolicyType;
+import com.insurance.policyservice.repository.PolicyRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A batch that fails and is retried one claim per transaction must leave
+ * each created claim counted once in the fraud windows.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.cloud.config.enabled=false",
+        "eureka.client.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:intaketest;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "insurance.customer-projection.enabled=false",
+        "insurance.audit.directory=target/intaketest-audit",
+        "insurance.claims.intake.workers=1"
+})
+class ClaimIntakeServiceTest {
+    @Autowired
+    private ClaimIntakeService claimIntakeService;
+
+    @Autowired
+    private ClaimService claimService;
+
+    @Autowired
+    private PolicyRepository policyRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void retriedBatchCountsEachClaimOnce() throws Exception {
+        Policy reference = policyRepository.save(policy(9_101L));
+        for (int i = 0; i < 3; i++) {
+            claimService.createClaim(claim(reference.getId(), "Hail damage to roof"));
+        }
+        int fourthScore = claimService.createClaim(claim(reference.getId(), "Hail damage to roof")).getFraudScore();
+
+        Policy policy = policyRepository.save(policy(9_102L));
+        List<String> trackingIds = new ArrayList<>();
+        // Holding the policy's row lock parks the worker on the first claim, so the rest queue up as one batch
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            policyRepository.findAllByIdForUpdate(List.of(policy.getId()));
+            trackingIds.add(claimIntakeService.submit(claim(policy.getId(), "Hail damage to roof")).getTrackingId());
+            pause();
+            trackingIds.add(claimIntakeService.submit(claim(policy.getId(), "Hail damage to roof")).getTrackingId());
+            trackingIds.add(claimIntakeService.submit(claim(policy.getId(), "x".repeat(501))).getTrackingId());
+            trackingIds.add(claimIntakeService.submit(claim(policy.getId(), "Hail damage to roof")).getTrackingId());
+        });
+
+        List<ClaimIntakeStatus> outcomes = new ArrayList<>();
+        for (String trackingId : trackingIds) {
+            ClaimIntakeDto outcome = claimIntakeService.poll(trackingId, 10_000).get();
+            outcomes.add(outcome.getStatus());
+        }
+        assertThat(outcomes).containsExactly(ClaimIntakeStatus.CREATED, ClaimIntakeStatus.CREATED,
+                ClaimIntakeStatus.FAILED, ClaimIntakeStatus.CREATED);
+        assertThat(claimService.createClaim(claim(policy.getId(), "Hail damage to roof")).getFraudScore())
+                .isEqualTo(fourthScore);
+    }
+
+    private static void pause() {
+        try {
+            Thread.sleep(200);
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Policy policy(long customerId) {
+        Policy policy = new Policy();
+        policy.setType(PolicyType.HOME);
+        policy.setStartDate(LocalDate.now().minusMonths(1));
+        policy.setEndDate(LocalDate.now().plusMonths(11));
+        policy.setCoverageAmount(new BigDecimal("400000.00"));
+        policy.setCustomerId(customerId);
+        return policy;
+    }
+
+    private static Claim claim(long policyId, String description) {
+        Claim claim = new Claim();
+        claim.setDate(LocalDate.now());
+        claim.setDescription(description);
+        claim.setClaimedAmount(new BigDecimal("2000.00"));
+        claim.setPolicyId(policyId);
+        return claim;
+    }
+}
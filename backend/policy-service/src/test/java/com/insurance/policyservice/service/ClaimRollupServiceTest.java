@@ -0,0 +1,103 @@
+package com.insurance.policyservice.service;
+
+import com.insurance.policyservice.dto.ClaimRollupDto;
+import com.insurance.policyservice.model.Claim;
+import com.insurance.policyservice.model.Policy;
+import com.insurance.policyservice.model.PolicyType;
+import com.insurance.policyservice.repository.PolicyRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The rollups kept up by claim and policy writes must match a rebuild from
+ * the tables.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.cloud.config.enabled=false",
+        "eureka.client.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:rolluptest;DB_CLOSE_DELAY=-1",
+        "insurance.customer-projection.enabled=false",
+        "insurance.audit.directory=target/rolluptest-audit"
+})
+class ClaimRollupServiceTest {
+    private static final YearMonth MONTH = YearMonth.of(2001, 3);
+
+    @Autowired
+    private ClaimRollupService claimRollupService;
+
+    @Autowired
+    private ClaimService claimService;
+
+    @Autowired
+    private PolicyService policyService;
+
+    @Autowired
+    private PolicyRepository policyRepository;
+
+    @Test
+    void deletingAPolicyTakesItsClaimsOutOfTheRollups() {
+        Policy kept = policyRepository.save(policy(7_001L));
+        Policy deleted = policyRepository.save(policy(7_002L));
+        claimService.createClaim(claim(kept.getId(), "100.00"));
+        claimService.createClaim(claim(deleted.getId(), "250.00"));
+        claimService.createClaim(claim(deleted.getId(), "50.00"));
+        assertThat(rollups()).extracting(ClaimRollupDto::getClaimCount).containsExactly(3L);
+
+        policyService.deletePolicy(deleted.getId());
+
+        List<ClaimRollupDto> maintained = rollups();
+        assertThat(maintained).extracting(ClaimRollupDto::getClaimCount).containsExactly(1L);
+        assertThat(maintained.get(0).getClaimedTotal()).isEqualByComparingTo("100.00");
+        claimRollupService.rebuild();
+        assertThat(rollups()).usingRecursiveComparison().withComparatorForType(BigDecimal::compareTo, BigDecimal.class)
+                .isEqualTo(maintained);
+    }
+
+    @Test
+    void claimDateCannotBeMovedOutOfItsMonth() {
+        Policy policy = policyRepository.save(policy(7_003L));
+        Claim claim = claimService.createClaim(claim(policy.getId(), "400.00"));
+        Claim moved = claim(policy.getId(), "400.00");
+        moved.setDate(MONTH.plusYears(3).atDay(1));
+        moved.setStatus(claim.getStatus());
+
+        assertThatThrownBy(() -> claimService.updateClaim(claim.getId(), moved))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> claimService.patchClaim(claim.getId(), null, Map.of("date", moved.getDate().toString())))
+                .isInstanceOf(InvalidDataAccessApiUsageException.class).hasMessageContaining("date");
+        assertThat(claimService.getClaimById(claim.getId()).orElseThrow().getDate()).isEqualTo(claim.getDate());
+    }
+
+    private List<ClaimRollupDto> rollups() {
+        return claimRollupService.getMonthlyRollups(MONTH, MONTH);
+    }
+
+    private static Policy policy(long customerId) {
+        Policy policy = new Policy();
+        policy.setType(PolicyType.HOME);
+        policy.setStartDate(MONTH.atDay(1));
+        policy.setEndDate(MONTH.atEndOfMonth().plusYears(1));
+        policy.setCoverageAmount(new BigDecimal("200000.00"));
+        policy.setCustomerId(customerId);
+        return policy;
+    }
+
+    private static Claim claim(long policyId, String amount) {
+        Claim claim = new Claim();
+        claim.setDate(MONTH.atDay(10));
+        claim.setDescription("Burst pipe in the kitchen");
+        claim.setClaimedAmount(new BigDecimal(amount));
+        claim.setPolicyId(policyId);
+        return claim;
+    }
+}
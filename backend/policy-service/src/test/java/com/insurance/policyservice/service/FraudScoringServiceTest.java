@@ -0,0 +1,113 @@
+package com.insurance.policyservice.service;
+
+import com.insurance.policyservice.model.Claim;
+import com.insurance.policyservice.model.Policy;
+import com.insurance.policyservice.model.PolicyType;
+import com.insurance.policyservice.repository.PolicyRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The fraud windows must only hold claims that exist: rolled-back and
+ * deleted claims are taken back out, and the warm-up scan counts each
+ * committed claim once alongside live scoring.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.cloud.config.enabled=false",
+        "eureka.client.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:fraudtest;DB_CLOSE_DELAY=-1",
+        "insurance.customer-projection.enabled=false",
+        "insurance.audit.directory=target/fraudtest-audit"
+})
+class FraudScoringServiceTest {
+    @Autowired
+    private ClaimService claimService;
+
+    @Autowired
+    private FraudScoringService fraudScoringService;
+
+    @Autowired
+    private PolicyRepository policyRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void rolledBackAndDeletedClaimsLeaveTheWindows() {
+        Policy reference = policyRepository.save(policy(9_001L));
+        int firstScore = claimService.createClaim(claim(reference.getId())).getFraudScore();
+        int secondScore = claimService.createClaim(claim(reference.getId())).getFraudScore();
+        assertThat(secondScore).isGreaterThan(firstScore);
+
+        Policy policy = policyRepository.save(policy(9_002L));
+        claimService.createClaim(claim(policy.getId()));
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            claimService.createClaim(claim(policy.getId()));
+            status.setRollbackOnly();
+        });
+        Claim second = claimService.createClaim(claim(policy.getId()));
+        assertThat(second.getFraudScore()).isEqualTo(secondScore);
+
+        claimService.deleteClaim(second.getId());
+        assertThat(claimService.createClaim(claim(policy.getId())).getFraudScore()).isEqualTo(secondScore);
+    }
+
+    @Test
+    void warmUpSkipsClaimsAlreadyScoredLive() {
+        Policy reference = policyRepository.save(policy(9_101L));
+        int firstScore = claimService.createClaim(claim(reference.getId())).getFraudScore();
+        claimService.createClaim(claim(reference.getId()));
+        int thirdScore = claimService.createClaim(claim(reference.getId())).getFraudScore();
+
+        Policy policy = policyRepository.save(policy(9_102L));
+        Claim before = claimService.createClaim(claim(policy.getId()));
+
+        // Fresh windows whose warm-up has not scanned yet, as right after a reload
+        ClaimFraudScorer windows = new ClaimFraudScorer(5, 6, 64, 1_000);
+        Set<Long> scoredLive = ConcurrentHashMap.newKeySet();
+        ReflectionTestUtils.setField(fraudScoringService, "scoredLive", scoredLive);
+        ReflectionTestUtils.setField(fraudScoringService, "scorer", windows);
+        try {
+            Claim during = claimService.createClaim(claim(policy.getId()));
+            assertThat(during.getFraudScore()).isEqualTo(firstScore);
+            assertThat(scoredLive).containsExactly(during.getId());
+
+            fraudScoringService.load(windows, scoredLive);
+
+            assertThat(before.getId()).isNotIn(scoredLive);
+            assertThat(claimService.createClaim(claim(policy.getId())).getFraudScore()).isEqualTo(thirdScore);
+        } finally {
+            fraudScoringService.reload();
+        }
+    }
+
+    private static Policy policy(long customerId) {
+        Policy policy = new Policy();
+        policy.setType(PolicyType.AUTO);
+        policy.setStartDate(LocalDate.now().minusMonths(1));
+        policy.setEndDate(LocalDate.now().plusMonths(11));
+        policy.setCoverageAmount(new BigDecimal("20000.00"));
+        policy.setCustomerId(customerId);
+        return policy;
+    }
+
+    private static Claim claim(long policyId) {
+        Claim claim = new Claim();
+        claim.setDate(LocalDate.now());
+        claim.setDescription("Rear bumper damaged in car park");
+        claim.setClaimedAmount(new BigDecimal("1500.00"));
+        claim.setPolicyId(policyId);
+        return claim;
+    }
+}
@@ -0,0 +1,54 @@
+package com.insurance.policyservice.service;
+
+import com.insurance.policyservice.model.Policy;
+import com.insurance.policyservice.model.PolicyTermBound;
+import com.insurance.policyservice.model.PolicyType;
+import com.insurance.policyservice.repository.PolicyTermBoundRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Active-on-date queries must find policies longer than the minimum window
+ * through the bound stored with them, not one held by the writing instance.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.cloud.config.enabled=false",
+        "eureka.client.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:termboundtest;DB_CLOSE_DELAY=-1",
+        "insurance.customer-projection.enabled=false",
+        "insurance.audit.directory=target/termboundtest-audit"
+})
+class PolicyTermBoundTest {
+    @Autowired
+    private PolicyService policyService;
+
+    @Autowired
+    private PolicyTermBoundRepository policyTermBoundRepository;
+
+    @Test
+    void longTermsWidenTheStoredBound() {
+        LocalDate start = LocalDate.of(2010, 1, 1);
+        Policy policy = policyService.createPolicy(policy(8_001L, start, start.plusYears(10)));
+
+        assertThat(policyTermBoundRepository.findById(PolicyTermBound.ID).orElseThrow().getMaxTermDays())
+                .isGreaterThanOrEqualTo(3_652L);
+        assertThat(policyService.getActivePolicies(start.plusYears(9))).extracting(Policy::getId)
+                .contains(policy.getId());
+    }
+
+    private static Policy policy(long customerId, LocalDate start, LocalDate end) {
+        Policy policy = new Policy();
+        policy.setType(PolicyType.HEALTH);
+        policy.setStartDate(start);
+        policy.setEndDate(end);
+        policy.setCoverageAmount(new BigDecimal("150000.00"));
+        policy.setCustomerId(customerId);
+        return policy;
+    }
+}
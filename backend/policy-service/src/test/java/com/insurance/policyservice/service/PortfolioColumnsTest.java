@@ -0,0 +1,66 @@
+package com.insurance.policyservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PortfolioColumnsTest {
+    private static final PortfolioColumns.Query ALL = new PortfolioColumns.Query(-1, PortfolioColumns.ANY_DAY,
+            PortfolioColumns.GroupBy.NONE);
+
+    @Test
+    void outOfOrderIdsAreFoundAcrossTailMerges() {
+        int rows = 3 * PortfolioColumns.MAX_UNSORTED + 17;
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1; id <= rows; id++) {
+            ids.add(id * 1024 + id % 7);
+        }
+        Collections.shuffle(ids, new Random(42));
+        PortfolioColumns columns = new PortfolioColumns(16);
+        for (long id : ids) {
+            columns.put(id, 0, 100, 200, 1);
+        }
+        assertThat(columns.size()).isEqualTo(rows);
+
+        // Overwrites and removes find rows whether they were merged or are still in the tail
+        for (long id : ids) {
+            columns.put(id, 1, 100, 200, 2);
+        }
+        assertThat(totals(columns)).containsExactly(rows, 2L * rows);
+        for (int i = 0; i < rows; i += 2) {
+            assertThat(columns.remove(ids.get(i))).isTrue();
+        }
+        assertThat(columns.remove(ids.get(0))).isFalse();
+
+        int kept = rows / 2;
+        assertThat(columns.size()).isEqualTo(kept);
+        assertThat(totals(columns)).containsExactly(kept, 2L * kept);
+        columns.put(ids.get(0), 1, 100, 200, 5);
+        assertThat(totals(columns)).containsExactly(kept + 1, 2L * kept + 5);
+    }
+
+    @Test
+    void ascendingIdsAfterAnOutOfOrderOneStillResolve() {
+        PortfolioColumns columns = new PortfolioColumns(16);
+        columns.put(10, 0, 100, 200, 1);
+        columns.put(5, 0, 100, 200, 1);
+        columns.put(20, 0, 100, 200, 1);
+        columns.put(7, 0, 100, 200, 1);
+
+        assertThat(columns.remove(5)).isTrue();
+        assertThat(columns.remove(20)).isTrue();
+        assertThat(columns.remove(6)).isFalse();
+        assertThat(totals(columns)).containsExactly(2, 2);
+    }
+
+    private static long[] totals(PortfolioColumns columns) {
+        PortfolioColumns.Result result = columns.aggregate(ALL, ForkJoinPool.commonPool());
+        return new long[]{result.policies()[0], result.coverageCents()[0]};
+    }
+}
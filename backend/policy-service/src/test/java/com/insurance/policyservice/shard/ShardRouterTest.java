@@ -0,0 +1,163 @@
+package com.insurance.policyservice.shard;
+
+import com.insurance.policyservice.model.Policy;
+import com.insurance.policyservice.model.PolicyType;
+import com.insurance.policyservice.service.PolicyService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Two in-memory shards. The fence rows are changed over plain JDBC, the way
+ * a move made by another instance would change them.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.cloud.config.enabled=false",
+        "eureka.client.enabled=false",
+        "spring.datasource.url=" + ShardRouterTest.SHARD_0,
+        "insurance.shards.enabled=true",
+        "insurance.shards.urls=" + ShardRouterTest.SHARD_1,
+        "insurance.customer-projection.enabled=false",
+        "insurance.audit.directory=target/shardtest-audit"
+})
+class ShardRouterTest {
+    static final String SHARD_0 = "jdbc:h2:mem:shardtest0;DB_CLOSE_DELAY=-1";
+    static final String SHARD_1 = "jdbc:h2:mem:shardtest1;DB_CLOSE_DELAY=-1";
+
+    private static final AtomicLong customers = new AtomicLong(5_000);
+
+    @Autowired
+    private PolicyService policyService;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private ShardRebalancer shardRebalancer;
+
+    @Test
+    void writeIsTurnedAwayWhileItsBucketIsMoving() throws SQLException {
+        Policy policy = policyService.createPolicy(policy(customers.incrementAndGet()));
+        int bucket = ShardIds.bucketOfId(policy.getId());
+        int owner = shardRouter.shardOfBucket(bucket);
+
+        execute(owner, "UPDATE shard_assignments SET moving = TRUE WHERE bucket = ?", bucket);
+        assertThatThrownBy(() -> policyService.updatePolicy(policy.getId(), coverage(policy, "60000.00")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("is being moved");
+
+        execute(owner, "UPDATE shard_assignments SET moving = FALSE WHERE bucket = ?", bucket);
+        assertThat(policyService.updatePolicy(policy.getId(), coverage(policy, "60000.00")).getCoverageAmount())
+                .isEqualByComparingTo("60000.00");
+    }
+
+    @Test
+    void writeToABucketMovedElsewhereFails() throws SQLException {
+        Policy policy = policyService.createPolicy(policy(customers.incrementAndGet()));
+        int bucket = ShardIds.bucketOfId(policy.getId());
+        int owner = shardRouter.shardOfBucket(bucket);
+
+        // What the source shard says once another instance has handed the bucket over
+        execute(owner, "UPDATE shard_assignments SET shard = ? WHERE bucket = ?", 1 - owner, bucket);
+        try {
+            assertThatThrownBy(() -> policyService.updatePolicy(policy.getId(), coverage(policy, "70000.00")))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("has moved to shard " + (1 - owner));
+        } finally {
+            execute(owner, "UPDATE shard_assignments SET shard = ? WHERE bucket = ?", owner, bucket);
+            shardRouter.refresh();
+        }
+    }
+
+    @Test
+    void gatheredRowsSkipCopiesTheShardDoesNotOwn() throws SQLException {
+        Policy policy = policyService.createPolicy(policy(customers.incrementAndGet()));
+        int owner = shardRouter.shardOfBucket(ShardIds.bucketOfId(policy.getId()));
+        copyPolicy(policy.getId(), owner, 1 - owner);
+
+        assertThat(policyService.getAllPolicies()).extracting(Policy::getId).containsOnlyOnce(policy.getId());
+        assertThat(policyService.getPolicyPage(policy.getId() - 1, 1)).extracting(Policy::getId)
+                .containsExactly(policy.getId());
+    }
+
+    @Test
+    void movedBucketTakesWritesOnItsNewShard() {
+        Policy policy = policyService.createPolicy(policy(customers.incrementAndGet()));
+        int bucket = ShardIds.bucketOfId(policy.getId());
+        int target = 1 - shardRouter.shardOfBucket(bucket);
+
+        shardRebalancer.move(bucket, bucket, target);
+
+        assertThat(shardRouter.shardOfBucket(bucket)).isEqualTo(target);
+        assertThat(policyService.updatePolicy(policy.getId(), coverage(policy, "80000.00")).getCoverageAmount())
+                .isEqualByComparingTo("80000.00");
+        assertThat(policyService.getAllPolicies()).extracting(Policy::getId).containsOnlyOnce(policy.getId());
+    }
+
+    private static void execute(int shard, String sql, Object... args) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url(shard), "sa", "");
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < args.length; i++) {
+                statement.setObject(i + 1, args[i]);
+            }
+            statement.executeUpdate();
+        }
+    }
+
+    // As a move leaves it between its copy and its purge
+    private static void copyPolicy(long id, int from, int to) throws SQLException {
+        try (Connection source = DriverManager.getConnection(url(from), "sa", "");
+             Connection target = DriverManager.getConnection(url(to), "sa", "");
+             PreparedStatement select = source.prepareStatement("SELECT * FROM policies WHERE id = ?")) {
+            select.setLong(1, id);
+            try (ResultSet rs = select.executeQuery()) {
+                assertThat(rs.next()).isTrue();
+                int columns = rs.getMetaData().getColumnCount();
+                StringJoiner values = new StringJoiner(", ");
+                for (int i = 1; i <= columns; i++) {
+                    values.add("?");
+                }
+                try (PreparedStatement insert = target.prepareStatement("INSERT INTO policies VALUES (" + values + ")")) {
+                    for (int i = 1; i <= columns; i++) {
+                        insert.setObject(i, rs.getObject(i));
+                    }
+                    insert.executeUpdate();
+                }
+            }
+        }
+    }
+
+    private static String url(int shard) {
+        return List.of(SHARD_0, SHARD_1).get(shard);
+    }
+
+    private static Policy coverage(Policy policy, String amount) {
+        Policy details = policy(policy.getCustomerId());
+        details.setCoverageAmount(new BigDecimal(amount));
+        return details;
+    }
+
+    private static Policy policy(long customerId) {
+        Policy policy = new Policy();
+        policy.setType(PolicyType.HOME);
+        policy.setStartDate(LocalDate.now().minusMonths(1));
+        policy.setEndDate(LocalDate.now().plusMonths(11));
+        policy.setCoverageAmount(new BigDecimal("50000.00"));
+        policy.setCustomerId(customerId);
+        return policy;
+    }
+}
@@ -0,0 +1,293 @@
+package com.insurance.support.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * {@code Idempotency-Key} support for create endpoints. The first request
+ * with a key runs and its response is stored with a hash of its body; a
+ * retry with the same key and body gets that response back without running
+ * again, and a concurrent retry waits for the first to finish. Reusing a key
+ * for a different body is refused with 422.
+ *
+ * Only responses below 500 are stored: after a server error the key is
+ * released so the retry runs for real. Keys are held in memory per instance.
+ *
+ * A key belongs to one caller and one request target: the value of
+ * {@code insurance.idempotency.caller-header} when a trusted gateway sets
+ * it, otherwise the subject of the bearer token. The token's signature is not
+ * checked here, so that scoping keeps honest callers apart rather than
+ * hostile ones. Bodies over {@code max-body-bytes} are refused with 413
+ * before they are buffered.
+ *
+ * Runs outside policy-service's concurrency limiter (HIGHEST_PRECEDENCE + 5),
+ * so a retry that waits on the first attempt or is replayed holds no slot.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 3)
+public class IdempotencyFilter extends OncePerRequestFilter {
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyFilter.class);
+
+    static final String KEY_HEADER = "Idempotency-Key";
+    static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${insurance.idempotency.enabled:true}")
+    private boolean enabled;
+
+    @Value("${insurance.idempotency.paths:}")
+    private List<String> paths;
+
+    @Value("${insurance.idempotency.stripes:64}")
+    private int stripes;
+
+    @Value("${insurance.idempotency.max-entries:100000}")
+    private int maxEntries;
+
+    @Value("${insurance.idempotency.ttl-minutes:1440}")
+    private long ttlMinutes;
+
+    @Value("${insurance.idempotency.wait-ms:10000}")
+    private long waitMs;
+
+    @Value("${insurance.idempotency.max-body-bytes:1048576}")
+    private int maxBodyBytes;
+
+    @Value("${insurance.idempotency.caller-header:}")
+    private String callerHeader;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private IdempotencyStore store;
+
+    @PostConstruct
+    void init() {
+        store = new IdempotencyStore(stripes, maxEntries, ttlMinutes * 60_000, waitMs);
+        Gauge.builder("http.server.requests.idempotency.keys", store, IdempotencyStore::size).register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !"POST".equals(request.getMethod()) || request.getHeader(KEY_HEADER) == null
+                || !paths.contains(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(KEY_HEADER).trim();
+        if (header.isEmpty() || header.length() > MAX_KEY_LENGTH) {
+            count("invalid");
+            response.sendError(HttpStatus.BAD_REQUEST.value(), KEY_HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+        if (request.getContentLengthLong() > maxBodyBytes) {
+            tooLarge(response);
+            return;
+        }
+        // Chunked bodies have no length up front, so read one byte past the limit to spot them
+        byte[] body = request.getInputStream().readNBytes(maxBodyBytes + 1);
+        if (body.length > maxBodyBytes) {
+            tooLarge(response);
+            return;
+        }
+        // Scoped to the caller and the full target (e.g. ?async=true answers differently); headers hold no newlines
+        String query = request.getQueryString();
+        String key = caller(request) + "\n" + request.getRequestURI() + (query == null ? "" : "?" + query)
+                + "\n" + header;
+
+        IdempotencyStore.StoredResponse stored;
+        try {
+            stored = store.begin(key, sha256(body));
+        } catch (IllegalArgumentException e) {
+            count("mismatch");
+            response.sendError(HttpStatus.UNPROCESSABLE_ENTITY.value(), e.getMessage());
+            return;
+        } catch (IllegalStateException e) {
+            count("in_progress");
+            response.sendError(HttpStatus.CONFLICT.value(), e.getMessage());
+            return;
+        }
+        if (stored != null) {
+            count("replayed");
+            response.setStatus(stored.status());
+            if (stored.contentType() != null) {
+                response.setContentType(stored.contentType());
+            }
+            response.setHeader(REPLAYED_HEADER, "true");
+            response.setContentLength(stored.body().length);
+            response.getOutputStream().write(stored.body());
+            return;
+        }
+
+        ContentCachingResponseWrapper captured = new ContentCachingResponseWrapper(response);
+        boolean completed = false;
+        try {
+            chain.doFilter(new CachedBodyRequest(request, body), captured);
+            if (captured.getStatus() < 500) {
+                store.complete(key, new IdempotencyStore.StoredResponse(captured.getStatus(), captured.getContentType(),
+                        captured.getContentAsByteArray()));
+                completed = true;
+                count("stored");
+            }
+        } finally {
+            if (!completed) {
+                store.release(key);
+                count("released");
+            }
+            captured.copyBodyToResponse();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${insurance.idempotency.expiry-interval-ms:60000}")
+    public void expire() {
+        int removed = store.expireAll();
+        if (removed > 0) {
+            logger.debug("Expired {} idempotency keys", removed);
+        }
+    }
+
+    private void tooLarge(HttpServletResponse response) throws IOException {
+        count("too_large");
+        response.sendError(HttpStatus.PAYLOAD_TOO_LARGE.value(),
+                "Requests with an " + KEY_HEADER + " are limited to " + maxBodyBytes + " bytes");
+    }
+
+    private String caller(HttpServletRequest request) {
+        if (!callerHeader.isEmpty() && request.getHeader(callerHeader) != null) {
+            return "caller:" + request.getHeader(callerHeader);
+        }
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization == null) {
+            return "anonymous";
+        }
+        String subject = bearerSubject(authorization);
+        // A refreshed token keeps its subject; an opaque credential is only matched to itself
+        return subject != null ? "subject:" + subject
+                : "credential:" + sha256(authorization.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String bearerSubject(String authorization) {
+        if (!authorization.startsWith("Bearer ")) {
+            return null;
+        }
+        String[] parts = authorization.substring("Bearer ".length()).trim().split("\\.");
+        if (parts.length != 3) {
+            return null;
+        }
+        try {
+            return objectMapper.readTree(Base64.getUrlDecoder().decode(parts[1])).path("sub").textValue();
+        } catch (IllegalArgumentException | IOException e) {
+            return null;
+        }
+    }
+
+    private void count(String result) {
+        Counter.builder("http.server.requests.idempotency")
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static String sha256(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    // The body has already been read for hashing, so the controller reads it from here
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() throws UnsupportedEncodingException {
+            String encoding = getCharacterEncoding() == null ? StandardCharsets.UTF_8.name() : getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(body), encoding));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
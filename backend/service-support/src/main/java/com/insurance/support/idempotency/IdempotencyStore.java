@@ -0,0 +1,189 @@
+package com.insurance.support.idempotency;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded, expiring store of idempotency keys and the responses they
+ * produced. Keys are spread over independently locked stripes, each an
+ * insertion-ordered map, so expired and surplus entries are always found at
+ * the head. A key is reserved by the first request that carries it;
+ * concurrent duplicates wait on their stripe until that request completes
+ * and then replay its response.
+ */
+public class IdempotencyStore {
+    /** Status, content type and body of a completed request. */
+    public record StoredResponse(int status, String contentType, byte[] body) {
+    }
+
+    private static final class Entry {
+        final String requestHash;
+        final long createdNanos;
+        StoredResponse response; // null while the first request is in flight
+
+        Entry(String requestHash, long createdNanos) {
+            this.requestHash = requestHash;
+            this.createdNanos = createdNanos;
+        }
+    }
+
+    private static final class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        final Condition completed = lock.newCondition();
+        final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+    }
+
+    private final Stripe[] stripes;
+    private final int maxEntriesPerStripe;
+    private final long ttlNanos;
+    private final long waitNanos;
+
+    /**
+     * @param stripes    lock stripes, a power of two
+     * @param maxEntries bound on stored keys; the oldest go first once it is reached
+     * @param waitMillis how long a duplicate waits for the first request before giving up
+     */
+    public IdempotencyStore(int stripes, int maxEntries, long ttlMillis, long waitMillis) {
+        if (Integer.bitCount(stripes) != 1 || maxEntries < stripes) {
+            throw new IllegalArgumentException("stripes must be a power of two no larger than maxEntries");
+        }
+        this.stripes = new Stripe[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new Stripe();
+        }
+        this.maxEntriesPerStripe = maxEntries / stripes;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.waitNanos = TimeUnit.MILLISECONDS.toNanos(waitMillis);
+    }
+
+    /**
+     * Reserves {@code key} and returns null, in which case the caller must
+     * end with {@link #complete} or {@link #release}; or returns the stored
+     * response of an earlier request with the same key. Throws
+     * IllegalArgumentException when the key was used for a different request
+     * and IllegalStateException when its first request is still running
+     * after the wait.
+     */
+    public StoredResponse begin(String key, String requestHash) {
+        Stripe stripe = stripe(key);
+        stripe.lock.lock();
+        try {
+            long remaining = waitNanos;
+            while (true) {
+                long now = System.nanoTime();
+                expire(stripe, now);
+                Entry entry = stripe.entries.get(key);
+                if (entry == null) {
+                    stripe.entries.put(key, new Entry(requestHash, now));
+                    evictSurplus(stripe);
+                    return null;
+                }
+                if (!entry.requestHash.equals(requestHash)) {
+                    throw new IllegalArgumentException("Idempotency key " + key + " was used for a different request");
+                }
+                if (entry.response != null) {
+                    return entry.response;
+                }
+                if (remaining <= 0) {
+                    throw new IllegalStateException("Request with idempotency key " + key + " is still in progress");
+                }
+                remaining = stripe.completed.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for idempotency key " + key);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /** Stores the response of the request that reserved {@code key} and wakes its duplicates. */
+    public void complete(String key, StoredResponse response) {
+        Stripe stripe = stripe(key);
+        stripe.lock.lock();
+        try {
+            Entry entry = stripe.entries.get(key);
+            if (entry != null) {
+                entry.response = response;
+            }
+            stripe.completed.signalAll();
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /** Forgets a reservation whose request failed, so a retry runs it again. */
+    public void release(String key) {
+        Stripe stripe = stripe(key);
+        stripe.lock.lock();
+        try {
+            stripe.entries.remove(key);
+            stripe.completed.signalAll();
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                size += stripe.entries.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    /** Drops expired entries from every stripe; returns how many. */
+    public int expireAll() {
+        int removed = 0;
+        long now = System.nanoTime();
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                removed += expire(stripe, now);
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return removed;
+    }
+
+    // Caller holds the stripe lock; in-flight entries are kept until their request ends
+    private int expire(Stripe stripe, long now) {
+        int removed = 0;
+        Iterator<Entry> entries = stripe.entries.values().iterator();
+        while (entries.hasNext()) {
+            Entry entry = entries.next();
+            if (now - entry.createdNanos < ttlNanos) {
+                break;
+            }
+            if (entry.response != null) {
+                entries.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    // Caller holds the stripe lock
+    private void evictSurplus(Stripe stripe) {
+        Iterator<Entry> entries = stripe.entries.values().iterator();
+        while (stripe.entries.size() > maxEntriesPerStripe && entries.hasNext()) {
+            if (entries.next().response != null) {
+                entries.remove();
+            }
+        }
+    }
+
+    private Stripe stripe(String key) {
+        int hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+}
@@ -0,0 +1,34 @@
+package com.insurance.support.replica;
+
+/**
+ * Whether the current request has run a read-write transaction. Once it
+ * has, its later read-only transactions go to the primary as well, so a
+ * request always sees its own writes. Bound to the request thread by
+ * {@link ReadYourWritesFilter}; outside a request reads are never pinned.
+ */
+public final class ReadYourWrites {
+    private static final ThreadLocal<boolean[]> CURRENT = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    static void begin() {
+        CURRENT.set(new boolean[1]);
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    static void markWritten() {
+        boolean[] written = CURRENT.get();
+        if (written != null) {
+            written[0] = true;
+        }
+    }
+
+    public static boolean hasWritten() {
+        boolean[] written = CURRENT.get();
+        return written != null && written[0];
+    }
+}
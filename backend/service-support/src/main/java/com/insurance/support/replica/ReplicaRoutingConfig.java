@@ -0,0 +1,108 @@
+package com.insurance.support.replica;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the single pool with a primary pool and one pool per read
+ * replica behind a {@link ReplicaRoutingDataSource}. The primary keeps the
+ * {@code spring.datasource.*} settings; replicas are listed under
+ * {@code insurance.replicas.*}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "insurance.replicas.enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    @Value("${insurance.replicas.urls:}")
+    private List<String> urls;
+
+    @Value("${insurance.replicas.username:${spring.datasource.username:}}")
+    private String username;
+
+    @Value("${insurance.replicas.password:${spring.datasource.password:}}")
+    private String password;
+
+    @Value("${insurance.replicas.pool-size:10}")
+    private int poolSize;
+
+    @Value("${insurance.replicas.connection-timeout-ms:1000}")
+    private long connectionTimeoutMs;
+
+    @Value("${insurance.replicas.health-check-timeout-seconds:2}")
+    private int healthCheckTimeoutSeconds;
+
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties properties, Environment environment, MeterRegistry meterRegistry) {
+        if (urls.isEmpty()) {
+            throw new IllegalStateException("insurance.replicas.urls must list at least one replica");
+        }
+        MicrometerMetricsTrackerFactory metrics = new MicrometerMetricsTrackerFactory(meterRegistry);
+
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName(ReplicaRoutingDataSource.PRIMARY);
+        primary.setMetricsTrackerFactory(metrics);
+
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + (i + 1));
+            replica.setJdbcUrl(urls.get(i).trim());
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.setMaximumPoolSize(poolSize);
+            replica.setConnectionTimeout(connectionTimeoutMs);
+            replica.setReadOnly(true);
+            // A replica that is down at startup is marked down, not fatal
+            replica.setInitializationFailTimeout(-1);
+            replica.setMetricsTrackerFactory(metrics);
+            replicas.add(replica);
+        }
+
+        routingDataSource = new ReplicaRoutingDataSource(primary, replicas, meterRegistry);
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    // Connections go back after each transaction; held for the session (the
+    // default), the first transaction's replica would serve later writes too
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionsAfterTransaction() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    @Scheduled(fixedDelayString = "${insurance.replicas.health-check-interval-ms:5000}")
+    public void checkReplicas() {
+        if (routingDataSource != null) {
+            routingDataSource.checkHealth(healthCheckTimeoutSeconds);
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        if (routingDataSource != null) {
+            routingDataSource.close();
+        }
+    }
+}
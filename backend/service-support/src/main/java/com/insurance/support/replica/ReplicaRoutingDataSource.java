@@ -0,0 +1,176 @@
+package com.insurance.support.replica;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Routes connections for read-only transactions to a healthy replica, round
+ * robin, and everything else to the primary. A request that has written
+ * keeps reading from the primary ({@link ReadYourWrites}).
+ *
+ * The transaction's read-only flag is only set after the connection for it
+ * is requested, so this must sit behind a LazyConnectionDataSourceProxy,
+ * which defers the lookup to the first statement. A replica that fails to
+ * hand out a connection is marked down, the primary serves the read, and
+ * the replica rejoins once a health check passes.
+ *
+ * A transaction served by a replica may see rows older than the primary's,
+ * so its session reads the second-level and query caches but puts nothing
+ * into them (CacheMode.GET) until the transaction ends.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    static final String PRIMARY = "primary";
+
+    private static final class Replica {
+        final HikariDataSource pool;
+        volatile boolean healthy = true;
+
+        Replica(HikariDataSource pool) {
+            this.pool = pool;
+        }
+    }
+
+    private final HikariDataSource primary;
+    private final List<Replica> replicas;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter primaryRoutes;
+    private final Counter replicaRoutes;
+    private final Counter failovers;
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        replicas.forEach(replica -> targets.put(replica.getPoolName(), replica));
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+
+        primaryRoutes = meterRegistry.counter("datasource.routing", "target", "primary");
+        replicaRoutes = meterRegistry.counter("datasource.routing", "target", "replica");
+        failovers = meterRegistry.counter("datasource.routing.failovers");
+        meterRegistry.gauge("datasource.replicas.healthy", this, ReplicaRoutingDataSource::healthyReplicas);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                ReadYourWrites.markWritten();
+            }
+            return PRIMARY;
+        }
+        if (ReadYourWrites.hasWritten()) {
+            return PRIMARY;
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica.pool.getPoolName();
+            }
+        }
+        return PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        DataSource target = determineTargetDataSource();
+        if (target == primary) {
+            primaryRoutes.increment();
+            return primary.getConnection();
+        }
+        try {
+            Connection connection = target.getConnection();
+            replicaRoutes.increment();
+            keepOutOfSharedCaches();
+            return connection;
+        } catch (SQLException e) {
+            replicas.stream().filter(replica -> replica.pool == target).forEach(replica -> markDown(replica, e));
+            failovers.increment();
+            primaryRoutes.increment();
+            return primary.getConnection();
+        }
+    }
+
+    /** Validates a connection from every replica, marking each up or down. */
+    public void checkHealth(int timeoutSeconds) {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.pool.getConnection()) {
+                if (!connection.isValid(timeoutSeconds)) {
+                    throw new SQLException("Connection is not valid");
+                }
+                if (!replica.healthy) {
+                    replica.healthy = true;
+                    logger.info("Replica {} is back up", replica.pool.getPoolName());
+                }
+            } catch (SQLException e) {
+                markDown(replica, e);
+            }
+        }
+    }
+
+    public int healthyReplicas() {
+        return (int) replicas.stream().filter(replica -> replica.healthy).count();
+    }
+
+    public void close() {
+        replicas.forEach(replica -> replica.pool.close());
+        primary.close();
+    }
+
+    private static void keepOutOfSharedCaches() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        for (Object resource : TransactionSynchronizationManager.getResourceMap().values()) {
+            if (!(resource instanceof EntityManagerHolder holder)) {
+                continue;
+            }
+            Session session = holder.getEntityManager().unwrap(Session.class);
+            CacheMode previous = session.getCacheMode();
+            if (previous == CacheMode.GET || previous == CacheMode.IGNORE) {
+                continue;
+            }
+            session.setCacheMode(CacheMode.GET);
+            // The session can outlive the transaction (open-in-view), and later ones may be on the primary
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (session.isOpen()) {
+                        session.setCacheMode(previous);
+                    }
+                }
+            });
+        }
+    }
+
+    private void markDown(Replica replica, SQLException e) {
+        if (replica.healthy) {
+            replica.healthy = false;
+            logger.warn("Replica {} is down, reads go to the primary: {}", replica.pool.getPoolName(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.insurance.support.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Table;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.SingularAttribute;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.hibernate.cache.spi.TimestampsCache;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.PropertyAccessor;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Partial updates in one statement. The changed columns are written, the
+ * version is bumped and the previous row is read back by a single
+ * {@code SELECT * FROM OLD TABLE (UPDATE ...)}, so callers get the
+ * before-image for their derived state without loading the entity first.
+ *
+ * Hibernate does not run these writes itself, so the cache bookkeeping it
+ * does around its own updates is done here through the session: the row's
+ * second-level cache entry is soft-locked and the table's queries
+ * pre-invalidated before the UPDATE, and both are released when the
+ * transaction completes. A reader that loaded the old row meanwhile cannot
+ * put it back.
+ */
+@Repository
+public class PatchRepository {
+    private static final String ID = "id";
+    private static final String VERSION = "version";
+
+    /** The row as it was before the update and as it is now. */
+    public record Patched<T>(T before, T after) {
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    /**
+     * Applies {@code changes} (attribute name to JSON value) to row {@code id}.
+     * When {@code expectedVersion} is given the row is only written at that
+     * version; a row at another version fails with
+     * {@link OptimisticLockingFailureException}. Returns empty if no row has
+     * that id. Unknown, immutable or invalid fields fail with
+     * {@link IllegalArgumentException} before anything is written.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public <T> Optional<Patched<T>> patch(Class<T> entityType, long id, Long expectedVersion,
+                                          Map<String, Object> changes, Set<String> immutable) {
+        EntityType<T> entity = entityManager.getMetamodel().entity(entityType);
+        Map<String, Object> values = convert(entityType, entity, changes, immutable);
+        String table = entityType.getAnnotation(Table.class).name();
+
+        StringBuilder sql = new StringBuilder("SELECT * FROM OLD TABLE (UPDATE ").append(table).append(" SET ");
+        List<Object> args = new ArrayList<>(values.size() + 2);
+        values.forEach((name, value) -> {
+            sql.append(column(name)).append(" = ?, ");
+            args.add(value instanceof Enum<?> constant ? constant.name() : value);
+        });
+        sql.append(VERSION).append(" = ").append(VERSION).append(" + 1 WHERE ").append(ID).append(" = ?");
+        args.add(id);
+        if (expectedVersion != null) {
+            sql.append(" AND ").append(VERSION).append(" = ?");
+            args.add(expectedVersion);
+        }
+        sql.append(')');
+
+        invalidateUntilCompletion(entityType, id);
+        List<T> rows = jdbcTemplate.query(sql.toString(), (rs, row) -> read(entityType, entity, rs), args.toArray());
+        if (rows.isEmpty()) {
+            if (expectedVersion != null && Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) > 0 FROM " + table + " WHERE " + ID + " = ?", Boolean.class, id))) {
+                throw new OptimisticLockingFailureException(
+                        entity.getName() + " " + id + " is no longer at version " + expectedVersion);
+            }
+            return Optional.empty();
+        }
+        T before = rows.get(0);
+        T after = BeanUtils.instantiateClass(entityType);
+        BeanUtils.copyProperties(before, after);
+        PropertyAccessor accessor = PropertyAccessorFactory.forDirectFieldAccess(after);
+        values.forEach(accessor::setPropertyValue);
+        accessor.setPropertyValue(VERSION, (Long) accessor.getPropertyValue(VERSION) + 1);
+        return Optional.of(new Patched<>(before, after));
+    }
+
+    private <T> Map<String, Object> convert(Class<T> entityType, EntityType<T> entity,
+                                            Map<String, Object> changes, Set<String> immutable) {
+        if (changes == null || changes.isEmpty()) {
+            throw new IllegalArgumentException("No fields to update");
+        }
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> change : changes.entrySet()) {
+            String name = change.getKey();
+            Attribute<? super T, ?> attribute;
+            try {
+                attribute = entity.getAttribute(name);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown field: " + name);
+            }
+            if (attribute.getPersistentAttributeType() != Attribute.PersistentAttributeType.BASIC
+                    || name.equals(ID) || name.equals(VERSION) || immutable.contains(name)) {
+                throw new IllegalArgumentException("Field cannot be updated: " + name);
+            }
+            Object value = objectMapper.convertValue(change.getValue(), attribute.getJavaType());
+            Set<ConstraintViolation<T>> violations = validator.validateValue(entityType, name, value);
+            if (!violations.isEmpty()) {
+                throw new IllegalArgumentException(name + " " + violations.iterator().next().getMessage());
+            }
+            values.put(name, value);
+        }
+        return values;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T> T read(Class<T> entityType, EntityType<T> entity, ResultSet rs) throws SQLException {
+        T row = BeanUtils.instantiateClass(entityType);
+        PropertyAccessor accessor = PropertyAccessorFactory.forDirectFieldAccess(row);
+        for (SingularAttribute<? super T, ?> attribute : entity.getSingularAttributes()) {
+            Class<?> type = attribute.getJavaType();
+            String column = column(attribute.getName());
+            Object value;
+            if (type.isEnum()) {
+                String name = rs.getString(column);
+                value = name == null ? null : Enum.valueOf((Class<? extends Enum>) type, name);
+            } else {
+                value = rs.getObject(column, type);
+            }
+            accessor.setPropertyValue(attribute.getName(), value);
+        }
+        return row;
+    }
+
+    // Same mapping as Spring's default physical naming strategy: camelCase to snake_case
+    private static String column(String attribute) {
+        return attribute.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toLowerCase();
+    }
+
+    // As Hibernate does for its own updates of a READ_WRITE entity and its tables' cached queries
+    private void invalidateUntilCompletion(Class<?> entityType, long id) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        EntityPersister persister = session.getFactory().getMappingMetamodel().getEntityDescriptor(entityType);
+        String[] spaces = persister.getPropertySpaces();
+        TimestampsCache timestamps = session.getFactory().getCache().getTimestampsCache();
+        timestamps.preInvalidate(spaces, session);
+
+        EntityDataAccess access = persister.canWriteToCache() ? persister.getCacheAccessStrategy() : null;
+        Object key = access == null ? null
+                : access.generateCacheKey(id, persister, session.getFactory(), session.getTenantIdentifier());
+        SoftLock lock = access == null ? null : access.lockItem(session, key, null);
+        session.getActionQueue().registerProcess((success, completed) -> {
+            if (access != null) {
+                access.unlockItem(completed, key, lock);
+            }
+            timestamps.invalidate(spaces, completed);
+        });
+    }
+}
@@ -0,0 +1,103 @@
+package com.insurance.support.sql;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Wraps the pool so connections handed out during a request report to the
+ * request's {@link SqlStats}. Connections taken outside a request (schedulers,
+ * startup) are returned unwrapped and cost nothing extra.
+ */
+public class SqlCountingDataSource extends DelegatingDataSource {
+
+    public SqlCountingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private static Connection wrap(Connection connection) {
+        SqlStats stats = SqlStats.current();
+        if (stats == null) {
+            return connection;
+        }
+        return proxy(Connection.class, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            if (result instanceof CallableStatement statement) {
+                return proxy(CallableStatement.class, statementHandler(statement, stats));
+            }
+            if (result instanceof PreparedStatement statement) {
+                return proxy(PreparedStatement.class, statementHandler(statement, stats));
+            }
+            if (result instanceof Statement statement) {
+                return proxy(Statement.class, statementHandler(statement, stats));
+            }
+            return result;
+        });
+    }
+
+    private static InvocationHandler statementHandler(Statement statement, SqlStats stats) {
+        return (proxy, method, args) -> {
+            if (!method.getName().startsWith("execute")) {
+                Object result = invoke(statement, method, args);
+                return result instanceof ResultSet resultSet ? countRows(resultSet, stats) : result;
+            }
+            long start = System.nanoTime();
+            try {
+                Object result = invoke(statement, method, args);
+                return result instanceof ResultSet resultSet ? countRows(resultSet, stats) : result;
+            } finally {
+                stats.statementExecuted(System.nanoTime() - start);
+            }
+        };
+    }
+
+    private static ResultSet countRows(ResultSet resultSet, SqlStats stats) {
+        return proxy(ResultSet.class, (proxy, method, args) -> {
+            Object result = invoke(resultSet, method, args);
+            if (Boolean.TRUE.equals(result) && "next".equals(method.getName())) {
+                stats.rowRead();
+            }
+            return result;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        // Identity semantics, so Hibernate's statement/result set registries can key on the proxies
+        InvocationHandler identityAware = (proxy, method, args) -> switch (method.getName()) {
+            case "equals" -> method.getParameterCount() == 1 && proxy == args[0];
+            case "hashCode" -> method.getParameterCount() == 0
+                    ? System.identityHashCode(proxy) : handler.invoke(proxy, method, args);
+            default -> handler.invoke(proxy, method, args);
+        };
+        return (T) Proxy.newProxyInstance(SqlCountingDataSource.class.getClassLoader(), new Class<?>[]{type}, identityAware);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.insurance.support.sql;
+
+/**
+ * JDBC activity of the current request: statements executed, rows read and
+ * time spent inside the driver. Bound to the request thread by
+ * {@link SqlStatsFilter}; outside a request nothing is counted.
+ */
+public class SqlStats {
+    private static final ThreadLocal<SqlStats> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long rows;
+    private long nanos;
+
+    public static SqlStats current() {
+        return CURRENT.get();
+    }
+
+    static SqlStats begin() {
+        SqlStats stats = new SqlStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static void end(SqlStats previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    /**
+     * Runs {@code work} on the calling thread and returns the statements it
+     * issued, e.g. {@code assertTrue(SqlStats.capture(() -> service.getCustomerById(1L)).getStatements() <= 1)}.
+     */
+    public static SqlStats capture(Runnable work) {
+        SqlStats previous = CURRENT.get();
+        SqlStats stats = begin();
+        try {
+            work.run();
+        } finally {
+            end(previous);
+        }
+        return stats;
+    }
+
+    void statementExecuted(long elapsedNanos) {
+        statements++;
+        nanos += elapsedNanos;
+    }
+
+    void rowRead() {
+        rows++;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    public double getMillis() {
+        return nanos / 1_000_000.0;
+    }
+}
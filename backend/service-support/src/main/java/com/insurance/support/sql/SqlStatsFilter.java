@@ -0,0 +1,105 @@
+package com.insurance.support.sql;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Scopes {@link SqlStats} to each HTTP request, records the per-endpoint
+ * statement/row/time metrics and flags requests over the statement budget.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SqlStatsFilter extends OncePerRequestFilter {
+    private static final Logger logger = LoggerFactory.getLogger(SqlStatsFilter.class);
+
+    static final String STATEMENTS_HEADER = "X-Sql-Statements";
+    static final String ROWS_HEADER = "X-Sql-Rows";
+    static final String TIME_HEADER = "X-Sql-Time-Ms";
+    static final String BUDGET_EXCEEDED_HEADER = "X-Sql-Budget-Exceeded";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${insurance.sql.enabled:true}")
+    private boolean enabled;
+
+    @Value("${insurance.sql.statement-budget:10}")
+    private int statementBudget;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlStats stats = SqlStats.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            SqlStats.end(null);
+            if (!response.isCommitted()) {
+                writeHeaders(stats, response::setHeader);
+            }
+            record(stats, request);
+        }
+    }
+
+    void writeHeaders(SqlStats stats, BiConsumer<String, String> setHeader) {
+        setHeader.accept(STATEMENTS_HEADER, Integer.toString(stats.getStatements()));
+        setHeader.accept(ROWS_HEADER, Long.toString(stats.getRows()));
+        setHeader.accept(TIME_HEADER, String.format("%.3f", stats.getMillis()));
+        if (stats.getStatements() > statementBudget) {
+            setHeader.accept(BUDGET_EXCEEDED_HEADER, "true");
+        }
+    }
+
+    private void record(SqlStats stats, HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+        String method = request.getMethod();
+
+        DistributionSummary.builder("http.server.requests.sql.statements")
+                .tags("uri", uri, "method", method)
+                .register(meterRegistry)
+                .record(stats.getStatements());
+        DistributionSummary.builder("http.server.requests.sql.rows")
+                .tags("uri", uri, "method", method)
+                .register(meterRegistry)
+                .record(stats.getRows());
+        Timer.builder("http.server.requests.sql.time")
+                .tags("uri", uri, "method", method)
+                .register(meterRegistry)
+                .record(stats.getNanos(), TimeUnit.NANOSECONDS);
+
+        if (stats.getStatements() > statementBudget) {
+            Counter.builder("http.server.requests.sql.budget.exceeded")
+                    .tags("uri", uri, "method", method)
+                    .register(meterRegistry)
+                    .increment();
+            logger.warn("{} {} ran {} SQL statements (budget {}), {} rows, {} ms",
+                    method, uri, stats.getStatements(), statementBudget, stats.getRows(),
+                    String.format("%.1f", stats.getMillis()));
+        }
+    }
+}
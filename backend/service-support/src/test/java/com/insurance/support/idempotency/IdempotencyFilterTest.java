@@ -0,0 +1,98 @@
+package com.insurance.support.idempotency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdempotencyFilterTest {
+    private static final String PATH = "/api/claims";
+    private static final String BODY = "{\"policyId\":1}";
+
+    private final AtomicInteger created = new AtomicInteger();
+    private final FilterChain chain = (request, response) -> {
+        request.getInputStream().readAllBytes();
+        response.getWriter().write("{\"id\":" + created.incrementAndGet() + "}");
+    };
+    private IdempotencyFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new IdempotencyFilter();
+        ReflectionTestUtils.setField(filter, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "paths", List.of(PATH));
+        ReflectionTestUtils.setField(filter, "stripes", 4);
+        ReflectionTestUtils.setField(filter, "maxEntries", 100);
+        ReflectionTestUtils.setField(filter, "ttlMinutes", 1L);
+        ReflectionTestUtils.setField(filter, "waitMs", 1_000L);
+        ReflectionTestUtils.setField(filter, "maxBodyBytes", 64);
+        ReflectionTestUtils.setField(filter, "callerHeader", "");
+        filter.init();
+    }
+
+    @Test
+    void retryFromTheSameCallerIsReplayed() throws Exception {
+        assertThat(post(token("alice"), null, BODY).getContentAsString()).isEqualTo("{\"id\":1}");
+
+        MockHttpServletResponse retry = post(token("alice"), null, BODY);
+
+        assertThat(retry.getContentAsString()).isEqualTo("{\"id\":1}");
+        assertThat(retry.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+    }
+
+    @Test
+    void sameKeyFromAnotherCallerRunsOnItsOwn() throws Exception {
+        post(token("alice"), null, BODY);
+
+        MockHttpServletResponse other = post(token("bob"), null, BODY);
+
+        assertThat(other.getContentAsString()).isEqualTo("{\"id\":2}");
+        assertThat(other.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isNull();
+    }
+
+    @Test
+    void sameKeyOnAnotherQueryRunsOnItsOwn() throws Exception {
+        post(token("alice"), null, BODY);
+
+        assertThat(post(token("alice"), "async=true", BODY).getContentAsString()).isEqualTo("{\"id\":2}");
+    }
+
+    @Test
+    void oversizedBodyIsRefusedBeforeItRuns() throws Exception {
+        MockHttpServletResponse response = post(token("alice"), null, "x".repeat(65));
+
+        assertThat(response.getStatus()).isEqualTo(413);
+        assertThat(created).hasValue(0);
+    }
+
+    private MockHttpServletResponse post(String authorization, String query, String body) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", PATH);
+        request.setQueryString(query);
+        request.addHeader(IdempotencyFilter.KEY_HEADER, "key-1");
+        request.addHeader(HttpHeaders.AUTHORIZATION, authorization);
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    // Unsigned; the filter only reads the subject
+    private static String token(String subject) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return "Bearer " + encoder.encodeToString("{\"alg\":\"HS256\"}".getBytes(StandardCharsets.UTF_8)) + "."
+                + encoder.encodeToString(("{\"sub\":\"" + subject + "\"}").getBytes(StandardCharsets.UTF_8)) + ".c2ln";
+    }
+}